@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.dsql.entity.DSQLEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、ダイナミックSQLの生成を{@link DynamicSQL}を返す方法とバッファに書き込む方法で比較するベンチマーククラスです(パラメータは{@link Parameter}、{@link IndexedParameter}、Bean)。
+ * <p>
+ * 形状キャッシュに存在する形状の生成を計測します。バッファに書き込む方法は<code>gc.alloc.rate.norm</code>が0となります。
+ * </p>
+ * 
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar BuildBenchmark -prof gc
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildBenchmark {
+
+	/**
+	 * テンプレート
+	 */
+	private static final String TEMPLATE = "SELECT\n" + "    A.id\n" + "  , A.name\n" + "FROM\n" + "    customer A\n" + "WHERE\n" + "    1 = 1\n"
+			+ "${name}     AND A.name = ?\n" + "${ids}      AND A.id IN ( ? )\n" + "${AGE:}     AND A.age\n" + "${AGE:fromAge}  BETWEEN ?\n"
+			+ "${AGE:toAge}    AND     ?\n" + "ORDER BY A.id";
+
+	/**
+	 * エンティティ情報
+	 */
+	private DSQLEntity entity;
+
+	/**
+	 * グループ
+	 */
+	private Group group;
+
+	/**
+	 * パラメータ
+	 */
+	private Parameter parameter;
+
+	/**
+	 * インデックス指定のパラメータ
+	 */
+	private IndexedParameter indexedParameter;
+
+	/**
+	 * Bean
+	 */
+	private Condition bean;
+
+	/**
+	 * バッファ
+	 */
+	private DynamicSQLBuffer buffer;
+
+	@Setup
+	public void setup() throws IOException {
+		entity = DSQLEntity.getInstance("customer", ByteBuffer.wrap(TEMPLATE.getBytes("UTF-8")), Charset.forName("UTF-8"));
+
+		group = new Group("AGE");
+		parameter = new Parameter();
+		parameter.put("name", "test");
+		parameter.put("ids", Arrays.asList(1, 2, 3, 4));
+		parameter.put("fromAge", 20);
+		parameter.put("toAge", 29);
+
+		indexedParameter = new IndexedParameter(entity.getPlan().getParameterLayout());
+		for (String key : new String[] { "name", "ids", "fromAge", "toAge" }) {
+			indexedParameter.set(indexedParameter.getLayout().indexOf(key), parameter.get(key));
+		}
+
+		bean = new Condition("test", Arrays.asList(1, 2, 3, 4), 20, 29);
+
+		buffer = new DynamicSQLBuffer();
+	}
+
+	@Benchmark
+	public DynamicSQL build() {
+		return DynamicSQLBuilder.build("customer", entity, group, parameter);
+	}
+
+	@Benchmark
+	public DynamicSQL buildIndexed() {
+		return DynamicSQLBuilder.buildIndexed("customer", entity, group, indexedParameter);
+	}
+
+	@Benchmark
+	public DynamicSQLBuffer buildBuffer() {
+		return DynamicSQLBuilder.build(buffer, null, "customer", entity, group, parameter);
+	}
+
+	@Benchmark
+	public DynamicSQLBuffer buildIndexedBuffer() {
+		return DynamicSQLBuilder.buildIndexed(buffer, null, "customer", entity, group, indexedParameter);
+	}
+
+	@Benchmark
+	public DynamicSQL buildBean() {
+		return DynamicSQLBuilder.build(null, "customer", entity, group, bean);
+	}
+
+	@Benchmark
+	public DynamicSQLBuffer buildBeanBuffer() {
+		return DynamicSQLBuilder.build(buffer, null, "customer", entity, group, bean);
+	}
+
+	/**
+	 * このクラスは、検索条件を保持するBeanクラスです。
+	 */
+	public static final class Condition {
+
+		/**
+		 * 名前
+		 */
+		private final String name;
+
+		/**
+		 * ID
+		 */
+		private final List<Integer> ids;
+
+		/**
+		 * 年齢(開始)
+		 */
+		private final int fromAge;
+
+		/**
+		 * 年齢(終了)
+		 */
+		private final int toAge;
+
+		public Condition(final String name, final List<Integer> ids, final int fromAge, final int toAge) {
+			this.name = name;
+			this.ids = ids;
+			this.fromAge = fromAge;
+			this.toAge = toAge;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public List<Integer> getIds() {
+			return ids;
+		}
+
+		public int getFromAge() {
+			return fromAge;
+		}
+
+		public int getToAge() {
+			return toAge;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.dsql.entity.DSQLEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、グループ数・パラメータ数・リストの要素数ごとにダイナミックSQLの生成を計測するベンチマーククラスです。
+ * <p>
+ * すべてのグループとパラメータを有効にしたテンプレートを生成します。リストは<code>List&lt;Long&gt;</code>と<code>long[]</code>で比較します。
+ * </p>
+ * 
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar BuildScalingBenchmark -p inListSize=256 -prof gc
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildScalingBenchmark {
+
+	/**
+	 * グループ数
+	 */
+	@Param({ "1", "8", "32" })
+	public int groups;
+
+	/**
+	 * パラメータ数
+	 */
+	@Param({ "1", "8", "32" })
+	public int parameters;
+
+	/**
+	 * リストの要素数
+	 */
+	@Param({ "1", "16", "256" })
+	public int inListSize;
+
+	/**
+	 * エンティティ情報
+	 */
+	private DSQLEntity entity;
+
+	/**
+	 * グループ
+	 */
+	private Group group;
+
+	/**
+	 * パラメータ
+	 */
+	private Parameter parameter;
+
+	/**
+	 * リストを<code>long[]</code>で指定したパラメータ
+	 */
+	private Parameter arrayParameter;
+
+	/**
+	 * バッファ
+	 */
+	private DynamicSQLBuffer buffer;
+
+	@Setup
+	public void setup() throws IOException {
+		StringBuilder s = new StringBuilder();
+		s.append("SELECT\n    A.id\nFROM\n    customer A\nWHERE\n    1 = 1\n");
+		for (int i = 0; i < groups; i++) {
+			s.append("${G").append(i).append(":}    AND A.flag").append(i).append(" = 1\n");
+		}
+		for (int i = 0; i < parameters; i++) {
+			s.append("${p").append(i).append("}     AND A.col").append(i).append(" = ?\n");
+		}
+		s.append("${ids}    AND A.id IN ( ? )\n");
+		entity = DSQLEntity.getInstance("scaling", ByteBuffer.wrap(s.toString().getBytes("UTF-8")), Charset.forName("UTF-8"));
+
+		group = new Group();
+		for (int i = 0; i < groups; i++) {
+			group.add("G" + i);
+		}
+		parameter = new Parameter();
+		for (int i = 0; i < parameters; i++) {
+			parameter.put("p" + i, i);
+		}
+		List<Long> ids = new ArrayList<Long>(inListSize);
+		for (int i = 0; i < inListSize; i++) {
+			ids.add((long) i);
+		}
+		parameter.put("ids", ids);
+
+		arrayParameter = new Parameter(parameter);
+		long[] array = new long[inListSize];
+		for (int i = 0; i < inListSize; i++) {
+			array[i] = i;
+		}
+		arrayParameter.put("ids", array);
+
+		buffer = new DynamicSQLBuffer();
+	}
+
+	@Benchmark
+	public DynamicSQL build() {
+		return DynamicSQLBuilder.build("scaling", entity, group, parameter);
+	}
+
+	@Benchmark
+	public DynamicSQLBuffer buildBuffer() {
+		return DynamicSQLBuilder.build(buffer, null, "scaling", entity, group, parameter);
+	}
+
+	@Benchmark
+	public DynamicSQLBuffer buildBufferArray() {
+		return DynamicSQLBuilder.build(buffer, null, "scaling", entity, group, arrayParameter);
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、ダイナミックSQLのロードを設定ファイルとカタログで比較するベンチマーククラスです。
+ * <p>
+ * 生成したダイナミックSQLファイル(1,000件・10,000件)をすべてロードします。
+ * </p>
+ * 
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar CatalogLoadBenchmark -prof gc
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CatalogLoadBenchmark {
+
+	/**
+	 * 名前空間
+	 */
+	private static final String NAMESPACE = "bench";
+
+	/**
+	 * ダイナミックSQL数
+	 */
+	@Param({ "1000", "10000" })
+	public int statements;
+
+	/**
+	 * 一時ディレクトリ
+	 */
+	private Path dir;
+
+	/**
+	 * カタログファイル
+	 */
+	private File catalog;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		dir = SyntheticStatements.write(statements);
+		catalog = SyntheticStatements.compile(dir);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		DynamicSQLManager.getInstance().destroy();
+		SyntheticStatements.delete(dir);
+	}
+
+	@Setup(Level.Invocation)
+	public void clear() {
+		DynamicSQLManager.getInstance().initialize();
+	}
+
+	@Benchmark
+	public DynamicSQLManager loadCatalog() throws IOException {
+		DynamicSQLManager manager = DynamicSQLManager.getInstance();
+		manager.loadCatalog(NAMESPACE, catalog);
+		return manager;
+	}
+
+	@Benchmark
+	public DynamicSQLManager loadXml() throws IOException {
+		DynamicSQLManager manager = DynamicSQLManager.getInstance();
+		manager.load(NAMESPACE, SyntheticStatements.CONFIG, SyntheticStatements.context(dir));
+		return manager;
+	}
+}
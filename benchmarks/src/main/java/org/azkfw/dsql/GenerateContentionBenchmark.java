@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.dsql.metrics.DynamicSQLMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、複数スレッドから{@link DynamicSQLManager#generate(String, String, Group, Parameter)}を呼び出した場合の生成を計測するベンチマーククラスです。
+ * <p>
+ * 各スレッドはロードしたダイナミックSQLを順に生成します(名前を指定する方法と{@link StatementHandle}を使用する方法)。<code>metrics</code>で計測の有効・無効を切り替えます。
+ * </p>
+ * 
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar GenerateContentionBenchmark -t 16 -prof gc
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class GenerateContentionBenchmark {
+
+	/**
+	 * 名前空間
+	 */
+	private static final String NAMESPACE = "bench";
+
+	/**
+	 * ダイナミックSQL数
+	 */
+	private static final int STATEMENTS = 128;
+
+	/**
+	 * 計測の有効・無効
+	 */
+	@Param({ "false", "true" })
+	public boolean metrics;
+
+	/**
+	 * 一時ディレクトリ
+	 */
+	private Path dir;
+
+	/**
+	 * ダイナミックSQL名
+	 */
+	private String[] names;
+
+	/**
+	 * ハンドル
+	 */
+	private StatementHandle[] handles;
+
+	@Setup
+	public void setup() throws IOException {
+		dir = SyntheticStatements.write(STATEMENTS);
+		DynamicSQLManager manager = DynamicSQLManager.getInstance();
+		manager.initialize();
+		manager.load(NAMESPACE, SyntheticStatements.CONFIG, SyntheticStatements.context(dir));
+
+		names = new String[STATEMENTS];
+		handles = new StatementHandle[STATEMENTS];
+		for (int i = 0; i < STATEMENTS; i++) {
+			names[i] = SyntheticStatements.name(i);
+			handles[i] = DynamicSQLManager.prepare(NAMESPACE, names[i]);
+		}
+		DynamicSQLMetrics.getInstance().setEnabled(metrics);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		DynamicSQLMetrics.getInstance().setEnabled(false);
+		DynamicSQLMetrics.getInstance().clear();
+		DynamicSQLManager.getInstance().destroy();
+		SyntheticStatements.delete(dir);
+	}
+
+	/**
+	 * このクラスは、スレッドごとのパラメータを保持するクラスです。
+	 */
+	@State(Scope.Thread)
+	public static class ThreadState {
+
+		/**
+		 * グループ
+		 */
+		private Group group;
+
+		/**
+		 * パラメータ
+		 */
+		private Parameter parameter;
+
+		/**
+		 * バッファ
+		 */
+		private DynamicSQLBuffer buffer;
+
+		/**
+		 * 生成するダイナミックSQLの番号
+		 */
+		private int index;
+
+		@Setup
+		public void setup() {
+			group = new Group("AGE");
+			parameter = new Parameter();
+			parameter.put("name", "test");
+			parameter.put("ids", Arrays.asList(1, 2, 3, 4));
+			parameter.put("fromAge", 20);
+			parameter.put("toAge", 29);
+			buffer = DynamicSQLBuffer.local();
+			index = (int) (Thread.currentThread().getId() % STATEMENTS);
+		}
+
+		/**
+		 * 次に生成するダイナミックSQLを取得する。
+		 * 
+		 * @param values ダイナミックSQL名またはハンドル
+		 * @return ダイナミックSQL名またはハンドル
+		 */
+		private <T> T next(final T[] values) {
+			T value = values[index];
+			index = (index + 1) % values.length;
+			return value;
+		}
+	}
+
+	@Benchmark
+	public DynamicSQL generate(final ThreadState state) {
+		return DynamicSQLManager.generate(NAMESPACE, state.next(names), state.group, state.parameter);
+	}
+
+	@Benchmark
+	public DynamicSQLBuffer generateBuffer(final ThreadState state) {
+		return DynamicSQLManager.generate(NAMESPACE, state.next(names), state.group, state.parameter, state.buffer);
+	}
+
+	@Benchmark
+	public DynamicSQL handle(final ThreadState state) {
+		return state.next(handles).build(state.group, state.parameter);
+	}
+
+	@Benchmark
+	public DynamicSQLBuffer handleBuffer(final ThreadState state) {
+		return state.next(handles).build(state.group, state.parameter, state.buffer);
+	}
+}
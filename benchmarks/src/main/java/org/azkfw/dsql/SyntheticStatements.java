@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * このクラスは、ベンチマーク用のダイナミックSQLファイルと設定ファイルを生成するクラスです。
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class SyntheticStatements {
+
+	/**
+	 * 設定ファイル名
+	 */
+	static final String CONFIG = "dynamicSQL.xml";
+
+	/**
+	 * 文字コード
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * インスタンス生成を禁止する。
+	 * </p>
+	 */
+	private SyntheticStatements() {
+	}
+
+	/**
+	 * ダイナミックSQL名を取得する。
+	 * 
+	 * @param index 番号
+	 * @return ダイナミックSQL名
+	 */
+	static String name(final int index) {
+		return "statement" + index;
+	}
+
+	/**
+	 * 一時ディレクトリにダイナミックSQLファイルと設定ファイル({@link #CONFIG})を生成する。
+	 * 
+	 * @param count ダイナミックSQL数
+	 * @return 一時ディレクトリ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static Path write(final int count) throws IOException {
+		Path dir = Files.createTempDirectory("dsql-bench");
+		Files.createDirectory(dir.resolve("sql"));
+
+		StringBuilder config = new StringBuilder();
+		config.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		config.append("<azuki>\n  <dynamicSQLs>\n");
+		for (int i = 0; i < count; i++) {
+			String file = "sql/" + name(i) + ".sql";
+			Files.write(dir.resolve(file), template(i).getBytes(UTF_8));
+			config.append("    <dynamicSQL name=\"").append(name(i)).append("\" file=\"").append(file).append("\" />\n");
+		}
+		config.append("  </dynamicSQLs>\n</azuki>\n");
+		Files.write(dir.resolve(CONFIG), config.toString().getBytes(UTF_8));
+		return dir;
+	}
+
+	/**
+	 * 設定ファイルからカタログを生成する。
+	 * 
+	 * @param dir {@link #write(int)}で生成したディレクトリ
+	 * @return カタログファイル
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static File compile(final Path dir) throws IOException {
+		File catalog = dir.resolve("dynamicSQL.catalog").toFile();
+		new DynamicSQLCatalogCompiler().compile(CONFIG, context(dir), catalog);
+		return catalog;
+	}
+
+	/**
+	 * ディレクトリを基準とするコンテキスト情報を取得する。
+	 * 
+	 * @param dir ディレクトリ
+	 * @return コンテキスト情報
+	 */
+	static FileContext context(final Path dir) {
+		return new FileContext(dir);
+	}
+
+	/**
+	 * ディレクトリを削除する。
+	 * 
+	 * @param dir ディレクトリ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static void delete(final Path dir) throws IOException {
+		if (null == dir) {
+			return;
+		}
+		Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(final Path d, final IOException ex) throws IOException {
+				Files.delete(d);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * テンプレートを生成する。
+	 * 
+	 * @param index 番号
+	 * @return テンプレート
+	 */
+	private static String template(final int index) {
+		StringBuilder s = new StringBuilder();
+		s.append("#\n# statement ").append(index).append("\n#\n");
+		s.append("                SELECT\n");
+		s.append("                    A.id\n");
+		s.append("                  , A.name\n");
+		s.append("                FROM\n");
+		s.append("                    table_").append(index).append(" A\n");
+		s.append("                WHERE\n");
+		s.append("                    1 = 1\n");
+		s.append("${name}             AND A.name = ?\n");
+		s.append("${ids}              AND A.id IN ( ? )\n");
+		s.append("${AGE:}             AND A.age\n");
+		s.append("${AGE:fromAge}          BETWEEN ?\n");
+		s.append("${AGE:toAge}            AND     ?\n");
+		s.append("                ORDER BY A.id\n");
+		return s.toString();
+	}
+}
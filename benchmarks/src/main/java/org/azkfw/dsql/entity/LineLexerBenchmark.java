@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * このクラスは、ダイナミックSQLの行解析を正規表現版と字句解析版で比較するベンチマーククラスです。
+ * 
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar LineLexerBenchmark -prof gc
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineLexerBenchmark {
+
+	/**
+	 * テンプレート行
+	 */
+	private String[] lines;
+
+	@Setup
+	public void setup() {
+		List<String> buf = new ArrayList<String>();
+		for (int i = 0; i < 20; i++) {
+			buf.add("# select customer orders by condition " + i);
+			buf.add("                SELECT");
+			buf.add("                    A.id");
+			buf.add("                  , A.name");
+			buf.add("${COUNT:}           count(*)");
+			buf.add("                FROM");
+			buf.add("                    table_" + i + " A");
+			buf.add("                WHERE");
+			buf.add("                    1 = 1");
+			buf.add("${name}                 AND A.name like '%' || ? || '%'");
+			buf.add("${ids}                  AND A.id IN ( ? )");
+			buf.add("${AGE:}             AND A.age");
+			buf.add("${AGE:fromAge}          BETWEEN ?");
+			buf.add("${AGE:toAge}            AND     ?    ");
+			buf.add("");
+		}
+		lines = buf.toArray(new String[buf.size()]);
+	}
+
+	@Benchmark
+	public void legacy(final Blackhole bh) {
+		for (String line : lines) {
+			bh.consume(LegacyLineParser.parse(line));
+		}
+	}
+
+	@Benchmark
+	public void lexer(final Blackhole bh) {
+		for (String line : lines) {
+			bh.consume(DSQLLineLexer.scan(line));
+		}
+	}
+}
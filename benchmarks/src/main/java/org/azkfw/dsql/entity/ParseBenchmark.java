@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、ダイナミックSQLファイルの解析({@link DSQLEntity#getInstance(String, ByteBuffer, Charset)})を計測するベンチマーククラスです。
+ * <p>
+ * 小さいテンプレート(13行)と大きいテンプレート(約5,000行)を解析します。
+ * </p>
+ * 
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ParseBenchmark -prof gc
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+	/**
+	 * 文字コード
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * テンプレートの大きさ
+	 */
+	@Param({ "small", "huge" })
+	public String size;
+
+	/**
+	 * テンプレート
+	 */
+	private byte[] data;
+
+	@Setup
+	public void setup() throws IOException {
+		int blocks = "small".equals(size) ? 1 : 400;
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < blocks; i++) {
+			if (0 < i) {
+				s.append("UNION ALL\n");
+			}
+			s.append("# block ").append(i).append('\n');
+			s.append("                SELECT\n");
+			s.append("                    A.id\n");
+			s.append("                  , A.name\n");
+			s.append("${COUNT").append(i).append(":}          , count(*)\n");
+			s.append("                FROM\n");
+			s.append("                    customer_").append(i).append(" A\n");
+			s.append("                WHERE\n");
+			s.append("                    1 = 1\n");
+			s.append("${name").append(i).append("}              AND A.name like '%' || ? || '%'\n");
+			s.append("${ids").append(i).append("}               AND A.id IN ( ? )\n");
+			s.append("${AGE").append(i).append(":}          AND A.age\n");
+			s.append("${AGE").append(i).append(":fromAge}       BETWEEN ?\n");
+		}
+		data = s.toString().getBytes(UTF_8);
+	}
+
+	@Benchmark
+	public DSQLEntity parse() throws IOException {
+		return DSQLEntity.getInstance("bench", ByteBuffer.wrap(data), UTF_8);
+	}
+}
@@ -0,0 +1,563 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.azkfw.dsql.entity.DSQLShapeCache;
+import org.azkfw.dsql.entity.DSQLShapeCache.Shape;
+
+/**
+ * このクラスは、ダイナミックSQLの生成結果を受け取る再利用可能なバッファクラスです。
+ * <p>
+ * {@link DynamicSQLBuilder#build(DynamicSQLBuffer, String, String, org.azkfw.dsql.entity.DSQLEntity, Group, Parameter)}等で生成結果を書き込みます。
+ * 形状キャッシュに存在する形状の場合、生成時にオブジェクトを生成しません。
+ * 実行用SQLおよび整形済みSQLは形状で共有する文字列を返し、パラメータは内部の配列に保持します。
+ * <code>long[]</code>、<code>int[]</code>で指定したリストの要素はボクシングせずに保持し、{@link #getPrimitiveType(int)}、{@link #getLong(int)}で取得できます。
+ * </p>
+ * <p>
+ * 生成結果は次の生成で上書きされます。スレッドセーフではないため、スレッドごとに使用してください({@link #local()})。
+ * 生成結果を保持する場合は{@link #toDynamicSQL()}で複製してください。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DynamicSQLBuffer implements DynamicSQL {
+
+	/**
+	 * 初期容量
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * スレッドごとのバッファ
+	 */
+	private static final ThreadLocal<DynamicSQLBuffer> LOCAL = new ThreadLocal<DynamicSQLBuffer>() {
+		@Override
+		protected DynamicSQLBuffer initialValue() {
+			return new DynamicSQLBuffer();
+		}
+	};
+
+	/**
+	 * <code>long</code>値を{@link #primitives}に保持するパラメータの目印
+	 */
+	private static final Object LONG_VALUE = new Object();
+
+	/**
+	 * <code>int</code>値を{@link #primitives}に保持するパラメータの目印
+	 */
+	private static final Object INT_VALUE = new Object();
+
+	/**
+	 * 名前空間
+	 */
+	private String namespace;
+
+	/**
+	 * 名前
+	 */
+	private String name;
+
+	/**
+	 * 形状
+	 */
+	private Shape shape;
+
+	/**
+	 * 行数分展開した行リスト。展開していない場合、または複数の行リストを展開した場合、<code>null</code>
+	 */
+	private RowList rows;
+
+	/**
+	 * 展開した行リスト数
+	 */
+	private int rowsCount;
+
+	/**
+	 * パラメータ
+	 */
+	private Object[] parameters;
+
+	/**
+	 * パラメータ数
+	 */
+	private int parameterCount;
+
+	/**
+	 * プリミティブ値(目印のパラメータ位置のみ有効)。<code>null</code>の場合、未使用
+	 */
+	private long[] primitives;
+
+	/**
+	 * プリミティブ値で保持するパラメータ数
+	 */
+	private int primitiveCount;
+
+	/**
+	 * 命令ごとの状態(生成時の作業領域)
+	 */
+	private int[] states;
+
+	/**
+	 * スロットごとの値(生成時の作業領域)
+	 */
+	private Object[] values;
+
+	/**
+	 * 形状キャッシュの検索キー
+	 */
+	private final DSQLShapeCache.Probe probe;
+
+	/**
+	 * パラメータのリストビュー
+	 */
+	private List<Object> parameterList;
+
+	/**
+	 * コンストラクタ
+	 */
+	public DynamicSQLBuffer() {
+		parameters = new Object[DEFAULT_CAPACITY];
+		states = new int[DEFAULT_CAPACITY];
+		values = new Object[DEFAULT_CAPACITY];
+		probe = new DSQLShapeCache.Probe();
+	}
+
+	/**
+	 * 呼び出し元スレッドのバッファを取得する。
+	 * 
+	 * @return バッファ
+	 */
+	public static DynamicSQLBuffer local() {
+		return LOCAL.get();
+	}
+
+	@Override
+	public String getNamespace() {
+		return namespace;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getExecuteSQL() {
+		return (null != shape) ? shape.getExecuteSQL() : null;
+	}
+
+	@Override
+	public String getFormatSQL() {
+		return (null != shape) ? shape.getFormatSQL() : null;
+	}
+
+	/**
+	 * パラメータを取得する。
+	 * <p>
+	 * 内部の配列を参照する読み取り専用のリストを返す。リストは次の生成で内容が変わる。
+	 * </p>
+	 * 
+	 * @return パラメータ
+	 */
+	@Override
+	public List<Object> getParameters() {
+		if (null == parameterList) {
+			parameterList = new ParameterList();
+		}
+		return parameterList;
+	}
+
+	/**
+	 * パラメータ数を取得する。
+	 * 
+	 * @return パラメータ数
+	 */
+	public int getParameterCount() {
+		return parameterCount;
+	}
+
+	/**
+	 * パラメータを取得する。
+	 * 
+	 * @param index インデックス
+	 * @return パラメータ
+	 */
+	public Object getParameter(final int index) {
+		if (0 > index || parameterCount <= index) {
+			throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, parameterCount));
+		}
+		Object value = parameters[index];
+		if (LONG_VALUE == value) {
+			return Long.valueOf(primitives[index]);
+		}
+		if (INT_VALUE == value) {
+			return Integer.valueOf((int) primitives[index]);
+		}
+		return value;
+	}
+
+	/**
+	 * パラメータのプリミティブ型を取得する。
+	 * 
+	 * @param index インデックス
+	 * @return <code>long[]</code>の要素の場合<code>long.class</code>、<code>int[]</code>の要素の場合<code>int.class</code>。
+	 *         それ以外の場合、<code>null</code>を返す。
+	 */
+	public Class<?> getPrimitiveType(final int index) {
+		if (0 > index || parameterCount <= index) {
+			throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, parameterCount));
+		}
+		Object value = parameters[index];
+		if (LONG_VALUE == value) {
+			return Long.TYPE;
+		}
+		if (INT_VALUE == value) {
+			return Integer.TYPE;
+		}
+		return null;
+	}
+
+	/**
+	 * プリミティブ型のパラメータを取得する。
+	 * 
+	 * @param index インデックス
+	 * @return 値
+	 * @throws IllegalStateException {@link #getPrimitiveType(int)}が<code>null</code>の場合
+	 */
+	public long getLong(final int index) {
+		if (null == getPrimitiveType(index)) {
+			throw new IllegalStateException(String.format("Not primitive parameter.[index:%d]", index));
+		}
+		return primitives[index];
+	}
+
+	/**
+	 * パラメータ配列を取得する。
+	 * <p>
+	 * 内部の配列をそのまま返す。有効な要素は先頭から{@link #getParameterCount()}件となる。
+	 * プリミティブ値で保持するパラメータはこの時点でボクシングする。
+	 * </p>
+	 * 
+	 * @return パラメータ配列
+	 */
+	public Object[] getParameterArray() {
+		if (0 < primitiveCount) {
+			for (int i = 0; i < parameterCount; i++) {
+				Object value = parameters[i];
+				if (LONG_VALUE == value || INT_VALUE == value) {
+					parameters[i] = getParameter(i);
+				}
+			}
+			primitiveCount = 0;
+		}
+		return parameters;
+	}
+
+	/**
+	 * 生成結果を複製する。
+	 * 
+	 * @return ダイナミックSQL。生成結果がない場合、<code>null</code>を返す。
+	 */
+	public DynamicSQL toDynamicSQL() {
+		if (null == shape) {
+			return null;
+		}
+		return DynamicSQLBuilder.create(namespace, name, shape, getParameterArray(), parameterCount);
+	}
+
+	/**
+	 * 生成結果をクリアする。
+	 * <p>
+	 * パラメータの参照を解放する。
+	 * </p>
+	 */
+	public void clear() {
+		Arrays.fill(parameters, 0, parameterCount, null);
+		parameterCount = 0;
+		primitiveCount = 0;
+		shape = null;
+		rows = null;
+		rowsCount = 0;
+		namespace = null;
+		name = null;
+	}
+
+	/**
+	 * 生成を開始する。
+	 * 
+	 * @param newNamespace 名前空間
+	 * @param newName 名前
+	 */
+	void begin(final String newNamespace, final String newName) {
+		clear();
+		namespace = newNamespace;
+		name = newName;
+	}
+
+	/**
+	 * 形状を設定する。
+	 * 
+	 * @param newShape 形状
+	 */
+	void setShape(final Shape newShape) {
+		shape = newShape;
+	}
+
+	/**
+	 * 行数分展開した行リストを設定する。
+	 * 
+	 * @param expanded 行リスト
+	 */
+	void setRows(final RowList expanded) {
+		rows = (0 == rowsCount++) ? expanded : null;
+	}
+
+	/**
+	 * 実行用SQLに行数分展開した行リストを取得する。
+	 * <p>
+	 * グループ等で出力しなかった行のパラメータは含まない。
+	 * </p>
+	 * 
+	 * @return 行リスト。展開した行リストがない場合、または複数の行リストを展開した場合、<code>null</code>を返す。
+	 */
+	public RowList getRows() {
+		return rows;
+	}
+
+	/**
+	 * パラメータを追加する。
+	 * 
+	 * @param value 値
+	 */
+	void addParameter(final Object value) {
+		ensureCapacity(1);
+		parameters[parameterCount++] = value;
+	}
+
+	/**
+	 * リストの要素をパラメータに追加する。
+	 * 
+	 * @param list リスト
+	 */
+	void addParameters(final List<?> list) {
+		int size = list.size();
+		ensureCapacity(size);
+		if (list instanceof RandomAccess) {
+			for (int i = 0; i < size; i++) {
+				parameters[parameterCount++] = list.get(i);
+			}
+		} else {
+			for (Object value : list) {
+				parameters[parameterCount++] = value;
+			}
+		}
+	}
+
+	/**
+	 * 行リストの値を行順、列順にパラメータに追加する。
+	 * 
+	 * @param rows 行リスト
+	 */
+	void addRows(final RowList rows) {
+		int size = rows.size();
+		int columns = rows.getColumnCount();
+		ensureCapacity(size * columns);
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(rows.get(i), 0, parameters, parameterCount, columns);
+			parameterCount += columns;
+		}
+	}
+
+	/**
+	 * 配列の要素をパラメータに追加する。
+	 * 
+	 * @param array 配列
+	 */
+	void addParameters(final Object[] array) {
+		ensureCapacity(array.length);
+		System.arraycopy(array, 0, parameters, parameterCount, array.length);
+		parameterCount += array.length;
+	}
+
+	/**
+	 * 要素をパラメータに追加する。
+	 * 
+	 * @param iterable 要素
+	 * @return 追加した要素数
+	 */
+	int addParameters(final Iterable<?> iterable) {
+		int start = parameterCount;
+		if (iterable instanceof Collection<?>) {
+			ensureCapacity(((Collection<?>) iterable).size());
+		}
+		for (Object value : iterable) {
+			addParameter(value);
+		}
+		return parameterCount - start;
+	}
+
+	/**
+	 * 配列の要素をボクシングせずにパラメータに追加する。
+	 * 
+	 * @param array 配列
+	 */
+	void addParameters(final long[] array) {
+		ensurePrimitives(array.length);
+		for (int i = 0; i < array.length; i++) {
+			parameters[parameterCount] = LONG_VALUE;
+			primitives[parameterCount++] = array[i];
+		}
+		primitiveCount += array.length;
+	}
+
+	/**
+	 * 配列の要素をボクシングせずにパラメータに追加する。
+	 * 
+	 * @param array 配列
+	 */
+	void addParameters(final int[] array) {
+		ensurePrimitives(array.length);
+		for (int i = 0; i < array.length; i++) {
+			parameters[parameterCount] = INT_VALUE;
+			primitives[parameterCount++] = array[i];
+		}
+		primitiveCount += array.length;
+	}
+
+	/**
+	 * 最後に追加したパラメータを繰り返し追加する。
+	 * <p>
+	 * リスト展開数の段階化による補完に使用する。プリミティブ値はボクシングせずに複製する。
+	 * </p>
+	 * 
+	 * @param count 追加数
+	 * @param last 最後のパラメータで補完する場合、<code>true</code>。<code>null</code>で補完する場合、<code>false</code>
+	 */
+	void padParameters(final int count, final boolean last) {
+		if (!last || 0 == parameterCount) {
+			for (int i = 0; i < count; i++) {
+				addParameter(null);
+			}
+			return;
+		}
+		Object value = parameters[parameterCount - 1];
+		if (LONG_VALUE == value || INT_VALUE == value) {
+			ensurePrimitives(count);
+			long primitive = primitives[parameterCount - 1];
+			for (int i = 0; i < count; i++) {
+				parameters[parameterCount] = value;
+				primitives[parameterCount++] = primitive;
+			}
+			primitiveCount += count;
+		} else {
+			ensureCapacity(count);
+			for (int i = 0; i < count; i++) {
+				parameters[parameterCount++] = value;
+			}
+		}
+	}
+
+	/**
+	 * パラメータを追加できるよう容量を拡張する。
+	 * 
+	 * @param size 追加数
+	 */
+	private void ensureCapacity(final int size) {
+		if (parameters.length < parameterCount + size) {
+			parameters = Arrays.copyOf(parameters, Math.max(parameterCount + size, parameterCount * 2));
+			if (null != primitives) {
+				primitives = Arrays.copyOf(primitives, parameters.length);
+			}
+		}
+	}
+
+	/**
+	 * プリミティブ値のパラメータを追加できるよう容量を拡張する。
+	 * 
+	 * @param size 追加数
+	 */
+	private void ensurePrimitives(final int size) {
+		ensureCapacity(size);
+		if (null == primitives) {
+			primitives = new long[parameters.length];
+		}
+	}
+
+	/**
+	 * 命令ごとの状態の作業領域を取得する。
+	 * 
+	 * @param size 命令数
+	 * @return 状態配列(先頭から命令数分を使用する)
+	 */
+	int[] states(final int size) {
+		if (states.length < size) {
+			states = new int[Math.max(size, states.length * 2)];
+		}
+		return states;
+	}
+
+	/**
+	 * スロットごとの値の作業領域を取得する。
+	 * 
+	 * @param size スロット数
+	 * @return 値配列(先頭からスロット数分を使用する)
+	 */
+	Object[] values(final int size) {
+		if (values.length < size) {
+			values = new Object[Math.max(size, values.length * 2)];
+		}
+		return values;
+	}
+
+	/**
+	 * 形状キャッシュの検索キーを取得する。
+	 * 
+	 * @return 検索キー
+	 */
+	DSQLShapeCache.Probe probe() {
+		return probe;
+	}
+
+	/**
+	 * このクラスは、パラメータ配列を参照する読み取り専用のリストです。
+	 * 
+	 * @since 1.7.0
+	 * @version 1.7.0 2026/10/17
+	 * @author Kawakicchi
+	 */
+	private final class ParameterList extends AbstractList<Object> implements RandomAccess {
+
+		@Override
+		public Object get(final int index) {
+			return getParameter(index);
+		}
+
+		@Override
+		public int size() {
+			return parameterCount;
+		}
+	}
+}
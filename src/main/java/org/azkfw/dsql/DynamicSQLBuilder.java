@@ -17,11 +17,20 @@
  */
 package org.azkfw.dsql;
 
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.azkfw.dsql.entity.DSQLEntity;
-import org.azkfw.dsql.entity.DSQLLineEntity;
+import org.azkfw.dsql.entity.DSQLPlan;
+import org.azkfw.dsql.entity.DSQLShapeCache;
+import org.azkfw.dsql.entity.DSQLShapeCache.Key;
+import org.azkfw.dsql.entity.DSQLShapeCache.Shape;
+import org.azkfw.dsql.metrics.StatementMetrics;
+import org.azkfw.dsql.entity.ParameterLayout;
 
 /**
  * このクラスは、ダイナミックSQL情報を生成するビルダークラスです。
@@ -33,9 +42,19 @@ import org.azkfw.dsql.entity.DSQLLineEntity;
 public final class DynamicSQLBuilder {
 
 	/**
-	 * 成形用改行コード
+	 * リスト展開数の段階化(デフォルト)
 	 */
-	private static final String formatLineSeparator = "\n";
+	private static volatile InListBucketing inListBucketing;
+
+	/**
+	 * {@link DynamicSQL}を返す生成で使用するスレッドごとの作業用バッファ
+	 */
+	private static final ThreadLocal<DynamicSQLBuffer> WORK = new ThreadLocal<DynamicSQLBuffer>() {
+		@Override
+		protected DynamicSQLBuffer initialValue() {
+			return new DynamicSQLBuffer();
+		}
+	};
 
 	/**
 	 * コンストラクタ
@@ -47,6 +66,27 @@ public final class DynamicSQLBuilder {
 
 	}
 
+	/**
+	 * リスト展開数の段階化を設定する。
+	 * <p>
+	 * ダイナミックSQL個別に段階化が指定されていない場合に適用する。
+	 * </p>
+	 * 
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、段階化しない。
+	 */
+	public static void setInListBucketing(final InListBucketing bucketing) {
+		inListBucketing = bucketing;
+	}
+
+	/**
+	 * リスト展開数の段階化を取得する。
+	 * 
+	 * @return リスト展開数の段階化
+	 */
+	public static InListBucketing getInListBucketing() {
+		return inListBucketing;
+	}
+
 	/**
 	 * ダイナミックSQLを生成する。
 	 * 
@@ -144,65 +184,637 @@ public final class DynamicSQLBuilder {
 	 * @return ダイナミックSQL
 	 */
 	public static DynamicSQL build(final String namespace, final String name, final DSQLEntity entity, final Group group, final Parameter parameter) {
+		return build(namespace, name, entity, group, parameter, null, null);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、デフォルトの段階化に従う。
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @return ダイナミックSQL
+	 */
+	static DynamicSQL build(final String namespace, final String name, final DSQLEntity entity, final Group group, final Parameter parameter,
+			final InListBucketing bucketing, final StatementMetrics metrics) {
+		DynamicSQL dsql = null;
+		if (null != entity) {
+			DynamicSQLBuffer buffer = build(WORK.get(), namespace, name, entity, group, parameter, bucketing, metrics);
+			dsql = buffer.toDynamicSQL();
+			buffer.clear();
+		}
+		return dsql;
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * <p>
+	 * 形状キャッシュに存在する形状の場合、オブジェクトを生成しない。
+	 * </p>
+	 * 
+	 * @param buffer バッファ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @return バッファ。エンティティ情報が<code>null</code>の場合、<code>null</code>を返す。
+	 */
+	public static DynamicSQLBuffer build(final DynamicSQLBuffer buffer, final String namespace, final String name, final DSQLEntity entity,
+			final Group group, final Parameter parameter) {
+		return build(buffer, namespace, name, entity, group, parameter, null, null);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param buffer バッファ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、デフォルトの段階化に従う。
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @return バッファ。エンティティ情報が<code>null</code>の場合、<code>null</code>を返す。
+	 */
+	static DynamicSQLBuffer build(final DynamicSQLBuffer buffer, final String namespace, final String name, final DSQLEntity entity,
+			final Group group, final Parameter parameter, final InListBucketing bucketing, final StatementMetrics metrics) {
+		if (null == entity) {
+			return null;
+		}
+		DSQLPlan plan = entity.getPlan();
+		ParameterLayout layout = plan.getParameterLayout();
+		Object[] values = toValues(layout, parameter, buffer.values(layout.size()));
+		buffer.begin(namespace, name);
+		buffer.setShape(build(plan, group, values, bucketing, metrics, buffer));
+		// 作業領域に残る値の参照を解放する
+		Arrays.fill(values, 0, layout.size(), null);
+		return buffer;
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @return ダイナミックSQL
+	 */
+	public static DynamicSQL buildIndexed(final String name, final DSQLEntity entity, final Group group, final IndexedParameter parameter) {
+		return buildIndexed(null, name, entity, group, parameter);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @return ダイナミックSQL
+	 */
+	public static DynamicSQL buildIndexed(final String namespace, final String name, final DSQLEntity entity, final Group group, final IndexedParameter parameter) {
+		return buildIndexed(namespace, name, entity, group, parameter, null, null);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、デフォルトの段階化に従う。
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @return ダイナミックSQL
+	 */
+	static DynamicSQL buildIndexed(final String namespace, final String name, final DSQLEntity entity, final Group group, final IndexedParameter parameter,
+			final InListBucketing bucketing, final StatementMetrics metrics) {
 		DynamicSQL dsql = null;
 		if (null != entity) {
+			DynamicSQLBuffer buffer = buildIndexed(WORK.get(), namespace, name, entity, group, parameter, bucketing, metrics);
+			dsql = buffer.toDynamicSQL();
+			buffer.clear();
+		}
+		return dsql;
+	}
 
-			StringBuilder sqlExecute = new StringBuilder();
-			StringBuilder sqlFormat = new StringBuilder();
-			List<Object> params = new ArrayList<Object>();
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * <p>
+	 * 形状キャッシュに存在する形状の場合、オブジェクトを生成しない。
+	 * </p>
+	 * 
+	 * @param buffer バッファ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @return バッファ。エンティティ情報が<code>null</code>の場合、<code>null</code>を返す。
+	 */
+	public static DynamicSQLBuffer buildIndexed(final DynamicSQLBuffer buffer, final String namespace, final String name, final DSQLEntity entity,
+			final Group group, final IndexedParameter parameter) {
+		return buildIndexed(buffer, namespace, name, entity, group, parameter, null, null);
+	}
 
-			for (DSQLLineEntity line : entity) {
-				String executeSql = line.getSQL();
-				String formatSql = line.getFormatSQL();
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param buffer バッファ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param parameter パラメータ情報
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、デフォルトの段階化に従う。
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @return バッファ。エンティティ情報が<code>null</code>の場合、<code>null</code>を返す。
+	 */
+	static DynamicSQLBuffer buildIndexed(final DynamicSQLBuffer buffer, final String namespace, final String name, final DSQLEntity entity,
+			final Group group, final IndexedParameter parameter, final InListBucketing bucketing, final StatementMetrics metrics) {
+		if (null == entity) {
+			return null;
+		}
+		DSQLPlan plan = entity.getPlan();
+		ParameterLayout layout = plan.getParameterLayout();
+		Object[] work = buffer.values(layout.size());
+		Object[] values = toValues(layout, parameter, work);
+		buffer.begin(namespace, name);
+		buffer.setShape(build(plan, group, values, bucketing, metrics, buffer));
+		if (values == work) {
+			// 作業領域に残る値の参照を解放する
+			Arrays.fill(work, 0, layout.size(), null);
+		}
+		return buffer;
+	}
 
-				if (line.isComment()) {
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成する。
+	 * <p>
+	 * パラメータ名と同名のプロパティ(<code>getXxx()</code>、<code>isXxx()</code>、<code>xxx()</code>、公開フィールド)の値を使用する。
+	 * <code>xxx()</code>は同名のフィールドを宣言している場合のみ使用する。
+	 * プロパティの取得方法はクラスとダイナミックSQLの組み合わせごとに一度だけ解決する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param bean Bean。{@link Parameter}、{@link IndexedParameter}の場合、それぞれの生成を行う。
+	 * @return ダイナミックSQL
+	 */
+	public static DynamicSQL build(final String namespace, final String name, final DSQLEntity entity, final Group group, final Object bean) {
+		return buildBean(namespace, name, entity, group, bean, null, null);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param bean Bean
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、デフォルトの段階化に従う。
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @return ダイナミックSQL
+	 */
+	static DynamicSQL buildBean(final String namespace, final String name, final DSQLEntity entity, final Group group, final Object bean,
+			final InListBucketing bucketing, final StatementMetrics metrics) {
+		DynamicSQL dsql = null;
+		if (null != entity) {
+			DynamicSQLBuffer buffer = buildBean(WORK.get(), namespace, name, entity, group, bean, bucketing, metrics);
+			dsql = buffer.toDynamicSQL();
+			buffer.clear();
+		}
+		return dsql;
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成し、バッファに書き込む。
+	 * <p>
+	 * 形状キャッシュに存在する形状の場合、オブジェクトを生成しない。
+	 * </p>
+	 * 
+	 * @param buffer バッファ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param bean Bean。{@link Parameter}、{@link IndexedParameter}の場合、それぞれの生成を行う。
+	 * @return バッファ。エンティティ情報が<code>null</code>の場合、<code>null</code>を返す。
+	 */
+	public static DynamicSQLBuffer build(final DynamicSQLBuffer buffer, final String namespace, final String name, final DSQLEntity entity,
+			final Group group, final Object bean) {
+		return buildBean(buffer, namespace, name, entity, group, bean, null, null);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param buffer バッファ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param entity エンティティ情報
+	 * @param group グループ情報
+	 * @param bean Bean
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、デフォルトの段階化に従う。
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @return バッファ。エンティティ情報が<code>null</code>の場合、<code>null</code>を返す。
+	 */
+	static DynamicSQLBuffer buildBean(final DynamicSQLBuffer buffer, final String namespace, final String name, final DSQLEntity entity,
+			final Group group, final Object bean, final InListBucketing bucketing, final StatementMetrics metrics) {
+		if (null == bean || bean instanceof Parameter) {
+			return build(buffer, namespace, name, entity, group, (Parameter) bean, bucketing, metrics);
+		}
+		if (bean instanceof IndexedParameter) {
+			return buildIndexed(buffer, namespace, name, entity, group, (IndexedParameter) bean, bucketing, metrics);
+		}
+		if (null == entity) {
+			return null;
+		}
+		DSQLPlan plan = entity.getPlan();
+		ParameterLayout layout = plan.getParameterLayout();
+		Object[] values = toValues(layout, bean, buffer.values(layout.size()));
+		buffer.begin(namespace, name);
+		buffer.setShape(build(plan, group, values, bucketing, metrics, buffer));
+		// 作業領域に残る値の参照を解放する
+		Arrays.fill(values, 0, layout.size(), null);
+		return buffer;
+	}
+
+	/**
+	 * 命令ごとの状態とパラメータをバッファに書き込み、形状を取得する。
+	 * <p>
+	 * 形状キャッシュは再利用する検索キーで検索し、キャッシュに存在しない場合のみ形状キーと実行用SQLを生成する。
+	 * </p>
+	 * 
+	 * @param plan 実行プラン
+	 * @param group グループ情報
+	 * @param values スロットごとの値
+	 * @param bucketing リスト展開数の段階化
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @param buffer バッファ
+	 * @return 形状
+	 */
+	private static Shape build(final DSQLPlan plan, final Group group, final Object[] values, final InListBucketing bucketing,
+			final StatementMetrics metrics, final DynamicSQLBuffer buffer) {
+		InListBucketing buckets = (null != bucketing) ? bucketing : inListBucketing;
+
+		int size = plan.size();
+		byte[] operations = plan.getOperations();
+		int[] groupIndexes = plan.getGroupIndexes();
+		int[] parameterSlots = plan.getParameterSlots();
+
+		int[] states = buffer.states(size);
+
+		for (int i = 0; i < size; i++) {
+			byte operation = operations[i];
+			states[i] = Key.SKIP;
+
+			if (0 != (operation & DSQLPlan.OP_GROUP)) {
+				if (null == group || !group.is(groupIndexes[i])) {
 					continue;
 				}
-				if (line.isGroup()) {
-					if (null == group) {
-						continue;
-					}
-					if (!group.is(line.getGroup())) {
-						continue;
-					}
+			}
+
+			int state = Key.EMIT;
+			if (0 != (operation & DSQLPlan.OP_PARAMETER)) {
+				Object obj = values[parameterSlots[i]];
+				if (IndexedParameter.UNSET == obj) {
+					continue;
 				}
-				if (line.isParameter()) {
-					if (null == parameter) {
-						continue;
-					}
-					if (!parameter.isKey(line.getParameter())) {
-						continue;
+				if (obj instanceof RowList) {
+					RowList rows = (RowList) obj;
+					if (0 != (operation & DSQLPlan.OP_EXPAND)) {
+						int binds = plan.getBindCount(i);
+						if (binds != rows.getColumnCount()) {
+							throw new IllegalArgumentException(String.format("Unmatched row list column count.[line:%d, columns:%d, binds:%d]", i + 1,
+									rows.getColumnCount(), binds));
+						}
+						state = Key.rows(rows.size());
+						buffer.setRows(rows);
 					}
-					Object obj = parameter.get(line.getParameter());
-					if (obj instanceof List<?>) {
-						List<?> list = (List<?>) obj;
-						StringBuilder sb = new StringBuilder();
-						for (int i = 0; i < list.size(); i++) {
-							if (i != 0) {
-								sb.append(", ");
+					buffer.addRows(rows);
+				} else if (obj instanceof List<?>) {
+					List<?> list = (List<?>) obj;
+					buffer.addParameters(list);
+					if (0 != (operation & DSQLPlan.OP_EXPAND)) {
+						state = list.size();
+						if (null != metrics) {
+							metrics.recordInList(state);
+						}
+						if (null != buckets && 0 < state) {
+							state = buckets.bucket(state);
+							Object pad = buckets.pad(list.get(list.size() - 1));
+							for (int j = list.size(); j < state; j++) {
+								buffer.addParameter(pad);
 							}
-							sb.append("?");
-							params.add(list.get(i));
 						}
-
-						executeSql = executeSql.replaceAll("\\?", sb.toString());
-						formatSql = formatSql.replaceAll("\\?", sb.toString());
-					} else {
-						params.add(obj);
 					}
+				} else if (isInList(obj)) {
+					int count = addInList(buffer, obj);
+					if (0 != (operation & DSQLPlan.OP_EXPAND)) {
+						state = count;
+						if (null != metrics) {
+							metrics.recordInList(state);
+						}
+						if (null != buckets && 0 < state) {
+							state = buckets.bucket(state);
+							buffer.padParameters(state - count, InListBucketing.Padding.LAST == buckets.getPadding());
+						}
+					}
+				} else {
+					buffer.addParameter(obj);
 				}
+			}
+			states[i] = state;
+		}
+
+		DSQLShapeCache.Probe probe = buffer.probe();
+		probe.reset(states, size);
+		DSQLShapeCache cache = plan.getShapeCache();
+		Shape shape = cache.get(probe);
+		if (null == shape) {
+			if (null != metrics) {
+				metrics.recordShape();
+			}
+			Key key = probe.toKey();
+			// 整形済みSQLは参照時に生成する
+			shape = cache.put(key, new Shape(plan.renderExecuteSQL(key.getStates()), plan, key.getStates()));
+		}
+		return shape;
+	}
 
-				if (0 < sqlExecute.length()) {
-					sqlExecute.append(" ");
-					sqlFormat.append(formatLineSeparator);
+	/**
+	 * リスト以外で展開する値か判断する。
+	 * <p>
+	 * <code>long[]</code>、<code>int[]</code>、<code>String[]</code>、{@link Iterable}を展開する。
+	 * その他の配列(<code>byte[]</code>、<code>Integer[]</code>等)は従来どおり1つの値として設定する。
+	 * </p>
+	 * 
+	 * @param obj 値
+	 * @return 展開する場合、<code>true</code>を返す。
+	 */
+	private static boolean isInList(final Object obj) {
+		return obj instanceof long[] || obj instanceof int[] || obj instanceof String[] || obj instanceof Iterable<?>;
+	}
+
+	/**
+	 * 値の要素をパラメータに追加する。
+	 * <p>
+	 * <code>long[]</code>、<code>int[]</code>の要素はボクシングせずに追加する。
+	 * </p>
+	 * 
+	 * @param buffer バッファ
+	 * @param obj 値({@link #isInList(Object)}が<code>true</code>)
+	 * @return 要素数
+	 */
+	private static int addInList(final DynamicSQLBuffer buffer, final Object obj) {
+		if (obj instanceof long[]) {
+			long[] array = (long[]) obj;
+			buffer.addParameters(array);
+			return array.length;
+		}
+		if (obj instanceof int[]) {
+			int[] array = (int[]) obj;
+			buffer.addParameters(array);
+			return array.length;
+		}
+		if (obj instanceof String[]) {
+			String[] array = (String[]) obj;
+			buffer.addParameters(array);
+			return array.length;
+		}
+		return buffer.addParameters((Iterable<?>) obj);
+	}
+
+	/**
+	 * 値の要素をパラメータリストに追加する。
+	 * 
+	 * @param params パラメータリスト
+	 * @param obj 値({@link #isInList(Object)}が<code>true</code>)
+	 * @return 要素数
+	 */
+	private static int addInList(final List<Object> params, final Object obj) {
+		int size = params.size();
+		if (obj instanceof long[]) {
+			for (long value : (long[]) obj) {
+				params.add(Long.valueOf(value));
+			}
+		} else if (obj instanceof int[]) {
+			for (int value : (int[]) obj) {
+				params.add(Integer.valueOf(value));
+			}
+		} else if (obj instanceof String[]) {
+			Collections.addAll(params, (String[]) obj);
+		} else if (obj instanceof Collection<?>) {
+			params.addAll((Collection<?>) obj);
+		} else {
+			for (Object value : (Iterable<?>) obj) {
+				params.add(value);
+			}
+		}
+		return params.size() - size;
+	}
+
+	/**
+	 * パラメータ情報をスロットごとの値に変換する。
+	 * <p>
+	 * パラメータ名ごとに1度だけ検索を行う。値が<code>null</code>の場合のみ、キーの有無を確認する。
+	 * </p>
+	 * 
+	 * @param layout パラメータ配置情報
+	 * @param parameter パラメータ情報
+	 * @param values 出力先(スロット数以上の長さ)
+	 * @return スロットごとの値
+	 */
+	private static Object[] toValues(final ParameterLayout layout, final Parameter parameter, final Object[] values) {
+		int size = layout.size();
+		for (int slot = 0; slot < size; slot++) {
+			Object value = IndexedParameter.UNSET;
+			if (null != parameter) {
+				String key = layout.getName(slot);
+				value = parameter.get(key);
+				if (null == value && !parameter.isKey(key)) {
+					value = IndexedParameter.UNSET;
 				}
-				sqlExecute.append(executeSql);
-				sqlFormat.append(formatSql);
 			}
+			values[slot] = value;
+		}
+		return values;
+	}
 
-			dsql = new BasicDynamicSQL(namespace, name, sqlExecute.toString(), sqlFormat.toString(), params);
+	/**
+	 * Beanのプロパティをスロットごとの値に変換する。
+	 * <p>
+	 * プロパティが存在しないスロットは未設定({@link IndexedParameter#UNSET})とする。
+	 * </p>
+	 * 
+	 * @param layout パラメータ配置情報
+	 * @param bean Bean
+	 * @param values 出力先(スロット数以上の長さ)
+	 * @return スロットごとの値
+	 * @throws IllegalStateException プロパティの取得に失敗した場合
+	 */
+	private static Object[] toValues(final ParameterLayout layout, final Object bean, final Object[] values) {
+		MethodHandle[] accessors = layout.getAccessors(bean.getClass());
+		int size = layout.size();
+		for (int slot = 0; slot < size; slot++) {
+			MethodHandle accessor = accessors[slot];
+			if (null == accessor) {
+				values[slot] = IndexedParameter.UNSET;
+				continue;
+			}
+			try {
+				values[slot] = (Object) accessor.invokeExact(bean);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new IllegalStateException(String.format("Property read error.[class:%s, property:%s]", bean.getClass().getName(),
+						layout.getName(slot)), ex);
+			}
 		}
-		return dsql;
+		return values;
+	}
+
+	/**
+	 * パラメータ情報をスロットごとの値に変換する。
+	 * <p>
+	 * パラメータ配置情報が同一の場合、パラメータ情報の値をそのまま使用する。
+	 * 異なる場合(再ロード前に生成したパラメータ等)、パラメータ名で値を引き当てる。
+	 * </p>
+	 * 
+	 * @param layout パラメータ配置情報
+	 * @param parameter パラメータ情報
+	 * @param values 出力先(スロット数以上の長さ)
+	 * @return スロットごとの値
+	 */
+	private static Object[] toValues(final ParameterLayout layout, final IndexedParameter parameter, final Object[] values) {
+		if (null != parameter && layout == parameter.getLayout()) {
+			return parameter.values();
+		}
+		for (int slot = 0; slot < layout.size(); slot++) {
+			values[slot] = IndexedParameter.UNSET;
+			if (null != parameter) {
+				int index = parameter.getLayout().indexOf(layout.getName(slot));
+				if (-1 != index) {
+					values[slot] = parameter.values()[index];
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * パラメータを追加する。
+	 * <p>
+	 * {@link DynamicSQLSourceGenerator}が生成したクラスより使用する。
+	 * </p>
+	 * 
+	 * @param params パラメータリスト
+	 * @param value 値
+	 * @param expand バインド記号を展開する場合、<code>true</code>
+	 * @return 展開数。値がリスト(<code>long[]</code>、<code>int[]</code>、<code>String[]</code>、<code>Iterable</code>を含む)でない、または展開しない場合、<code>-1</code>を返す。
+	 */
+	public static int bind(final List<Object> params, final Object value, final boolean expand) {
+		return bind(params, value, expand, null);
+	}
+
+	/**
+	 * パラメータを追加する。
+	 * <p>
+	 * {@link DynamicSQLSourceGenerator}が生成したクラスより使用する。
+	 * </p>
+	 * 
+	 * @param params パラメータリスト
+	 * @param value 値
+	 * @param expand バインド記号を展開する場合、<code>true</code>
+	 * @param bucketing リスト展開数の段階化。<code>null</code>の場合、デフォルトの段階化に従う。
+	 * @return 展開数。値がリスト(<code>long[]</code>、<code>int[]</code>、<code>String[]</code>、<code>Iterable</code>を含む)でない、または展開しない場合、<code>-1</code>を返す。
+	 */
+	public static int bind(final List<Object> params, final Object value, final boolean expand, final InListBucketing bucketing) {
+		if (!isInList(value)) {
+			params.add(value);
+			return -1;
+		}
+		int count = addInList(params, value);
+		if (!expand) {
+			return -1;
+		}
+		InListBucketing buckets = (null != bucketing) ? bucketing : inListBucketing;
+		if (null != buckets && 0 < count) {
+			int size = buckets.bucket(count);
+			Object pad = buckets.pad(params.get(params.size() - 1));
+			for (int j = count; j < size; j++) {
+				params.add(pad);
+			}
+			count = size;
+		}
+		return count;
+	}
+
+	/**
+	 * 展開したバインド記号を追加する。
+	 * <p>
+	 * {@link DynamicSQLSourceGenerator}が生成したクラスより使用する。
+	 * </p>
+	 * 
+	 * @param s 出力先
+	 * @param count 展開数
+	 */
+	public static void appendBinds(final StringBuilder s, final int count) {
+		for (int i = 0; i < count; i++) {
+			if (i != 0) {
+				s.append(", ");
+			}
+			s.append("?");
+		}
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * <p>
+	 * {@link DynamicSQLSourceGenerator}が生成したクラスより使用する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param executeSQL 実行SQL
+	 * @param formatSQL 整形SQL
+	 * @param parameters パラメータ
+	 * @return ダイナミックSQL
+	 */
+	public static DynamicSQL create(final String namespace, final String name, final String executeSQL, final String formatSQL,
+			final List<Object> parameters) {
+		return new BasicDynamicSQL(namespace, name, executeSQL, formatSQL, parameters);
+	}
+
+	/**
+	 * 形状よりダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param shape 形状
+	 * @param parameters パラメータ配列
+	 * @param count パラメータ数
+	 * @return ダイナミックSQL
+	 */
+	static DynamicSQL create(final String namespace, final String name, final Shape shape, final Object[] parameters, final int count) {
+		List<Object> params = new ArrayList<Object>(count);
+		for (int i = 0; i < count; i++) {
+			params.add(parameters[i]);
+		}
+		return new BasicDynamicSQL(namespace, name, shape, params);
 	}
 
 	/**
@@ -226,6 +838,9 @@ public final class DynamicSQLBuilder {
 		/** 整形SQL */
 		private String sqlFormat;
 
+		/** 形状。整形SQLを形状より取得する場合に設定する */
+		private Shape shape;
+
 		/** パラメータ */
 		private List<Object> parameters;
 
@@ -246,6 +861,25 @@ public final class DynamicSQLBuilder {
 			this.parameters = new ArrayList<Object>(parameters);
 		}
 
+		/**
+		 * コンストラクタ
+		 * <p>
+		 * 整形SQLは参照時に形状より取得する。パラメータは複製せずに保持する。
+		 * </p>
+		 * 
+		 * @param namespace 名前空間
+		 * @param name 名前
+		 * @param shape 形状
+		 * @param parameters パラメータ
+		 */
+		private BasicDynamicSQL(final String namespace, final String name, final Shape shape, final List<Object> parameters) {
+			this.namespace = namespace;
+			this.name = name;
+			this.sqlExecute = shape.getExecuteSQL();
+			this.shape = shape;
+			this.parameters = parameters;
+		}
+
 		@Override
 		public String getNamespace() {
 			return namespace;
@@ -263,6 +897,9 @@ public final class DynamicSQLBuilder {
 
 		@Override
 		public String getFormatSQL() {
+			if (null != shape) {
+				return shape.getFormatSQL();
+			}
 			return sqlFormat;
 		}
 
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.azkfw.context.Context;
+import org.azkfw.dsql.DynamicSQLManager.DynamicSQLXMLEntity;
+import org.azkfw.dsql.entity.DSQLCatalog;
+import org.azkfw.dsql.entity.DSQLEntity;
+import org.azkfw.lang.LoggingObject;
+import org.azkfw.util.StringUtility;
+
+/**
+ * このクラスは、設定ファイルが参照するダイナミックSQLファイルをカタログにコンパイルするクラスです。
+ * <p>
+ * ビルド時に実行し、生成したカタログは{@link DynamicSQLManager#loadCatalog(String, File)}でロードします。
+ * </p>
+ * 
+ * <pre>
+ * java org.azkfw.dsql.DynamicSQLCatalogCompiler &lt;設定ファイル&gt; &lt;カタログファイル&gt; [基準ディレクトリ]
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DynamicSQLCatalogCompiler extends LoggingObject {
+
+	/**
+	 * ダイナミックSQLファイルの文字コード
+	 */
+	private Charset charset;
+
+	/**
+	 * コンストラクタ
+	 */
+	public DynamicSQLCatalogCompiler() {
+		super(DynamicSQLCatalogCompiler.class);
+		charset = Charset.forName("UTF-8");
+	}
+
+	/**
+	 * ダイナミックSQLファイルの文字コードを設定する。
+	 * <p>
+	 * 設定ファイルで<code>charset</code>属性を指定したダイナミックSQLは属性の文字コードを優先する。
+	 * </p>
+	 * 
+	 * @param charset 文字コード
+	 * @see DynamicSQLManager#setCharset(Charset)
+	 */
+	public void setCharset(final Charset charset) {
+		this.charset = charset;
+	}
+
+	/**
+	 * 設定ファイルをコンパイルし、カタログファイルに書き込む。
+	 * 
+	 * @param config 設定ファイル
+	 * @param context コンテキスト情報
+	 * @param output カタログファイル
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void compile(final String config, final Context context, final File output) throws IOException {
+		DSQLCatalog catalog = compile(config, context);
+		catalog.write(output);
+		info(String.format("DynamicSQL catalog compiled.[path:%s, count:%d]", output, catalog.getStatements().size()));
+	}
+
+	/**
+	 * 設定ファイルをコンパイルする。
+	 * <p>
+	 * 重複した名前はロード時と同様に定義順で先のものを採用する。
+	 * </p>
+	 * 
+	 * @param config 設定ファイル
+	 * @param context コンテキスト情報
+	 * @return カタログ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public DSQLCatalog compile(final String config, final Context context) throws IOException {
+		InputStream stream = context.getResourceAsStream(config);
+		if (null == stream) {
+			String msg = String.format("Not found dynamicSQL file.[%s]", config);
+			error(msg);
+			throw new IOException(msg);
+		}
+
+		List<DynamicSQLXMLEntity> dsqls = null;
+		try {
+			dsqls = DynamicSQLManager.getInstance().readConfig(stream);
+		} finally {
+			stream.close();
+		}
+
+		DSQLCatalog catalog = new DSQLCatalog();
+		Set<String> names = new HashSet<String>();
+		for (DynamicSQLXMLEntity entity : dsqls) {
+			if (!names.add(entity.getName())) {
+				error(String.format("Duplicate dynamicSQL name.[name:%s]", entity.getName()));
+				continue;
+			}
+
+			try {
+				InListBucketing.parse(entity.getInListBuckets(), entity.getInListPadding());
+			} catch (IllegalArgumentException ex) {
+				String msg = String.format("Invalid inListBuckets.[name:%s, buckets:%s, padding:%s]", entity.getName(), entity.getInListBuckets(),
+						entity.getInListPadding());
+				error(msg);
+				throw new IOException(msg, ex);
+			}
+
+			try {
+				StatementAttributes.parse(entity.getFetchSize(), entity.getRowMapper());
+			} catch (IllegalArgumentException ex) {
+				String msg = String.format("Invalid fetchSize.[name:%s, fetchSize:%s]", entity.getName(), entity.getFetchSize());
+				error(msg);
+				throw new IOException(msg, ex);
+			}
+
+			Charset fileCharset = charset;
+			if (StringUtility.isNotEmpty(entity.getCharset())) {
+				try {
+					fileCharset = Charset.forName(entity.getCharset());
+				} catch (IllegalArgumentException ex) {
+					String msg = String.format("Unsupported charset.[name:%s, charset:%s]", entity.getName(), entity.getCharset());
+					error(msg);
+					throw new IOException(msg, ex);
+				}
+			}
+
+			ByteBuffer data = StatementEntry.read(context, entity.getFile());
+			if (null == data) {
+				String msg = String.format("Not found dynamicSQL file.[name:%s, path:%s]", entity.getName(), entity.getFile());
+				error(msg);
+				throw new IOException(msg);
+			}
+
+			DSQLEntity dsql = StatementEntry.parse(entity.getName(), data, fileCharset);
+			catalog.add(new DSQLCatalog.Statement(dsql, entity.getFile(), entity.getInListBuckets(), entity.getInListPadding(),
+					entity.getFetchSize(), entity.getRowMapper(), StatementEntry.digest(data)));
+		}
+		return catalog;
+	}
+
+	/**
+	 * カタログをコンパイルする。
+	 * 
+	 * @param args 設定ファイル、カタログファイル、基準ディレクトリ(省略時はカレントディレクトリ)
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (2 > args.length) {
+			System.err.println("Usage: DynamicSQLCatalogCompiler <config> <output> [baseDirectory]");
+			System.exit(1);
+		}
+		File base = new File((2 < args.length) ? args[2] : ".");
+		new DynamicSQLCatalogCompiler().compile(args[0], new FileContext(base), new File(args[1]));
+	}
+}
@@ -17,19 +17,37 @@
  */
 package org.azkfw.dsql;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.digester.Digester;
 import org.azkfw.context.Context;
+import org.azkfw.dsql.entity.DSQLCatalog;
 import org.azkfw.dsql.entity.DSQLEntity;
+import org.azkfw.dsql.entity.ParameterLayout;
+import org.azkfw.dsql.metrics.StatementMetrics;
 import org.azkfw.lang.LoggingObject;
 import org.azkfw.util.StringUtility;
 import org.xml.sax.SAXException;
@@ -43,6 +61,11 @@ import org.xml.sax.SAXException;
  */
 public final class DynamicSQLManager extends LoggingObject {
 
+	/**
+	 * デフォルトのダイナミックSQLファイルの文字コード(インスタンス生成より先に初期化する)
+	 */
+	private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+
 	/**
 	 * Instance
 	 */
@@ -53,6 +76,21 @@ public final class DynamicSQLManager extends LoggingObject {
 	 */
 	private static final String DEFAULT_NAMESPACE = "";
 
+	/**
+	 * パラメータの種類: {@link Parameter}
+	 */
+	private static final int MODE_PARAMETER = 0;
+
+	/**
+	 * パラメータの種類: {@link IndexedParameter}
+	 */
+	private static final int MODE_INDEXED = 1;
+
+	/**
+	 * パラメータの種類: Bean
+	 */
+	private static final int MODE_BEAN = 2;
+
 	/**
 	 * DSQLEntityソート用Comparator
 	 */
@@ -65,8 +103,36 @@ public final class DynamicSQLManager extends LoggingObject {
 
 	/**
 	 * ダイナミックSQL情報
+	 * <p>
+	 * 参照中に変更されることのない不変のスナップショットを保持し、更新時は新たなスナップショットに差し替える。
+	 * </p>
+	 */
+	private volatile Map<String, Map<String, StatementEntry>> dynamicSQLs;
+
+	/**
+	 * 再ロード監視
+	 */
+	private DynamicSQLReloader reloader;
+
+	/**
+	 * 遅延ロード
+	 */
+	private volatile boolean lazyLoad;
+
+	/**
+	 * 遅延ロード時のバックグラウンド解析
+	 */
+	private volatile boolean warmUp;
+
+	/**
+	 * ロード用のスレッドプール。<code>null</code>の場合、呼び出し元スレッドで逐次ロードする。
+	 */
+	private volatile ExecutorService loadExecutor;
+
+	/**
+	 * ダイナミックSQLファイルの文字コード
 	 */
-	private Map<String, Map<String, DSQLEntity>> dynamicSQLs;
+	private volatile Charset charset = DEFAULT_CHARSET;
 
 	/**
 	 * コンストラクタ
@@ -77,7 +143,7 @@ public final class DynamicSQLManager extends LoggingObject {
 	private DynamicSQLManager() {
 		super(DynamicSQLManager.class);
 
-		dynamicSQLs = new HashMap<String, Map<String, DSQLEntity>>();
+		dynamicSQLs = Collections.emptyMap();
 	}
 
 	/**
@@ -178,26 +244,359 @@ public final class DynamicSQLManager extends LoggingObject {
 	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
 	 */
 	public static DynamicSQL generate(final String namespace, final String name, final Group group, final Parameter parameter) {
-		DynamicSQL dsql = null;
-		DSQLEntity entity = INSTANCE.get(namespace, name);
+		return generate(namespace, INSTANCE.get(namespace, name), group, parameter);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * <p>
+	 * 形状キャッシュに存在する形状の場合、オブジェクトを生成しない。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 * @see DynamicSQLBuffer#local()
+	 */
+	public static DynamicSQLBuffer generate(final String namespace, final String name, final Group group, final Parameter parameter,
+			final DynamicSQLBuffer buffer) {
+		return generate(namespace, INSTANCE.get(namespace, name), group, parameter, buffer);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成する。
+	 * <p>
+	 * パラメータ名と同名のプロパティ(<code>getXxx()</code>、<code>isXxx()</code>、<code>xxx()</code>、公開フィールド)の値を使用する。
+	 * <code>xxx()</code>は同名のフィールドを宣言している場合のみ使用する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param bean Bean
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public static DynamicSQL generate(final String namespace, final String name, final Group group, final Object bean) {
+		return generateBean(namespace, INSTANCE.get(namespace, name), group, bean);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param bean Bean
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 * @see DynamicSQLBuffer#local()
+	 */
+	public static DynamicSQLBuffer generate(final String namespace, final String name, final Group group, final Object bean, final DynamicSQLBuffer buffer) {
+		return generateBean(namespace, INSTANCE.get(namespace, name), group, bean, buffer);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public static DynamicSQL generateIndexed(final String name, final Group group, final IndexedParameter parameter) {
+		return generateIndexed(DEFAULT_NAMESPACE, name, group, parameter);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public static DynamicSQL generateIndexed(final String namespace, final String name, final Group group, final IndexedParameter parameter) {
+		return generateIndexed(namespace, INSTANCE.get(namespace, name), group, parameter);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * <p>
+	 * 形状キャッシュに存在する形状の場合、オブジェクトを生成しない。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 * @see DynamicSQLBuffer#local()
+	 */
+	public static DynamicSQLBuffer generateIndexed(final String namespace, final String name, final Group group, final IndexedParameter parameter,
+			final DynamicSQLBuffer buffer) {
+		return generateIndexed(namespace, INSTANCE.get(namespace, name), group, parameter, buffer);
+	}
+
+	/**
+	 * ダイナミックSQLのハンドルを取得する。
+	 * 
+	 * @param name 名前
+	 * @return ハンドル
+	 * @see #prepare(String, String)
+	 */
+	public static StatementHandle prepare(final String name) {
+		return prepare(DEFAULT_NAMESPACE, name);
+	}
+
+	/**
+	 * ダイナミックSQLのハンドルを取得する。
+	 * <p>
+	 * ハンドルは名前空間と名前の解決結果を保持し、ロード・再ロード後は次回の生成時に解決し直す。
+	 * ロード前に取得することもできる(定数として保持できる)。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return ハンドル
+	 */
+	public static StatementHandle prepare(final String namespace, final String name) {
+		if (null == name) {
+			throw new IllegalArgumentException("Name is null.");
+		}
+		return new StatementHandle(INSTANCE, null == namespace ? DEFAULT_NAMESPACE : namespace, name);
+	}
+
+	/**
+	 * 現在登録されているダイナミックSQLに固定したハンドルを取得する。
+	 * <p>
+	 * {@link #prepare(String, String)}と異なり、再ロード後も解決し直さない。
+	 * 実行属性の取得と生成で同じ登録情報を使用する場合に使用する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return ハンドル。ダイナミックSQLが存在しない場合、<code>null</code>を返す。
+	 */
+	public static StatementHandle resolve(final String namespace, final String name) {
+		StatementEntry entry = INSTANCE.get(namespace, name);
+		if (null == entry) {
+			return null;
+		}
+		return new StatementHandle(INSTANCE, namespace, name, entry);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	static DynamicSQL generate(final String namespace, final StatementEntry entry, final Group group, final Parameter parameter) {
+		return (DynamicSQL) generate(namespace, entry, group, parameter, MODE_PARAMETER, null);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	static DynamicSQLBuffer generate(final String namespace, final StatementEntry entry, final Group group, final Parameter parameter,
+			final DynamicSQLBuffer buffer) {
+		return (DynamicSQLBuffer) generate(namespace, entry, group, parameter, MODE_PARAMETER, buffer);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @param group グループ
+	 * @param bean Bean
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	static DynamicSQL generateBean(final String namespace, final StatementEntry entry, final Group group, final Object bean) {
+		return (DynamicSQL) generate(namespace, entry, group, bean, MODE_BEAN, null);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @param group グループ
+	 * @param bean Bean
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	static DynamicSQLBuffer generateBean(final String namespace, final StatementEntry entry, final Group group, final Object bean,
+			final DynamicSQLBuffer buffer) {
+		return (DynamicSQLBuffer) generate(namespace, entry, group, bean, MODE_BEAN, buffer);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	static DynamicSQL generateIndexed(final String namespace, final StatementEntry entry, final Group group, final IndexedParameter parameter) {
+		return (DynamicSQL) generate(namespace, entry, group, parameter, MODE_INDEXED, null);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	static DynamicSQLBuffer generateIndexed(final String namespace, final StatementEntry entry, final Group group, final IndexedParameter parameter,
+			final DynamicSQLBuffer buffer) {
+		return (DynamicSQLBuffer) generate(namespace, entry, group, parameter, MODE_INDEXED, buffer);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、計測が有効な場合は生成時間を記録する。
+	 * <p>
+	 * 計測値はダイナミックSQL登録情報が保持するものを使用する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @param group グループ
+	 * @param parameter パラメータ({@link Parameter}、{@link IndexedParameter}またはBean)
+	 * @param mode パラメータの種類({@link #MODE_PARAMETER}、{@link #MODE_INDEXED}、{@link #MODE_BEAN})
+	 * @param buffer バッファ。<code>null</code>の場合、{@link DynamicSQL}を生成する。
+	 * @return ダイナミックSQLまたはバッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	private static Object generate(final String namespace, final StatementEntry entry, final Group group, final Object parameter, final int mode,
+			final DynamicSQLBuffer buffer) {
+		DSQLEntity entity = INSTANCE.resolve(namespace, entry);
+		if (null == entity) {
+			return null;
+		}
+		String name = entry.getName();
+		InListBucketing bucketing = entry.getBucketing();
+		StatementMetrics metrics = entry.getMetrics(namespace);
+		long start = (null == metrics) ? 0L : System.nanoTime();
+		Object result = null;
+		if (MODE_INDEXED == mode) {
+			IndexedParameter indexed = (IndexedParameter) parameter;
+			result = (null == buffer) ? DynamicSQLBuilder.buildIndexed(namespace, name, entity, group, indexed, bucketing, metrics)
+					: DynamicSQLBuilder.buildIndexed(buffer, namespace, name, entity, group, indexed, bucketing, metrics);
+		} else if (MODE_BEAN == mode) {
+			result = (null == buffer) ? DynamicSQLBuilder.buildBean(namespace, name, entity, group, parameter, bucketing, metrics)
+					: DynamicSQLBuilder.buildBean(buffer, namespace, name, entity, group, parameter, bucketing, metrics);
+		} else {
+			Parameter params = (Parameter) parameter;
+			result = (null == buffer) ? DynamicSQLBuilder.build(namespace, name, entity, group, params, bucketing, metrics)
+					: DynamicSQLBuilder.build(buffer, namespace, name, entity, group, params, bucketing, metrics);
+		}
+		if (null != metrics) {
+			metrics.recordGenerate(System.nanoTime() - start);
+		}
+		return result;
+	}
+
+	/**
+	 * パラメータ配置情報を取得する。
+	 * 
+	 * @param name 名前
+	 * @return パラメータ配置情報。ダイナミックSQLが存在しない場合、<code>null</code>を返す。
+	 */
+	public ParameterLayout getParameterLayout(final String name) {
+		return getParameterLayout(DEFAULT_NAMESPACE, name);
+	}
+
+	/**
+	 * パラメータ配置情報を取得する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return パラメータ配置情報。ダイナミックSQLが存在しない場合、<code>null</code>を返す。
+	 */
+	public ParameterLayout getParameterLayout(final String namespace, final String name) {
+		ParameterLayout layout = null;
+		DSQLEntity entity = resolve(namespace, get(namespace, name));
 		if (null != entity) {
-			dsql = DynamicSQLBuilder.build(namespace, name, entity, group, parameter);
+			layout = entity.getPlan().getParameterLayout();
 		}
-		return dsql;
+		return layout;
 	}
 
 	/**
 	 * 初期化処理を行なう。
 	 */
-	public void initialize() {
-		dynamicSQLs.clear();
+	public synchronized void initialize() {
+		dynamicSQLs = Collections.emptyMap();
 	}
 
 	/**
 	 * 解放処理を行なう。
 	 */
-	public void destroy() {
-		dynamicSQLs.clear();
+	public synchronized void destroy() {
+		stopReload();
+		dynamicSQLs = Collections.emptyMap();
+	}
+
+	/**
+	 * ロード用のスレッドプールを設定する。
+	 * <p>
+	 * 設定した場合、ダイナミックSQLファイルの読み込みと解析を並列に行う(例: {@link java.util.concurrent.ForkJoinPool})。
+	 * コンテキスト情報はスレッドセーフであること。スレッドプールの終了は呼び出し元で行うこと。
+	 * </p>
+	 * 
+	 * @param executor スレッドプール。<code>null</code>の場合、呼び出し元スレッドで逐次ロードする。
+	 */
+	public void setLoadExecutor(final ExecutorService executor) {
+		loadExecutor = executor;
+	}
+
+	/**
+	 * 遅延ロードを設定する。
+	 * <p>
+	 * 遅延ロードの場合、ロード時は名前とダイナミックSQLファイルの対応のみを登録し、ダイナミックSQLファイルは初回参照時に解析する。
+	 * ダイナミックSQLファイルが存在しない場合もロード時にはエラーとならず、参照時に<code>null</code>を返す。
+	 * </p>
+	 * 
+	 * @param lazy 遅延ロード
+	 * @param warmUp ロード後に未解析のダイナミックSQLをバックグラウンドで解析する場合、<code>true</code>
+	 */
+	public void setLazyLoad(final boolean lazy, final boolean warmUp) {
+		this.lazyLoad = lazy;
+		this.warmUp = warmUp;
+	}
+
+	/**
+	 * ダイナミックSQLファイルの文字コードを設定する。
+	 * <p>
+	 * 設定ファイルで<code>charset</code>属性を指定したダイナミックSQLは属性の文字コードを優先する。
+	 * 設定は以降のロードに適用する。
+	 * </p>
+	 * 
+	 * @param charset 文字コード。<code>null</code>の場合、UTF-8
+	 */
+	public void setCharset(final Charset charset) {
+		this.charset = (null != charset) ? charset : DEFAULT_CHARSET;
 	}
 
 	/**
@@ -246,6 +645,34 @@ public final class DynamicSQLManager extends LoggingObject {
 		doLoad(namespace, stream, context);
 	}
 
+	/**
+	 * ディレクトリ配下のダイナミックSQLファイルをロードする。
+	 * 
+	 * @param directory ディレクトリ
+	 * @param glob ファイル名のパターン(例: <code>*.sql</code>)
+	 * @throws IOException IO操作時に問題が発生した場合
+	 * @see #loadDirectory(String, Path, String)
+	 */
+	public void loadDirectory(final Path directory, final String glob) throws IOException {
+		doLoad(DEFAULT_NAMESPACE, directory, glob);
+	}
+
+	/**
+	 * ディレクトリ配下のダイナミックSQLファイルをロードする。
+	 * <p>
+	 * 設定ファイルを使用せず、パターンに一致するファイルをディレクトリからの相対パス(区切りは<code>/</code>)から拡張子を除いた名前で登録する。
+	 * jarファイル内のディレクトリは{@link java.nio.file.FileSystems#newFileSystem(Path, ClassLoader)}で取得したパスを指定する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param directory ディレクトリ
+	 * @param glob ファイル名のパターン(例: <code>*.sql</code>)
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void loadDirectory(final String namespace, final Path directory, final String glob) throws IOException {
+		doLoad(namespace, directory, glob);
+	}
+
 	/**
 	 * デフォルトのDSQLエンティティ情報リストを取得する。
 	 * 
@@ -263,11 +690,13 @@ public final class DynamicSQLManager extends LoggingObject {
 	 */
 	public List<DSQLEntity> getDSQLEntityList(final String namespace) {
 		List<DSQLEntity> result = new ArrayList<DSQLEntity>();
-		if (dynamicSQLs.containsKey(namespace)) {
-			Map<String, DSQLEntity> dsqls = dynamicSQLs.get(namespace);
-			for (String name : dsqls.keySet()) {
-				DSQLEntity dsql = dsqls.get(name);
-				result.add(dsql);
+		Map<String, StatementEntry> dsqls = dynamicSQLs.get(namespace);
+		if (null != dsqls) {
+			for (StatementEntry entry : dsqls.values()) {
+				DSQLEntity entity = resolve(namespace, entry);
+				if (null != entity) {
+					result.add(entity);
+				}
 			}
 		}
 		Collections.sort(result, SORT_DSQLENTITY);
@@ -289,24 +718,184 @@ public final class DynamicSQLManager extends LoggingObject {
 			error(msg);
 			throw new IOException(msg);
 		}
-		doLoad(namespace, stream, context);
+		try {
+			doLoad(namespace, stream, context);
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * ディレクトリ配下のダイナミックSQLファイルをロードする。
+	 * 
+	 * @param namespace 名前空間
+	 * @param directory ディレクトリ
+	 * @param glob ファイル名のパターン
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private void doLoad(final String namespace, final Path directory, final String glob) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			String msg = String.format("Not found dynamicSQL directory.[%s]", directory);
+			error(msg);
+			throw new IOException(msg);
+		}
+
+		final PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + glob);
+		final List<String> files = new ArrayList<String>();
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+				if (attrs.isRegularFile() && matcher.matches(file.getFileName())) {
+					Path relative = directory.relativize(file);
+					StringBuilder s = new StringBuilder();
+					for (Path element : relative) {
+						if (0 < s.length()) {
+							s.append('/');
+						}
+						s.append(element.toString());
+					}
+					files.add(s.toString());
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		// 走査順はファイルシステムに依存するため、名前順にロードする
+		Collections.sort(files);
+
+		List<DynamicSQLXMLEntity> dsqls = new ArrayList<DynamicSQLXMLEntity>(files.size());
+		for (String file : files) {
+			int index = file.lastIndexOf('.');
+			DynamicSQLXMLEntity entity = new DynamicSQLXMLEntity();
+			entity.setName((index > file.lastIndexOf('/') + 1) ? file.substring(0, index) : file);
+			entity.setFile(file);
+			dsqls.add(entity);
+		}
+		doLoad(namespace, dsqls, new FileContext(directory));
 	}
 
 	/**
 	 * 設定をロードする。
+	 * <p>
+	 * ロード用のスレッドプールが設定されている場合、ダイナミックSQLファイルの読み込みと解析を並列に行う。
+	 * 結果は定義順に統合するため、名前の重複検出およびエラー発生時の動作は逐次ロードと同じとなる。
+	 * </p>
 	 * 
 	 * @param namespace 名前空間
 	 * @param stream 設定ファイル
 	 * @param context コンテキスト情報
 	 * @throws IOException IO操作時に問題が発生した場合
 	 */
-	@SuppressWarnings("unchecked")
-	private synchronized void doLoad(final String namespace, final InputStream stream, final Context context) throws IOException {
-		List<DynamicSQLXMLEntity> dsqls = null;
-		try {
-			Digester digester = new Digester();
-			digester.addObjectCreate("azuki/dynamicSQLs", ArrayList.class);
-			digester.addObjectCreate("azuki/dynamicSQLs/dynamicSQL", DynamicSQLXMLEntity.class);
+	private void doLoad(final String namespace, final InputStream stream, final Context context) throws IOException {
+		doLoad(namespace, readConfig(stream), context);
+	}
+
+	/**
+	 * ダイナミックSQL定義をロードする。
+	 * 
+	 * @param namespace 名前空間
+	 * @param dsqls ダイナミックSQL定義
+	 * @param context コンテキスト情報
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private void doLoad(final String namespace, final List<DynamicSQLXMLEntity> dsqls, final Context context) throws IOException {
+		// 重複した名前は定義順で先のものを採用し、読み込み対象から除外する
+		Map<String, StatementEntry> current = dynamicSQLs.get(namespace);
+		Set<String> names = new HashSet<String>();
+		List<DynamicSQLXMLEntity> targets = new ArrayList<DynamicSQLXMLEntity>(dsqls.size());
+		for (DynamicSQLXMLEntity entity : dsqls) {
+			info(String.format("DynamicSQL loading.[ns:%s, name:%s]", s(namespace), entity.getName()));
+
+			if ((null != current && current.containsKey(entity.getName())) || !names.add(entity.getName())) {
+				error(String.format("Duplicate dynamicSQL name.[ns:%s, name:%s]", s(namespace), entity.getName()));
+				continue;
+			}
+			targets.add(entity);
+		}
+
+		boolean lazy = lazyLoad;
+		List<StatementEntry> entries = null;
+		ExecutorService executor = loadExecutor;
+		if (lazy || null == executor || 1 >= targets.size()) {
+			entries = new ArrayList<StatementEntry>(targets.size());
+			for (DynamicSQLXMLEntity entity : targets) {
+				entries.add(load(namespace, entity, context, lazy));
+			}
+		} else {
+			entries = load(namespace, targets, context, executor);
+		}
+
+		synchronized (this) {
+			// 現在のスナップショットを複製して更新し、全件のロード後に差し替える
+			Map<String, StatementEntry> dsqlsMap = new HashMap<String, StatementEntry>();
+			Map<String, StatementEntry> latest = dynamicSQLs.get(namespace);
+			if (null != latest) {
+				dsqlsMap.putAll(latest);
+			}
+
+			List<StatementEntry> registered = new ArrayList<StatementEntry>(entries.size());
+			for (StatementEntry entry : entries) {
+				if (dsqlsMap.containsKey(entry.getName())) {
+					// 読み込み中に他のロードで登録された場合
+					error(String.format("Duplicate dynamicSQL name.[ns:%s, name:%s]", s(namespace), entry.getName()));
+					continue;
+				}
+				dsqlsMap.put(entry.getName(), entry);
+				registered.add(entry);
+			}
+
+			publish(namespace, dsqlsMap);
+
+			if (lazy && warmUp) {
+				warmUp(namespace, registered);
+			}
+		}
+	}
+
+	/**
+	 * 未解析のダイナミックSQLをバックグラウンドで解析する。
+	 * <p>
+	 * ロード用のスレッドプールが設定されている場合はスレッドプールで、それ以外は優先度の低いデーモンスレッドで解析する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param entries ダイナミックSQL登録情報
+	 */
+	private void warmUp(final String namespace, final List<StatementEntry> entries) {
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				for (StatementEntry entry : entries) {
+					resolve(namespace, entry);
+				}
+				info(String.format("DynamicSQL warm-up completed.[ns:%s, count:%d]", s(namespace), entries.size()));
+			}
+		};
+
+		ExecutorService executor = loadExecutor;
+		if (null != executor) {
+			executor.execute(task);
+		} else {
+			Thread thread = new Thread(task, "DynamicSQLWarmUp");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.start();
+		}
+	}
+
+	/**
+	 * 設定ファイルを読み込む。
+	 * 
+	 * @param stream 設定ファイル
+	 * @return ダイナミックSQL定義(定義順)
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	@SuppressWarnings("unchecked")
+	List<DynamicSQLXMLEntity> readConfig(final InputStream stream) throws IOException {
+		List<DynamicSQLXMLEntity> dsqls = null;
+		try {
+			Digester digester = new Digester();
+			digester.addObjectCreate("azuki/dynamicSQLs", ArrayList.class);
+			digester.addObjectCreate("azuki/dynamicSQLs/dynamicSQL", DynamicSQLXMLEntity.class);
 			digester.addSetProperties("azuki/dynamicSQLs/dynamicSQL");
 			digester.addSetNext("azuki/dynamicSQLs/dynamicSQL", "add");
 			dsqls = (List<DynamicSQLXMLEntity>)digester.parse(stream);
@@ -317,58 +906,456 @@ public final class DynamicSQLManager extends LoggingObject {
 			error(ex);
 			throw ex;
 		}
+		return dsqls;
+	}
 
-		Map<String, DSQLEntity> dsqlsMap = null;
-		if (dynamicSQLs.containsKey(namespace)) {
-			dsqlsMap = dynamicSQLs.get(namespace);
-		} else {
-			dsqlsMap = new HashMap<String, DSQLEntity>();
-			dynamicSQLs.put(namespace, dsqlsMap);
+	/**
+	 * コンパイル済みのカタログをロードする。
+	 * 
+	 * @param catalog カタログファイル
+	 * @throws IOException IO操作時に問題が発生した場合
+	 * @see DynamicSQLCatalogCompiler
+	 */
+	public void loadCatalog(final File catalog) throws IOException {
+		loadCatalog(DEFAULT_NAMESPACE, catalog);
+	}
+
+	/**
+	 * コンパイル済みのカタログをロードする。
+	 * <p>
+	 * カタログファイルはメモリにマップして読み込み、ダイナミックSQLファイルおよび設定ファイルの解析を行わない。
+	 * カタログよりロードしたダイナミックSQLは再ロードの対象外となる。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param catalog カタログファイル
+	 * @throws IOException IO操作時に問題が発生した場合
+	 * @see DynamicSQLCatalogCompiler
+	 */
+	public void loadCatalog(final String namespace, final File catalog) throws IOException {
+		DSQLCatalog dsqlCatalog = null;
+		try {
+			dsqlCatalog = DSQLCatalog.read(catalog);
+		} catch (IOException ex) {
+			error(String.format("DynamicSQL catalog load error.[ns:%s, path:%s]", s(namespace), catalog));
+			error(ex);
+			throw ex;
 		}
 
-		for (DynamicSQLXMLEntity entity : dsqls) {
-			info(String.format("DynamicSQL loading.[ns:%s, name:%s]", s(namespace), entity.getName()));
+		synchronized (this) {
+			Map<String, StatementEntry> dsqlsMap = new HashMap<String, StatementEntry>();
+			Map<String, StatementEntry> current = dynamicSQLs.get(namespace);
+			if (null != current) {
+				dsqlsMap.putAll(current);
+			}
 
-			if (dsqlsMap.containsKey(entity.getName())) {
-				error(String.format("Duplicate dynamicSQL name.[ns:%s, name:%s]", s(namespace), entity.getName()));
-				continue;
+			for (DSQLCatalog.Statement statement : dsqlCatalog.getStatements()) {
+				info(String.format("DynamicSQL loading.[ns:%s, name:%s]", s(namespace), statement.getName()));
+
+				if (dsqlsMap.containsKey(statement.getName())) {
+					error(String.format("Duplicate dynamicSQL name.[ns:%s, name:%s]", s(namespace), statement.getName()));
+					continue;
+				}
+
+				InListBucketing bucketing = parseBucketing(namespace, statement.getName(), statement.getInListBuckets(), statement.getInListPadding());
+				StatementAttributes attributes = parseAttributes(namespace, statement.getName(), statement.getFetchSize(), statement.getRowMapper());
+				dsqlsMap.put(statement.getName(), new StatementEntry(statement.getEntity(), bucketing, attributes, 0L, statement.getFile(), charset,
+						statement.getDigest(), null));
 			}
 
-			InputStream is = context.getResourceAsStream(entity.getFile());
-			if (null == is) {
-				String msg = String.format("Not found dynamicSQL file.[ns:%s, name:%s, path:%s]", s(namespace), entity.getName(), entity.getFile());
-				error(msg);
-				throw new IOException(msg);
+			publish(namespace, dsqlsMap);
+		}
+	}
+
+	/**
+	 * ダイナミックSQLファイルを並列にロードする。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entities ダイナミックSQL定義
+	 * @param context コンテキスト情報
+	 * @param executor スレッドプール
+	 * @return 定義順の登録情報
+	 * @throws IOException IO操作時に問題が発生した場合。複数のエラーが発生した場合、定義順で最初のエラー
+	 */
+	private List<StatementEntry> load(final String namespace, final List<DynamicSQLXMLEntity> entities, final Context context,
+			final ExecutorService executor) throws IOException {
+		List<Future<StatementEntry>> futures = new ArrayList<Future<StatementEntry>>(entities.size());
+		try {
+			for (final DynamicSQLXMLEntity entity : entities) {
+				futures.add(executor.submit(new Callable<StatementEntry>() {
+					@Override
+					public StatementEntry call() throws IOException {
+						return load(namespace, entity, context, false);
+					}
+				}));
 			}
 
-			DSQLEntity dsql = DSQLEntity.getInstance(entity.getName(), new InputStreamReader(is));
-			dsqlsMap.put(entity.getName(), dsql);
+			List<StatementEntry> entries = new ArrayList<StatementEntry>(entities.size());
+			for (Future<StatementEntry> future : futures) {
+				entries.add(future.get());
+			}
+			return entries;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			String msg = String.format("DynamicSQL loading interrupted.[ns:%s]", s(namespace));
+			error(msg);
+			throw new InterruptedIOException(msg);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		} finally {
+			// エラー時は未完了のロードを取り消す
+			for (Future<StatementEntry> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
 
-			StringBuilder msg = new StringBuilder();
-			msg.append(String.format("DynamicSQL : %s", entity.getName()));
-			msg.append(System.lineSeparator());
-			msg.append(dsql.getPlainSQL());
+	/**
+	 * ダイナミックSQLファイルをロードする。
+	 * 
+	 * @param namespace 名前空間
+	 * @param entity ダイナミックSQL定義
+	 * @param context コンテキスト情報
+	 * @param lazy 遅延ロード
+	 * @return 登録情報。遅延ロードの場合、未解析の登録情報
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private StatementEntry load(final String namespace, final DynamicSQLXMLEntity entity, final Context context, final boolean lazy)
+			throws IOException {
+		InListBucketing bucketing = parseBucketing(namespace, entity.getName(), entity.getInListBuckets(), entity.getInListPadding());
+		StatementAttributes attributes = parseAttributes(namespace, entity.getName(), entity.getFetchSize(), entity.getRowMapper());
+		Charset fileCharset = parseCharset(namespace, entity.getName(), entity.getCharset(), charset);
 
-			debug(msg.toString());
+		if (lazy) {
+			return new StatementEntry(entity.getName(), bucketing, attributes, entity.getFile(), fileCharset, context);
+		}
+
+		ByteBuffer data = StatementEntry.read(context, entity.getFile());
+		if (null == data) {
+			String msg = String.format("Not found dynamicSQL file.[ns:%s, name:%s, path:%s]", s(namespace), entity.getName(), entity.getFile());
+			error(msg);
+			throw new IOException(msg);
 		}
+
+		DSQLEntity dsql = StatementEntry.parse(entity.getName(), data, fileCharset);
+		return new StatementEntry(dsql, bucketing, attributes, 0L, entity.getFile(), fileCharset, StatementEntry.digest(data), context);
 	}
 
 	/**
-	 * ダイナミックSQLを生成する。
+	 * ダイナミックSQLファイルの文字コードを解析する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name ダイナミックSQL名
+	 * @param charsetName 文字コード名
+	 * @param defaultCharset 文字コード名が未指定の場合の文字コード
+	 * @return 文字コード
+	 * @throws IOException 文字コード名が不正またはサポートされていない場合
+	 */
+	private Charset parseCharset(final String namespace, final String name, final String charsetName, final Charset defaultCharset)
+			throws IOException {
+		if (StringUtility.isEmpty(charsetName)) {
+			return defaultCharset;
+		}
+		try {
+			return Charset.forName(charsetName);
+		} catch (IllegalArgumentException ex) {
+			String msg = String.format("Unsupported charset.[ns:%s, name:%s, charset:%s]", s(namespace), name, charsetName);
+			error(msg);
+			throw new IOException(msg, ex);
+		}
+	}
+
+	/**
+	 * リスト展開数の段階化を解析する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name ダイナミックSQL名
+	 * @param buckets リスト展開数の段階
+	 * @param padding リスト展開時の補完方法
+	 * @return リスト展開数の段階化。未指定の場合、<code>null</code>を返す。
+	 * @throws IOException 設定値が不正な場合
+	 */
+	private InListBucketing parseBucketing(final String namespace, final String name, final String buckets, final String padding) throws IOException {
+		try {
+			return InListBucketing.parse(buckets, padding);
+		} catch (IllegalArgumentException ex) {
+			String msg = String.format("Invalid inListBuckets.[ns:%s, name:%s, buckets:%s, padding:%s]", s(namespace), name, buckets, padding);
+			error(msg);
+			throw new IOException(msg, ex);
+		}
+	}
+
+	/**
+	 * 実行属性を解析する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name ダイナミックSQL名
+	 * @param fetchSize フェッチサイズ
+	 * @param rowMapper 行マッパーのクラス名
+	 * @return 実行属性
+	 * @throws IOException 設定値が不正な場合
+	 */
+	private StatementAttributes parseAttributes(final String namespace, final String name, final String fetchSize, final String rowMapper)
+			throws IOException {
+		try {
+			return StatementAttributes.parse(fetchSize, rowMapper);
+		} catch (IllegalArgumentException ex) {
+			String msg = String.format("Invalid fetchSize.[ns:%s, name:%s, fetchSize:%s]", s(namespace), name, fetchSize);
+			error(msg);
+			throw new IOException(msg, ex);
+		}
+	}
+
+	/**
+	 * 変更されたダイナミックSQLファイルを再ロードする。
+	 * <p>
+	 * ファイル内容のハッシュ値が変化したダイナミックSQLのみ再解析し、世代を進めて個別に差し替える。
+	 * 遅延ロードで読み込み・解析に失敗したダイナミックSQLも、ファイルが存在すれば再解析する。
+	 * </p>
+	 * 
+	 * @return 再ロードしたダイナミックSQL数
+	 */
+	public int reload() {
+		return reload(null);
+	}
+
+	/**
+	 * 変更されたダイナミックSQLファイルを再ロードする。
+	 * 
+	 * @param files 対象のダイナミックSQLファイル。<code>null</code>の場合、全ファイル
+	 * @return 再ロードしたダイナミックSQL数
+	 */
+	int reload(final Set<String> files) {
+		int count = 0;
+		for (Map.Entry<String, Map<String, StatementEntry>> dsqls : dynamicSQLs.entrySet()) {
+			String namespace = dsqls.getKey();
+			for (StatementEntry entry : dsqls.getValue().values()) {
+				if (null != files && !files.contains(entry.getFile())) {
+					continue;
+				}
+				if (null == entry.getContext()) {
+					// カタログよりロードした場合
+					continue;
+				}
+				if (!entry.isLoaded() && null == entry.getLoadError()) {
+					// 未解析の場合は初回参照時に最新の内容を読み込む
+					continue;
+				}
+				String name = entry.getName();
+				try {
+					ByteBuffer data = StatementEntry.read(entry.getContext(), entry.getFile());
+					if (null == data) {
+						if (null == entry.getLoadError()) {
+							warn(String.format("Not found dynamicSQL file.[ns:%s, name:%s, path:%s]", s(namespace), name, entry.getFile()));
+						}
+						continue;
+					}
+					String digest = StatementEntry.digest(data);
+					if (digest.equals(entry.getDigest())) {
+						continue;
+					}
+
+					StatementEntry newEntry = entry.next(StatementEntry.parse(name, data, entry.getCharset()), digest);
+					if (swap(namespace, entry, newEntry)) {
+						info(String.format("DynamicSQL reloaded.[ns:%s, name:%s, generation:%d]", s(namespace), name, newEntry.getGeneration()));
+						count++;
+					}
+				} catch (IOException ex) {
+					error(String.format("DynamicSQL reload error.[ns:%s, name:%s, path:%s]", s(namespace), name, entry.getFile()));
+					error(ex);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * ダイナミックSQLファイルの変更監視を開始する。
+	 * <p>
+	 * ファイルシステム上のファイルは{@link java.nio.file.WatchService}で監視し、それ以外(jar内のリソース等)は指定間隔でハッシュ値を確認する。
+	 * </p>
+	 * 
+	 * @param interval 確認間隔(ミリ秒)
+	 */
+	public synchronized void startReload(final long interval) {
+		stopReload();
+		reloader = new DynamicSQLReloader(this, interval);
+		reloader.start();
+	}
+
+	/**
+	 * ダイナミックSQLファイルの変更監視を停止する。
+	 */
+	public synchronized void stopReload() {
+		if (null != reloader) {
+			reloader.stop();
+			reloader = null;
+		}
+	}
+
+	/**
+	 * ダイナミックSQLの世代を取得する。
+	 * <p>
+	 * 世代はロード時に<code>0</code>となり、再ロードで差し替えられるごとに1つ進む。
+	 * </p>
 	 * 
 	 * @param namespace 名前空間
 	 * @param name 名前
-	 * @return ダイナミックSQLエンティティ
-	 */
-	private DSQLEntity get(final String namespace, final String name) {
-		DSQLEntity entity = null;
-		if (dynamicSQLs.containsKey(namespace)) {
-			Map<String, DSQLEntity> dsqls = dynamicSQLs.get(namespace);
-			if (dsqls.containsKey(name)) {
-				entity = dsqls.get(name);
+	 * @return 世代。ダイナミックSQLが存在しない場合、<code>-1</code>を返す。
+	 */
+	public long getGeneration(final String namespace, final String name) {
+		StatementEntry entry = get(namespace, name);
+		if (null == entry) {
+			return -1L;
+		}
+		return entry.getGeneration();
+	}
+
+	/**
+	 * ダイナミックSQLのフェッチサイズを取得する。
+	 * <p>
+	 * 設定ファイルの<code>fetchSize</code>属性で指定する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return フェッチサイズ。未指定の場合、<code>0</code>。ダイナミックSQLが存在しない場合、<code>-1</code>を返す。
+	 */
+	public int getFetchSize(final String namespace, final String name) {
+		StatementEntry entry = get(namespace, name);
+		if (null == entry) {
+			return -1;
+		}
+		return entry.getAttributes().getFetchSize();
+	}
+
+	/**
+	 * ダイナミックSQLの行マッパーのクラス名を取得する。
+	 * <p>
+	 * 設定ファイルの<code>rowMapper</code>属性で指定する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return クラス名。未指定またはダイナミックSQLが存在しない場合、<code>null</code>を返す。
+	 */
+	public String getRowMapper(final String namespace, final String name) {
+		StatementEntry entry = get(namespace, name);
+		if (null == entry) {
+			return null;
+		}
+		return entry.getAttributes().getRowMapper();
+	}
+
+	/**
+	 * ロード済みのダイナミックSQLファイルを取得する。
+	 * 
+	 * @return ファイルとコンテキスト情報のマップ
+	 */
+	Map<String, Context> getFiles() {
+		Map<String, Context> files = new HashMap<String, Context>();
+		for (Map<String, StatementEntry> dsqls : dynamicSQLs.values()) {
+			for (StatementEntry entry : dsqls.values()) {
+				if (null != entry.getContext()) {
+					files.put(entry.getFile(), entry.getContext());
+				}
 			}
 		}
-		return entity;
+		return files;
+	}
+
+	/**
+	 * 登録情報を差し替える。
+	 * 
+	 * @param namespace 名前空間
+	 * @param oldEntry 差し替え前の登録情報
+	 * @param newEntry 差し替え後の登録情報
+	 * @return 差し替えた場合、<code>true</code>を返す。差し替え前に他で更新されていた場合、<code>false</code>を返す。
+	 */
+	private synchronized boolean swap(final String namespace, final StatementEntry oldEntry, final StatementEntry newEntry) {
+		String name = oldEntry.getName();
+		Map<String, StatementEntry> dsqls = dynamicSQLs.get(namespace);
+		if (null == dsqls || oldEntry != dsqls.get(name)) {
+			return false;
+		}
+		Map<String, StatementEntry> dsqlsMap = new HashMap<String, StatementEntry>(dsqls);
+		dsqlsMap.put(name, newEntry);
+		publish(namespace, dsqlsMap);
+		return true;
+	}
+
+	/**
+	 * 名前空間のダイナミックSQL情報を差し替えたスナップショットを公開する。
+	 * <p>
+	 * 呼び出し元で同期を取ること。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param dsqls ダイナミックSQL情報
+	 */
+	private void publish(final String namespace, final Map<String, StatementEntry> dsqls) {
+		Map<String, Map<String, StatementEntry>> snapshot = new HashMap<String, Map<String, StatementEntry>>(dynamicSQLs);
+		snapshot.put(namespace, Collections.unmodifiableMap(dsqls));
+		dynamicSQLs = Collections.unmodifiableMap(snapshot);
+	}
+
+	/**
+	 * ダイナミックSQL情報のスナップショットを取得する。
+	 * <p>
+	 * ロード・再ロードのたびに別のインスタンスに差し替わる。
+	 * </p>
+	 * 
+	 * @return スナップショット
+	 */
+	Map<String, Map<String, StatementEntry>> snapshot() {
+		return dynamicSQLs;
+	}
+
+	/**
+	 * ダイナミックSQL登録情報を取得する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return ダイナミックSQL登録情報
+	 */
+	private StatementEntry get(final String namespace, final String name) {
+		Map<String, StatementEntry> dsqls = dynamicSQLs.get(namespace);
+		if (null == dsqls) {
+			return null;
+		}
+		return dsqls.get(name);
+	}
+
+	/**
+	 * ダイナミックSQLのエンティティ情報を取得する。
+	 * <p>
+	 * 遅延ロードで未解析の場合、ここで解析する。
+	 * 解析に失敗した場合のログは初回のみ出力し、再ロードで差し替えるまで再解析しない。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param entry ダイナミックSQL登録情報
+	 * @return エンティティ情報。登録情報が<code>null</code>または解析に失敗した場合、<code>null</code>を返す。
+	 */
+	private DSQLEntity resolve(final String namespace, final StatementEntry entry) {
+		if (null == entry) {
+			return null;
+		}
+		try {
+			return entry.getEntity();
+		} catch (IOException ex) {
+			error(String.format("DynamicSQL load error.[ns:%s, name:%s, path:%s]", s(namespace), entry.getName(), entry.getFile()));
+			error(ex);
+			return null;
+		}
 	}
 
 	private static String s(final String string) {
@@ -397,6 +1384,31 @@ public final class DynamicSQLManager extends LoggingObject {
 		 */
 		private String file;
 
+		/**
+		 * リスト展開数の段階
+		 */
+		private String inListBuckets;
+
+		/**
+		 * リスト展開時の補完方法
+		 */
+		private String inListPadding;
+
+		/**
+		 * ダイナミックSQLファイルの文字コード
+		 */
+		private String charset;
+
+		/**
+		 * フェッチサイズ
+		 */
+		private String fetchSize;
+
+		/**
+		 * 行マッパーのクラス名
+		 */
+		private String rowMapper;
+
 		/**
 		 * コンストラクタ
 		 */
@@ -440,6 +1452,96 @@ public final class DynamicSQLManager extends LoggingObject {
 			return file;
 		}
 
+		/**
+		 * リスト展開数の段階を設定する。
+		 * 
+		 * @param inListBuckets 段階(<code>pow2</code>、<code>none</code>またはカンマ区切りの要素数)
+		 */
+		public void setInListBuckets(final String inListBuckets) {
+			this.inListBuckets = inListBuckets;
+		}
+
+		/**
+		 * リスト展開数の段階を取得する。
+		 * 
+		 * @return 段階
+		 */
+		public String getInListBuckets() {
+			return inListBuckets;
+		}
+
+		/**
+		 * リスト展開時の補完方法を設定する。
+		 * 
+		 * @param inListPadding 補完方法(<code>last</code>または<code>null</code>)
+		 */
+		public void setInListPadding(final String inListPadding) {
+			this.inListPadding = inListPadding;
+		}
+
+		/**
+		 * リスト展開時の補完方法を取得する。
+		 * 
+		 * @return 補完方法
+		 */
+		public String getInListPadding() {
+			return inListPadding;
+		}
+
+		/**
+		 * ダイナミックSQLファイルの文字コードを設定する。
+		 * 
+		 * @param charset 文字コード名
+		 */
+		public void setCharset(final String charset) {
+			this.charset = charset;
+		}
+
+		/**
+		 * ダイナミックSQLファイルの文字コードを取得する。
+		 * 
+		 * @return 文字コード名
+		 */
+		public String getCharset() {
+			return charset;
+		}
+
+		/**
+		 * フェッチサイズを設定する。
+		 * 
+		 * @param fetchSize フェッチサイズ
+		 */
+		public void setFetchSize(final String fetchSize) {
+			this.fetchSize = fetchSize;
+		}
+
+		/**
+		 * フェッチサイズを取得する。
+		 * 
+		 * @return フェッチサイズ
+		 */
+		public String getFetchSize() {
+			return fetchSize;
+		}
+
+		/**
+		 * 行マッパーのクラス名を設定する。
+		 * 
+		 * @param rowMapper クラス名({@link org.azkfw.dsql.executor.RowMapper}の実装クラス)
+		 */
+		public void setRowMapper(final String rowMapper) {
+			this.rowMapper = rowMapper;
+		}
+
+		/**
+		 * 行マッパーのクラス名を取得する。
+		 * 
+		 * @return クラス名
+		 */
+		public String getRowMapper() {
+			return rowMapper;
+		}
+
 		public boolean isEmpty() {
 			if (StringUtility.isNotEmpty(name)) {
 				return false;
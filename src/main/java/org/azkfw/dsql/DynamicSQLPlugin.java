@@ -19,11 +19,18 @@ package org.azkfw.dsql;
 
 import java.io.IOException;
 
+import org.azkfw.dsql.metrics.DynamicSQLMetrics;
 import org.azkfw.plugin.AbstractPlugin;
 import org.azkfw.plugin.PluginServiceException;
 
 /**
  * このクラスは、ダイナミックSQL機能をサポートするためのプラグインクラスです。
+ * <p>
+ * 初期化時に計測値のMXBean({@value DynamicSQLMetrics#OBJECT_NAME})を登録します。
+ * ダイナミックSQLごとの計測はデフォルトで無効です。システムプロパティ{@value #PROPERTY_METRICS}に<code>true</code>を指定するか、
+ * {@link #setMetricsEnabled(boolean)}で有効にします(MXBeanの<code>Enabled</code>属性から実行中に切り替えることもできます)。
+ * MXBeanを登録しない場合、システムプロパティ{@value #PROPERTY_METRICS_MXBEAN}に<code>false</code>を指定します。
+ * </p>
  * 
  * @since 1.0.0
  * @version 1.0.0 2013/02/05
@@ -31,19 +38,68 @@ import org.azkfw.plugin.PluginServiceException;
  */
 public final class DynamicSQLPlugin extends AbstractPlugin {
 
+	/**
+	 * 計測を有効にするシステムプロパティ名
+	 */
+	public static final String PROPERTY_METRICS = "org.azkfw.dsql.metrics";
+
+	/**
+	 * 計測値のMXBeanを登録するシステムプロパティ名
+	 */
+	public static final String PROPERTY_METRICS_MXBEAN = "org.azkfw.dsql.metrics.mxbean";
+
+	/**
+	 * 計測を有効にする場合、<code>true</code>
+	 */
+	private boolean metricsEnabled;
+
+	/**
+	 * 計測値のMXBeanを登録する場合、<code>true</code>
+	 */
+	private boolean metricsMXBean;
+
 	/**
 	 * コンストラクタ
 	 */
 	public DynamicSQLPlugin() {
+		metricsEnabled = Boolean.getBoolean(PROPERTY_METRICS);
+		metricsMXBean = !"false".equalsIgnoreCase(System.getProperty(PROPERTY_METRICS_MXBEAN));
+	}
+
+	/**
+	 * 初期化時に計測を有効にするか設定する。
+	 * 
+	 * @param enabled 有効にする場合、<code>true</code>
+	 */
+	public void setMetricsEnabled(final boolean enabled) {
+		metricsEnabled = enabled;
+	}
+
+	/**
+	 * 初期化時に計測値のMXBeanを登録するか設定する。
+	 * 
+	 * @param register 登録する場合、<code>true</code>
+	 */
+	public void setMetricsMXBean(final boolean register) {
+		metricsMXBean = register;
 	}
 
 	@Override
 	protected void doInitialize() throws PluginServiceException {
 		DynamicSQLManager.getInstance().initialize();
+		if (metricsEnabled) {
+			DynamicSQLMetrics.getInstance().setEnabled(true);
+		}
+		if (metricsMXBean) {
+			DynamicSQLMetrics.getInstance().register();
+		}
 	}
 
 	@Override
 	protected void doDestroy() throws PluginServiceException {
+		DynamicSQLMetrics.getInstance().unregister();
+		DynamicSQLMetrics.getInstance().setEnabled(false);
+		DynamicSQLMetrics.getInstance().clear();
 		DynamicSQLManager.getInstance().destroy();
 	}
 
@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.context.Context;
+import org.azkfw.lang.LoggingObject;
+import org.azkfw.util.StringUtility;
+
+/**
+ * このクラスは、ダイナミックSQLファイルの変更を監視し再ロードを行うクラスです。
+ * <p>
+ * ファイルシステム上に存在するファイルは{@link WatchService}でディレクトリを監視し、変更通知を受けたファイルのみ再ロードします。
+ * 監視できないファイル(jar内のリソース等)、および{@link WatchService}が利用できない環境では、確認間隔ごとにハッシュ値を比較します。
+ * この確認は変更通知の有無に関わらず確認間隔ごとに行います。
+ * </p>
+ * <p>
+ * 監視対象の登録は、マネージャーのスナップショットが差し替わった(ロード・再ロードが行われた)場合のみやり直します。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class DynamicSQLReloader extends LoggingObject implements Runnable {
+
+	/**
+	 * マネージャー
+	 */
+	private final DynamicSQLManager manager;
+
+	/**
+	 * 確認間隔(ミリ秒)
+	 */
+	private final long interval;
+
+	/**
+	 * 監視対象ファイルとダイナミックSQLファイルのマップ
+	 */
+	private final Map<Path, Set<String>> watchFiles;
+
+	/**
+	 * 監視中のディレクトリ
+	 */
+	private final Set<Path> watchDirectories;
+
+	/**
+	 * 監視できないダイナミックSQLファイル
+	 */
+	private Set<String> pollingFiles;
+
+	/**
+	 * 監視対象を登録した時点のスナップショット
+	 */
+	private Map<String, Map<String, StatementEntry>> registered;
+
+	/**
+	 * 監視サービス
+	 */
+	private WatchService watcher;
+
+	/**
+	 * 監視スレッド
+	 */
+	private Thread thread;
+
+	/**
+	 * 実行フラグ
+	 */
+	private volatile boolean running;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param manager マネージャー
+	 * @param interval 確認間隔(ミリ秒)
+	 */
+	DynamicSQLReloader(final DynamicSQLManager manager, final long interval) {
+		super(DynamicSQLReloader.class);
+		if (0 >= interval) {
+			throw new IllegalArgumentException(String.format("Invalid interval.[%d]", interval));
+		}
+		this.manager = manager;
+		this.interval = interval;
+		watchFiles = new HashMap<Path, Set<String>>();
+		watchDirectories = new HashSet<Path>();
+		pollingFiles = new HashSet<String>();
+	}
+
+	/**
+	 * 監視を開始する。
+	 */
+	void start() {
+		try {
+			watcher = FileSystems.getDefault().newWatchService();
+		} catch (IOException | UnsupportedOperationException ex) {
+			warn("WatchService is not available. Fall back to polling.");
+			watcher = null;
+		}
+		running = true;
+		thread = new Thread(this, "DynamicSQLReloader");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * 監視を停止する。
+	 */
+	void stop() {
+		running = false;
+		if (null != thread) {
+			thread.interrupt();
+		}
+		if (null != watcher) {
+			try {
+				watcher.close();
+			} catch (IOException ex) {
+				warn(ex.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public void run() {
+		long nextPoll = System.currentTimeMillis() + interval;
+		while (running) {
+			try {
+				Map<String, Map<String, StatementEntry>> snapshot = manager.snapshot();
+				if (snapshot != registered) {
+					register();
+					registered = snapshot;
+				}
+
+				long wait = Math.max(1L, nextPoll - System.currentTimeMillis());
+				WatchKey key = null;
+				if (null != watcher) {
+					key = watcher.poll(wait, TimeUnit.MILLISECONDS);
+				} else {
+					Thread.sleep(wait);
+				}
+
+				if (null != key) {
+					Set<String> files = changedFiles(key);
+					key.reset();
+					if (!files.isEmpty()) {
+						manager.reload(files);
+					}
+				}
+
+				// 変更通知の有無に関わらず、確認間隔ごとに監視できないファイルを確認する
+				long now = System.currentTimeMillis();
+				if (now >= nextPoll) {
+					nextPoll = now + interval;
+					if (!pollingFiles.isEmpty()) {
+						manager.reload(pollingFiles);
+					}
+				}
+			} catch (InterruptedException ex) {
+				break;
+			} catch (RuntimeException ex) {
+				if (!running) {
+					break;
+				}
+				error(ex);
+			}
+		}
+	}
+
+	/**
+	 * ロード済みのダイナミックSQLファイルを監視対象に登録する。
+	 */
+	private void register() {
+		Set<String> pollingFiles = new HashSet<String>();
+		watchFiles.clear();
+		for (Map.Entry<String, Context> entry : manager.getFiles().entrySet()) {
+			Path path = toPath(entry.getValue(), entry.getKey());
+			if (null == path || null == watcher || !watch(path.getParent())) {
+				pollingFiles.add(entry.getKey());
+				continue;
+			}
+			Set<String> files = watchFiles.get(path);
+			if (null == files) {
+				files = new HashSet<String>();
+				watchFiles.put(path, files);
+			}
+			files.add(entry.getKey());
+		}
+		this.pollingFiles = pollingFiles;
+	}
+
+	/**
+	 * ディレクトリを監視対象に登録する。
+	 * 
+	 * @param directory ディレクトリ
+	 * @return 監視中の場合、<code>true</code>を返す。
+	 */
+	private boolean watch(final Path directory) {
+		if (watchDirectories.contains(directory)) {
+			return true;
+		}
+		try {
+			directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			watchDirectories.add(directory);
+			return true;
+		} catch (IOException ex) {
+			warn(String.format("Directory can not watch.[%s]", directory));
+			return false;
+		}
+	}
+
+	/**
+	 * 変更通知より変更されたダイナミックSQLファイルを取得する。
+	 * 
+	 * @param key 監視キー
+	 * @return 変更されたダイナミックSQLファイル
+	 */
+	private Set<String> changedFiles(final WatchKey key) {
+		Set<String> files = new HashSet<String>();
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+				// 通知が欠落した場合は監視中の全ファイルを確認する
+				for (Set<String> buf : watchFiles.values()) {
+					files.addAll(buf);
+				}
+				continue;
+			}
+			Path path = directory.resolve((Path) event.context()).toAbsolutePath().normalize();
+			Set<String> buf = watchFiles.get(path);
+			if (null != buf) {
+				files.addAll(buf);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * ダイナミックSQLファイルのファイルシステム上のパスを取得する。
+	 * 
+	 * @param context コンテキスト情報
+	 * @param file ダイナミックSQLファイル
+	 * @return パス。ファイルシステム上に存在しない場合、<code>null</code>を返す。
+	 */
+	private static Path toPath(final Context context, final String file) {
+		String path = context.getAbstractPath(file);
+		if (StringUtility.isEmpty(path)) {
+			return null;
+		}
+		File f = new File(path);
+		if (!f.isFile()) {
+			return null;
+		}
+		return f.toPath().toAbsolutePath().normalize();
+	}
+}
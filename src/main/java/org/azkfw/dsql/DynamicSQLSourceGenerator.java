@@ -0,0 +1,436 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.azkfw.context.Context;
+import org.azkfw.dsql.entity.DSQLCatalog;
+import org.azkfw.dsql.entity.DSQLEntity;
+import org.azkfw.dsql.entity.DSQLPlan;
+import org.azkfw.dsql.entity.ParameterLayout;
+import org.azkfw.lang.LoggingObject;
+import org.azkfw.util.StringUtility;
+
+/**
+ * このクラスは、ダイナミックSQLファイルより型付きのステートメントクラスのソースを生成するクラスです。
+ * <p>
+ * ダイナミックSQLごとにパラメータ・グループ単位の設定メソッドと、SQL断片を直接連結する<code>build</code>メソッドを持つクラスを生成します。
+ * 生成したクラスは実行時にダイナミックSQLファイルの解析およびパラメータの検索を行いません。
+ * パラメータ名・グループ名の誤りは生成クラスを利用するコードのコンパイル時に検出されます。
+ * </p>
+ * 
+ * <pre>
+ * java org.azkfw.dsql.DynamicSQLSourceGenerator &lt;設定ファイル&gt; &lt;出力ディレクトリ&gt; &lt;パッケージ名&gt; [基準ディレクトリ]
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DynamicSQLSourceGenerator extends LoggingObject {
+
+	/**
+	 * 生成クラス名の接尾辞
+	 */
+	private static final String CLASS_SUFFIX = "SQL";
+
+	/**
+	 * コンストラクタ
+	 */
+	public DynamicSQLSourceGenerator() {
+		super(DynamicSQLSourceGenerator.class);
+	}
+
+	/**
+	 * 設定ファイルが参照するダイナミックSQLのソースを生成する。
+	 * 
+	 * @param config 設定ファイル
+	 * @param context コンテキスト情報
+	 * @param packageName パッケージ名
+	 * @param outputDirectory 出力ディレクトリ
+	 * @throws IOException IO操作時に問題が発生した場合、またはソースが生成できない場合
+	 */
+	public void generate(final String config, final Context context, final String packageName, final File outputDirectory) throws IOException {
+		DSQLCatalog catalog = new DynamicSQLCatalogCompiler().compile(config, context);
+
+		File directory = outputDirectory;
+		if (StringUtility.isNotEmpty(packageName)) {
+			directory = new File(outputDirectory, packageName.replace('.', File.separatorChar));
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException(String.format("Directory can not create.[%s]", directory));
+		}
+
+		Set<String> classNames = new HashSet<String>();
+		for (DSQLCatalog.Statement statement : catalog.getStatements()) {
+			String className = getClassName(statement.getName());
+			if (!classNames.add(className)) {
+				String msg = String.format("Duplicate generated class.[name:%s, class:%s]", statement.getName(), className);
+				error(msg);
+				throw new IOException(msg);
+			}
+
+			String source = generate(statement.getEntity(), statement.getInListBuckets(), statement.getInListPadding(), packageName);
+			Writer writer = new OutputStreamWriter(new FileOutputStream(new File(directory, className + ".java")), "UTF-8");
+			try {
+				writer.write(source);
+			} finally {
+				writer.close();
+			}
+			info(String.format("DynamicSQL source generated.[name:%s, class:%s]", statement.getName(), className));
+		}
+	}
+
+	/**
+	 * ダイナミックSQLのソースを生成する。
+	 * 
+	 * @param entity ダイナミックSQLエンティティ
+	 * @param packageName パッケージ名
+	 * @return ソース
+	 * @throws IOException パラメータ名・グループ名より生成したメソッド名が重複する場合
+	 */
+	public String generate(final DSQLEntity entity, final String packageName) throws IOException {
+		return generate(entity, null, null, packageName);
+	}
+
+	/**
+	 * ダイナミックSQLのソースを生成する。
+	 * <p>
+	 * リスト展開数の段階化を指定した場合、生成クラスは{@link DynamicSQLManager}と同じ段階化で展開する。
+	 * 未指定の場合、{@link DynamicSQLBuilder#setInListBucketing(InListBucketing)}の設定に従う。
+	 * </p>
+	 * 
+	 * @param entity ダイナミックSQLエンティティ
+	 * @param inListBuckets リスト展開数の段階(<code>inListBuckets</code>属性)
+	 * @param inListPadding リスト展開時の補完方法(<code>inListPadding</code>属性)
+	 * @param packageName パッケージ名
+	 * @return ソース
+	 * @throws IOException パラメータ名・グループ名より生成したメソッド名が重複する場合、または段階化の指定が不正な場合
+	 */
+	public String generate(final DSQLEntity entity, final String inListBuckets, final String inListPadding, final String packageName)
+			throws IOException {
+		boolean bucketing = StringUtility.isNotEmpty(inListBuckets);
+		if (bucketing) {
+			try {
+				InListBucketing.parse(inListBuckets, inListPadding);
+			} catch (IllegalArgumentException ex) {
+				String msg = String.format("Invalid inListBuckets.[name:%s, inListBuckets:%s, inListPadding:%s]", entity.getName(), inListBuckets,
+						inListPadding);
+				error(msg);
+				throw new IOException(msg, ex);
+			}
+		}
+
+		String className = getClassName(entity.getName());
+		DSQLPlan plan = entity.getPlan();
+		ParameterLayout layout = plan.getParameterLayout();
+
+		// グループ(出現順)
+		Map<String, Integer> groups = new LinkedHashMap<String, Integer>();
+		for (String group : plan.getGroups()) {
+			if (null != group && !groups.containsKey(group)) {
+				groups.put(group, Integer.valueOf(groups.size()));
+			}
+		}
+
+		Set<String> methods = new HashSet<String>();
+		StringBuilder s = new StringBuilder();
+		s.append("/*\n");
+		s.append(" * このファイルは DynamicSQLSourceGenerator により生成されました。編集しないでください。\n");
+		s.append(" */\n");
+		if (StringUtility.isNotEmpty(packageName)) {
+			s.append("package ").append(packageName).append(";\n\n");
+		}
+		s.append("import java.util.ArrayList;\n");
+		s.append("import java.util.List;\n\n");
+		s.append("import org.azkfw.dsql.DynamicSQL;\n");
+		s.append("import org.azkfw.dsql.DynamicSQLBuilder;\n");
+		if (bucketing) {
+			s.append("import org.azkfw.dsql.InListBucketing;\n");
+		}
+		s.append("\n");
+		s.append("/**\n");
+		s.append(" * このクラスは、ダイナミックSQL[").append(comment(entity.getName())).append("]を生成するクラスです。\n");
+		s.append(" */\n");
+		s.append("public final class ").append(className).append(" {\n\n");
+		s.append("\t/**\n\t * ダイナミックSQL名\n\t */\n");
+		s.append("\tpublic static final String NAME = ").append(literal(entity.getName())).append(";\n");
+		if (bucketing) {
+			s.append("\n\t/**\n\t * リスト展開数の段階化\n\t */\n");
+			s.append("\tprivate static final InListBucketing BUCKETING = InListBucketing.parse(").append(literal(inListBuckets)).append(", ");
+			s.append((null == inListPadding) ? "null" : literal(inListPadding)).append(");\n");
+		}
+
+		for (int slot = 0; slot < layout.size(); slot++) {
+			s.append("\n\t/**\n\t * パラメータ[").append(comment(layout.getName(slot))).append("]\n\t */\n");
+			s.append("\tprivate Object p").append(slot).append(";\n\n");
+			s.append("\t/**\n\t * パラメータ[").append(comment(layout.getName(slot))).append("]の設定有無\n\t */\n");
+			s.append("\tprivate boolean p").append(slot).append("Set;\n");
+		}
+		for (Map.Entry<String, Integer> group : groups.entrySet()) {
+			s.append("\n\t/**\n\t * グループ[").append(comment(group.getKey())).append("]\n\t */\n");
+			s.append("\tprivate boolean g").append(group.getValue()).append(";\n");
+		}
+
+		for (int slot = 0; slot < layout.size(); slot++) {
+			String method = "set" + toIdentifier(layout.getName(slot));
+			checkMethod(entity, methods, method);
+			s.append("\n\t/**\n\t * パラメータ[").append(comment(layout.getName(slot))).append("]を設定する。\n\t * \n");
+			s.append("\t * @param value 値(リストの場合、バインド記号を要素数分展開する)\n\t * @return 本インスタンス\n\t */\n");
+			s.append("\tpublic ").append(className).append(" ").append(method).append("(final Object value) {\n");
+			s.append("\t\tp").append(slot).append(" = value;\n");
+			s.append("\t\tp").append(slot).append("Set = true;\n");
+			s.append("\t\treturn this;\n\t}\n");
+		}
+		for (Map.Entry<String, Integer> group : groups.entrySet()) {
+			String method = "group" + toIdentifier(group.getKey());
+			checkMethod(entity, methods, method);
+			s.append("\n\t/**\n\t * グループ[").append(comment(group.getKey())).append("]を設定する。\n\t * \n");
+			s.append("\t * @param enable 有効にする場合、<code>true</code>\n\t * @return 本インスタンス\n\t */\n");
+			s.append("\tpublic ").append(className).append(" ").append(method).append("(final boolean enable) {\n");
+			s.append("\t\tg").append(group.getValue()).append(" = enable;\n");
+			s.append("\t\treturn this;\n\t}\n");
+		}
+
+		s.append("\n\t/**\n\t * ダイナミックSQLを生成する。\n\t * \n\t * @return ダイナミックSQL\n\t */\n");
+		s.append("\tpublic DynamicSQL build() {\n\t\treturn build(\"\");\n\t}\n");
+
+		s.append("\n\t/**\n\t * ダイナミックSQLを生成する。\n\t * \n\t * @param namespace 名前空間\n\t * @return ダイナミックSQL\n\t */\n");
+		s.append("\tpublic DynamicSQL build(final String namespace) {\n");
+		s.append("\t\tStringBuilder e = new StringBuilder(").append(length(plan.getExecuteSQLs())).append(");\n");
+		s.append("\t\tStringBuilder f = new StringBuilder(").append(length(plan.getFormatSQLs())).append(");\n");
+		s.append("\t\tList<Object> params = new ArrayList<Object>();\n");
+		if (0 < layout.size()) {
+			s.append("\t\tint n;\n");
+		}
+		byte[] operations = plan.getOperations();
+		for (int i = 0; i < plan.size(); i++) {
+			byte operation = operations[i];
+			String executeSQL = plan.getExecuteSQLs()[i];
+			String formatSQL = plan.getFormatSQLs()[i];
+
+			StringBuilder condition = new StringBuilder();
+			if (0 != (operation & DSQLPlan.OP_GROUP)) {
+				condition.append("g").append(groups.get(plan.getGroups()[i]));
+			}
+			int slot = plan.getParameterSlots()[i];
+			if (0 != (operation & DSQLPlan.OP_PARAMETER)) {
+				if (0 < condition.length()) {
+					condition.append(" && ");
+				}
+				condition.append("p").append(slot).append("Set");
+			}
+
+			String indent = "\t\t";
+			s.append("\n");
+			if (0 < condition.length()) {
+				s.append(indent).append("if (").append(condition).append(") {\n");
+				indent = "\t\t\t";
+			}
+			if (0 != (operation & DSQLPlan.OP_PARAMETER)) {
+				boolean expand = 0 != (operation & DSQLPlan.OP_EXPAND);
+				s.append(indent).append("n = DynamicSQLBuilder.bind(params, p").append(slot).append(", ").append(expand);
+				s.append(bucketing ? ", BUCKETING);\n" : ");\n");
+			}
+			s.append(indent).append("if (0 < e.length()) {\n");
+			s.append(indent).append("\te.append(' ');\n");
+			s.append(indent).append("\tf.append('\\n');\n");
+			s.append(indent).append("}\n");
+			if (0 != (operation & DSQLPlan.OP_EXPAND)) {
+				s.append(indent).append("if (0 <= n) {\n");
+				appendExpand(s, indent + "\t", "e", executeSQL, plan.getExecuteBindIndexes()[i]);
+				appendExpand(s, indent + "\t", "f", formatSQL, plan.getFormatBindIndexes()[i]);
+				s.append(indent).append("} else {\n");
+				s.append(indent).append("\te.append(").append(literal(executeSQL)).append(");\n");
+				s.append(indent).append("\tf.append(").append(literal(formatSQL)).append(");\n");
+				s.append(indent).append("}\n");
+			} else {
+				s.append(indent).append("e.append(").append(literal(executeSQL)).append(");\n");
+				s.append(indent).append("f.append(").append(literal(formatSQL)).append(");\n");
+			}
+			if (0 < condition.length()) {
+				s.append("\t\t}\n");
+			}
+		}
+		s.append("\n\t\treturn DynamicSQLBuilder.create(namespace, NAME, e.toString(), f.toString(), params);\n");
+		s.append("\t}\n");
+		s.append("}\n");
+		return s.toString();
+	}
+
+	/**
+	 * ダイナミックSQL名より生成クラス名を取得する。
+	 * 
+	 * @param name ダイナミックSQL名
+	 * @return クラス名
+	 */
+	public static String getClassName(final String name) {
+		return toIdentifier(name) + CLASS_SUFFIX;
+	}
+
+	/**
+	 * ソースを生成する。
+	 * 
+	 * @param args 設定ファイル、出力ディレクトリ、パッケージ名、基準ディレクトリ(省略時はカレントディレクトリ)
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (3 > args.length) {
+			System.err.println("Usage: DynamicSQLSourceGenerator <config> <outputDirectory> <package> [baseDirectory]");
+			System.exit(1);
+		}
+		File base = new File((3 < args.length) ? args[3] : ".");
+		new DynamicSQLSourceGenerator().generate(args[0], new FileContext(base), args[2], new File(args[1]));
+	}
+
+	/**
+	 * メソッド名の重複を確認する。
+	 * 
+	 * @param entity ダイナミックSQLエンティティ
+	 * @param methods 生成済みのメソッド名
+	 * @param method メソッド名
+	 * @throws IOException メソッド名が重複する場合
+	 */
+	private void checkMethod(final DSQLEntity entity, final Set<String> methods, final String method) throws IOException {
+		if (!methods.add(method)) {
+			String msg = String.format("Duplicate generated method.[name:%s, method:%s]", entity.getName(), method);
+			error(msg);
+			throw new IOException(msg);
+		}
+	}
+
+	/**
+	 * バインド記号を展開してSQL断片を追加するソースを出力する。
+	 * 
+	 * @param s 出力先
+	 * @param indent インデント
+	 * @param variable 追加先の変数名
+	 * @param sql SQL断片
+	 * @param indexes バインド位置
+	 */
+	private static void appendExpand(final StringBuilder s, final String indent, final String variable, final String sql, final int[] indexes) {
+		int offset = 0;
+		for (int index : indexes) {
+			if (offset < index) {
+				s.append(indent).append(variable).append(".append(").append(literal(sql.substring(offset, index))).append(");\n");
+			}
+			s.append(indent).append("DynamicSQLBuilder.appendBinds(").append(variable).append(", n);\n");
+			offset = index + 1;
+		}
+		if (offset < sql.length()) {
+			s.append(indent).append(variable).append(".append(").append(literal(sql.substring(offset))).append(");\n");
+		}
+	}
+
+	/**
+	 * SQL断片の合計長を取得する。
+	 * 
+	 * @param sqls SQL断片
+	 * @return 合計長(区切り文字を含む)
+	 */
+	private static int length(final String[] sqls) {
+		int length = 0;
+		for (String sql : sqls) {
+			length += sql.length() + 1;
+		}
+		return length;
+	}
+
+	/**
+	 * 名前よりJavaの識別子を生成する。
+	 * <p>
+	 * 先頭を大文字とし、識別子に使用できない文字は<code>_</code>に置き換える。
+	 * </p>
+	 * 
+	 * @param name 名前
+	 * @return 識別子
+	 */
+	private static String toIdentifier(final String name) {
+		StringBuilder s = new StringBuilder(name.length() + 1);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			s.append(Character.isJavaIdentifierPart(c) ? c : '_');
+		}
+		if (0 == s.length() || !Character.isJavaIdentifierStart(s.charAt(0))) {
+			s.insert(0, '_');
+		}
+		s.setCharAt(0, Character.toUpperCase(s.charAt(0)));
+		return s.toString();
+	}
+
+	/**
+	 * 文字列をJavaの文字列リテラルに変換する。
+	 * 
+	 * @param string 文字列
+	 * @return 文字列リテラル
+	 */
+	private static String literal(final String string) {
+		StringBuilder s = new StringBuilder(string.length() + 2);
+		s.append('"');
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			switch (c) {
+			case '"':
+				s.append("\\\"");
+				break;
+			case '\\':
+				s.append("\\\\");
+				break;
+			case '\n':
+				s.append("\\n");
+				break;
+			case '\r':
+				s.append("\\r");
+				break;
+			case '\t':
+				s.append("\\t");
+				break;
+			default:
+				if (0x20 > c) {
+					s.append(String.format("\\%03o", (int) c));
+				} else if (0x7e < c) {
+					s.append(String.format("\\u%04x", (int) c));
+				} else {
+					s.append(c);
+				}
+				break;
+			}
+		}
+		s.append('"');
+		return s.toString();
+	}
+
+	/**
+	 * 文字列をコメント用に変換する。
+	 * 
+	 * @param string 文字列
+	 * @return 文字列
+	 */
+	private static String comment(final String string) {
+		return string.replace("*/", "* /").replace("\\u", "\\\\u").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.azkfw.context.Context;
+
+/**
+ * このクラスは、基準ディレクトリ配下のファイルを参照するコンテキストクラスです。
+ * <p>
+ * ビルド時に実行するツールおよびディレクトリ指定のロードで使用します。
+ * 基準ディレクトリはjarファイル等のファイルシステム上のパスも指定できます。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class FileContext implements Context {
+
+	/**
+	 * 基準ディレクトリ
+	 */
+	private final Path base;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param base 基準ディレクトリ
+	 */
+	FileContext(final File base) {
+		this(base.toPath());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param base 基準ディレクトリ
+	 */
+	FileContext(final Path base) {
+		this.base = base;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * 基準ディレクトリがデフォルトのファイルシステム以外の場合、<code>null</code>を返す。
+	 * </p>
+	 */
+	@Override
+	public String getAbstractPath(final String name) {
+		if (FileSystems.getDefault() != base.getFileSystem()) {
+			return null;
+		}
+		return base.resolve(name).toAbsolutePath().toString();
+	}
+
+	@Override
+	public InputStream getResourceAsStream(final String name) {
+		Path path = base.resolve(name);
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+		try {
+			return Files.newInputStream(path);
+		} catch (IOException ex) {
+			return null;
+		}
+	}
+}
@@ -17,29 +17,41 @@
  */
 package org.azkfw.dsql;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.azkfw.dsql.entity.DSQLGroupIndex;
+
 /**
  * このクラスは、DynamicSQLグループ情報を保持するクラスです。
+ * <p>
+ * グループは{@link DSQLGroupIndex}で割り当てたインデックスのビットマスクとして保持します。
+ * インデックスが未割り当て(解析済みのダイナミックSQLが参照していない)のグループは名前で保持し、インデックスを割り当てません。
+ * </p>
  * 
  * @since 1.0.0
- * @version 1.0.0 2013/02/14
+ * @version 1.7.0 2026/10/17
  * @author Kawakicchi
  */
 public final class Group {
 
 	/**
-	 * group set
+	 * group bit mask
 	 */
-	private Set<String> groups;
+	private long[] masks;
+
+	/**
+	 * インデックス未割り当てのグループ名
+	 */
+	private Set<String> names;
 
 	/**
 	 * コンストラクタ
 	 */
 	public Group() {
-		groups = new HashSet<String>();
+		masks = new long[1];
 	}
 
 	/**
@@ -48,9 +60,9 @@ public final class Group {
 	 * @param groups グループ配列
 	 */
 	public Group(final String... groups) {
-		this.groups = new HashSet<String>();
+		masks = new long[1];
 		for (String group : groups) {
-			this.groups.add(group);
+			add(group);
 		}
 	}
 
@@ -60,9 +72,9 @@ public final class Group {
 	 * @param groups グループリスト
 	 */
 	public Group(final List<String> groups) {
-		this.groups = new HashSet<String>();
+		masks = new long[1];
 		for (String group : groups) {
-			this.groups.add(group);
+			add(group);
 		}
 	}
 
@@ -72,18 +84,37 @@ public final class Group {
 	 * @param group グループ情報
 	 */
 	public Group(final Group group) {
-		for (String g : group.groups) {
-			this.groups.add(g);
+		masks = Arrays.copyOf(group.masks, group.masks.length);
+		if (null != group.names) {
+			names = new HashSet<String>(group.names);
 		}
 	}
 
 	/**
 	 * グループを追加する。
+	 * <p>
+	 * <code>null</code>の場合、何もしない。
+	 * </p>
 	 * 
 	 * @param group グループ
 	 */
 	public void add(final String group) {
-		groups.add(group);
+		if (null == group) {
+			return;
+		}
+		int index = DSQLGroupIndex.find(group);
+		if (-1 == index) {
+			if (null == names) {
+				names = new HashSet<String>();
+			}
+			names.add(group);
+			return;
+		}
+		int word = index >>> 6;
+		if (masks.length <= word) {
+			masks = Arrays.copyOf(masks, word + 1);
+		}
+		masks[word] |= 1L << index;
 	}
 
 	/**
@@ -93,7 +124,26 @@ public final class Group {
 	 * @return グループが存在する場合、<code>true</code>を返す。
 	 */
 	public boolean is(final String group) {
-		return groups.contains(group);
+		int index = DSQLGroupIndex.find(group);
+		if (-1 == index) {
+			return null != names && null != group && names.contains(group);
+		}
+		return is(index);
+	}
+
+	/**
+	 * グループが存在するか判断する。
+	 * 
+	 * @param index グループインデックス
+	 * @return グループが存在する場合、<code>true</code>を返す。
+	 */
+	public boolean is(final int index) {
+		int word = index >>> 6;
+		if (masks.length > word && 0L != (masks[word] & (1L << index))) {
+			return true;
+		}
+		// 追加後にインデックスが割り当てられたグループ
+		return null != names && names.contains(DSQLGroupIndex.nameOf(index));
 	}
 
 	/**
@@ -102,13 +152,24 @@ public final class Group {
 	 * @param group グループ
 	 */
 	public void remove(final String group) {
-		groups.remove(group);
+		if (null != names) {
+			names.remove(group);
+		}
+		int index = DSQLGroupIndex.find(group);
+		if (-1 == index) {
+			return;
+		}
+		int word = index >>> 6;
+		if (masks.length > word) {
+			masks[word] &= ~(1L << index);
+		}
 	}
 
 	/**
 	 * グループをクリアする。
 	 */
 	public void clear() {
-		groups.clear();
+		Arrays.fill(masks, 0L);
+		names = null;
 	}
 }
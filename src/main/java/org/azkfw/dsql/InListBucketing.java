@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.util.Arrays;
+
+import org.azkfw.util.StringUtility;
+
+/**
+ * このクラスは、リストパラメータの展開数を段階化するクラスです。
+ * <p>
+ * リストの要素数を指定の段階(例: 1, 4, 16, 64, 256)まで切り上げて展開し、不足分は最終要素または<code>null</code>で補完します。
+ * 要素数ごとに異なるSQLが生成されることを防ぎ、データベースおよびドライバのステートメントキャッシュを有効に利用できます。
+ * 段階化しないインスタンス({@link #none()})を指定すると、全体の段階化を使用せず要素数どおりに展開します。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class InListBucketing {
+
+	/**
+	 * 補完方法
+	 */
+	public static enum Padding {
+		/** 最終要素で補完 */
+		LAST,
+		/** <code>null</code>で補完 */
+		NULL
+	}
+
+	/**
+	 * 2のべき乗を表す段階指定
+	 */
+	private static final String SPEC_POWER_OF_TWO = "pow2";
+
+	/**
+	 * 段階化しないことを表す段階指定
+	 */
+	private static final String SPEC_NONE = "none";
+
+	/**
+	 * 段階化しないインスタンス
+	 */
+	private static final InListBucketing NONE = new InListBucketing(new int[0], Padding.LAST);
+
+	/**
+	 * 段階(昇順)。<code>null</code>の場合、2のべき乗。空の場合、段階化しない
+	 */
+	private final int[] sizes;
+
+	/**
+	 * 補完方法
+	 */
+	private final Padding padding;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param sizes 段階
+	 * @param padding 補完方法
+	 */
+	private InListBucketing(final int[] sizes, final Padding padding) {
+		this.sizes = sizes;
+		this.padding = padding;
+	}
+
+	/**
+	 * 2のべき乗で段階化するインスタンスを取得する。
+	 * 
+	 * @param padding 補完方法
+	 * @return インスタンス
+	 */
+	public static InListBucketing powerOfTwo(final Padding padding) {
+		return new InListBucketing(null, padding);
+	}
+
+	/**
+	 * 段階化しないインスタンスを取得する。
+	 * <p>
+	 * ダイナミックSQLごとに指定すると、{@link DynamicSQLBuilder#setInListBucketing(InListBucketing)}の設定を使用せず要素数どおりに展開する。
+	 * </p>
+	 * 
+	 * @return インスタンス
+	 */
+	public static InListBucketing none() {
+		return NONE;
+	}
+
+	/**
+	 * 指定の段階で段階化するインスタンスを取得する。
+	 * <p>
+	 * 最大の段階を超える要素数は、最大の段階の倍数に切り上げる。
+	 * </p>
+	 * 
+	 * @param padding 補完方法
+	 * @param sizes 段階
+	 * @return インスタンス
+	 */
+	public static InListBucketing of(final Padding padding, final int... sizes) {
+		if (0 == sizes.length) {
+			throw new IllegalArgumentException("Bucket sizes is empty.");
+		}
+		int[] buf = Arrays.copyOf(sizes, sizes.length);
+		Arrays.sort(buf);
+		if (0 >= buf[0]) {
+			throw new IllegalArgumentException(String.format("Invalid bucket size.[%d]", buf[0]));
+		}
+		return new InListBucketing(buf, padding);
+	}
+
+	/**
+	 * 文字列表現よりインスタンスを取得する。
+	 * 
+	 * @param spec 段階(<code>pow2</code>:2のべき乗、<code>none</code>:段階化しない、またはカンマ区切りの要素数)
+	 * @param padding 補完方法(<code>last</code>または<code>null</code>)。未指定の場合、<code>last</code>。<code>none</code>の場合は無視する。
+	 * @return インスタンス。段階が未指定の場合、<code>null</code>を返す。
+	 * @throws IllegalArgumentException 文字列表現が不正な場合
+	 */
+	public static InListBucketing parse(final String spec, final String padding) {
+		if (StringUtility.isEmpty(spec)) {
+			return null;
+		}
+		if (SPEC_NONE.equalsIgnoreCase(spec.trim())) {
+			return NONE;
+		}
+		Padding pad = Padding.LAST;
+		if (StringUtility.isNotEmpty(padding)) {
+			pad = Padding.valueOf(padding.trim().toUpperCase());
+		}
+		if (SPEC_POWER_OF_TWO.equalsIgnoreCase(spec.trim())) {
+			return powerOfTwo(pad);
+		}
+		String[] tokens = spec.split(",");
+		int[] sizes = new int[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			sizes[i] = Integer.parseInt(tokens[i].trim());
+		}
+		return of(pad, sizes);
+	}
+
+	/**
+	 * 補完方法を取得する。
+	 * 
+	 * @return 補完方法
+	 */
+	public Padding getPadding() {
+		return padding;
+	}
+
+	/**
+	 * 要素数を段階に切り上げる。
+	 * 
+	 * @param size 要素数
+	 * @return 展開数。要素数が<code>0</code>の場合、<code>0</code>を返す。
+	 */
+	public int bucket(final int size) {
+		if (0 >= size || this == NONE) {
+			return size;
+		}
+		if (null == sizes) {
+			int bucket = Integer.highestOneBit(size);
+			if (bucket != size && 0 < (bucket << 1)) {
+				bucket <<= 1;
+			}
+			return bucket;
+		}
+		for (int bucket : sizes) {
+			if (size <= bucket) {
+				return bucket;
+			}
+		}
+		int max = sizes[sizes.length - 1];
+		return ((size + max - 1) / max) * max;
+	}
+
+	/**
+	 * 補完用の値を取得する。
+	 * 
+	 * @param last 最終要素
+	 * @return 補完用の値
+	 */
+	Object pad(final Object last) {
+		if (Padding.NULL == padding) {
+			return null;
+		}
+		return last;
+	}
+}
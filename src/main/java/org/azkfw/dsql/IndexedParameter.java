@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.util.Arrays;
+
+import org.azkfw.dsql.entity.ParameterLayout;
+
+/**
+ * このクラスは、スロット配列でDynamicSQLパラメータ情報を保持するクラスです。
+ * <p>
+ * {@link ParameterLayout#indexOf(String)}で事前に取得したスロットを使用して値を設定することで、ビルド時のハッシュ検索を不要にします。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class IndexedParameter {
+
+	/**
+	 * 未設定を表す値
+	 */
+	static final Object UNSET = new Object();
+
+	/**
+	 * パラメータ配置情報
+	 */
+	private final ParameterLayout layout;
+
+	/**
+	 * スロットごとの値
+	 */
+	private final Object[] values;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param layout パラメータ配置情報
+	 */
+	public IndexedParameter(final ParameterLayout layout) {
+		this.layout = layout;
+		values = new Object[layout.size()];
+		Arrays.fill(values, UNSET);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param parameter パラメータ
+	 */
+	public IndexedParameter(final IndexedParameter parameter) {
+		layout = parameter.layout;
+		values = Arrays.copyOf(parameter.values, parameter.values.length);
+	}
+
+	/**
+	 * パラメータ配置情報を取得する。
+	 * 
+	 * @return パラメータ配置情報
+	 */
+	public ParameterLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * パラメータが存在するか判断する。
+	 * 
+	 * @param slot スロット
+	 * @return パラメータが存在する場合、<code>true</code>を返す。
+	 */
+	public boolean isSet(final int slot) {
+		return UNSET != values[slot];
+	}
+
+	/**
+	 * パラメータを設定する。
+	 * 
+	 * @param slot スロット
+	 * @param value 値
+	 */
+	public void set(final int slot, final Object value) {
+		values[slot] = value;
+	}
+
+	/**
+	 * パラメータを設定する。
+	 * <p>
+	 * ダイナミックSQLが参照しないキーの場合、何もしない。
+	 * </p>
+	 * 
+	 * @param key キー
+	 * @param value 値
+	 */
+	public void put(final String key, final Object value) {
+		int slot = layout.indexOf(key);
+		if (-1 != slot) {
+			values[slot] = value;
+		}
+	}
+
+	/**
+	 * パラメータを取得する。
+	 * 
+	 * @param slot スロット
+	 * @return 値。未設定の場合、<code>null</code>を返す。
+	 */
+	public Object get(final int slot) {
+		Object value = values[slot];
+		if (UNSET == value) {
+			return null;
+		}
+		return value;
+	}
+
+	/**
+	 * パラメータを削除する。
+	 * 
+	 * @param slot スロット
+	 */
+	public void remove(final int slot) {
+		values[slot] = UNSET;
+	}
+
+	/**
+	 * パラメータをクリアする。
+	 */
+	public void clear() {
+		Arrays.fill(values, UNSET);
+	}
+
+	/**
+	 * スロットごとの値を取得する。
+	 * 
+	 * @return 値配列。未設定のスロットは{@link #UNSET}となる。
+	 */
+	Object[] values() {
+		return values;
+	}
+}
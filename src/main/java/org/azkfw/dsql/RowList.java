@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * このクラスは、複数行のパラメータ(行リスト)を保持するクラスです。
+ * <p>
+ * バインド記号を含む行のパラメータに指定すると、バインド記号を囲む括弧の範囲を行数分繰り返して展開します。
+ * 1行の列数は括弧内のバインド記号の数と一致させてください(一致しない場合、生成時に{@link IllegalArgumentException}をスローします)。
+ * </p>
+ * 
+ * <pre>
+ *                 INSERT INTO customer ( id, name )
+ *                 VALUES
+ * ${rows}             ( ?, ? )
+ * </pre>
+ * <p>
+ * 3行を指定した場合、<code>VALUES ( ?, ? ), ( ?, ? ), ( ?, ? )</code>に展開します。
+ * 型付きのクラス({@link DynamicSQLSourceGenerator})では未対応です。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class RowList {
+
+	/**
+	 * 列数
+	 */
+	private final int columnCount;
+
+	/**
+	 * 行リスト
+	 */
+	private final List<Object[]> rows;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param columnCount 列数
+	 */
+	public RowList(final int columnCount) {
+		if (0 >= columnCount) {
+			throw new IllegalArgumentException(String.format("Invalid column count.[%d]", columnCount));
+		}
+		this.columnCount = columnCount;
+		this.rows = new ArrayList<Object[]>();
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * 行リストは複製して保持する(以降の行リストへの変更は反映しない)。
+	 * </p>
+	 * 
+	 * @param columnCount 列数
+	 * @param rows 行リスト
+	 */
+	public RowList(final int columnCount, final List<Object[]> rows) {
+		if (0 >= columnCount) {
+			throw new IllegalArgumentException(String.format("Invalid column count.[%d]", columnCount));
+		}
+		List<Object[]> copy = new ArrayList<Object[]>(rows);
+		for (Object[] row : copy) {
+			check(columnCount, row);
+		}
+		this.columnCount = columnCount;
+		this.rows = copy;
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param columnCount 列数
+	 * @param rows 行リスト(検証済み)
+	 * @param dummy 検証を行わないコンストラクタとの区別
+	 */
+	private RowList(final int columnCount, final List<Object[]> rows, final boolean dummy) {
+		this.columnCount = columnCount;
+		this.rows = rows;
+	}
+
+	/**
+	 * 行を追加する。
+	 * 
+	 * @param row 行
+	 * @return 本インスタンス
+	 */
+	public RowList add(final Object... row) {
+		check(columnCount, row);
+		rows.add(row);
+		return this;
+	}
+
+	/**
+	 * 列数を取得する。
+	 * 
+	 * @return 列数
+	 */
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * 行数を取得する。
+	 * 
+	 * @return 行数
+	 */
+	public int size() {
+		return rows.size();
+	}
+
+	/**
+	 * 行を取得する。
+	 * 
+	 * @param index インデックス
+	 * @return 行
+	 */
+	public Object[] get(final int index) {
+		return rows.get(index);
+	}
+
+	/**
+	 * 範囲内の行を参照する行リストを取得する。
+	 * 
+	 * @param fromIndex 開始インデックス
+	 * @param toIndex 終了インデックス(含まない)
+	 * @return 行リスト
+	 */
+	public RowList subList(final int fromIndex, final int toIndex) {
+		return new RowList(columnCount, rows.subList(fromIndex, toIndex), true);
+	}
+
+	/**
+	 * 行の列数を検証する。
+	 * 
+	 * @param columnCount 列数
+	 * @param row 行
+	 */
+	private static void check(final int columnCount, final Object[] row) {
+		if (null == row || columnCount != row.length) {
+			throw new IllegalArgumentException(String.format("Invalid row size.[expected:%d, actual:%d]", columnCount, (null == row) ? 0
+					: row.length));
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import org.azkfw.util.StringUtility;
+
+/**
+ * このクラスは、ダイナミックSQLごとの実行属性(フェッチサイズ、行マッパー)を保持するクラスです。
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class StatementAttributes {
+
+	/**
+	 * 未指定の実行属性
+	 */
+	static final StatementAttributes DEFAULT = new StatementAttributes(0, null);
+
+	/**
+	 * フェッチサイズ。<code>0</code>の場合、ドライバのデフォルト
+	 */
+	private final int fetchSize;
+
+	/**
+	 * 行マッパーのクラス名
+	 */
+	private final String rowMapper;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param fetchSize フェッチサイズ
+	 * @param rowMapper 行マッパーのクラス名
+	 */
+	private StatementAttributes(final int fetchSize, final String rowMapper) {
+		this.fetchSize = fetchSize;
+		this.rowMapper = rowMapper;
+	}
+
+	/**
+	 * 設定値を解析する。
+	 * 
+	 * @param fetchSize フェッチサイズ
+	 * @param rowMapper 行マッパーのクラス名
+	 * @return 実行属性。いずれも未指定の場合、{@link #DEFAULT}
+	 * @throws IllegalArgumentException フェッチサイズが不正な場合
+	 */
+	static StatementAttributes parse(final String fetchSize, final String rowMapper) {
+		int size = 0;
+		if (StringUtility.isNotEmpty(fetchSize)) {
+			size = Integer.parseInt(fetchSize.trim());
+			if (0 > size) {
+				throw new IllegalArgumentException(String.format("Invalid fetch size.[%d]", size));
+			}
+		}
+		String mapper = StringUtility.isNotEmpty(rowMapper) ? rowMapper.trim() : null;
+		if (0 == size && null == mapper) {
+			return DEFAULT;
+		}
+		return new StatementAttributes(size, mapper);
+	}
+
+	/**
+	 * フェッチサイズを取得する。
+	 * 
+	 * @return フェッチサイズ。<code>0</code>の場合、ドライバのデフォルト
+	 */
+	int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * 行マッパーのクラス名を取得する。
+	 * 
+	 * @return クラス名。未指定の場合、<code>null</code>
+	 */
+	String getRowMapper() {
+		return rowMapper;
+	}
+}
@@ -0,0 +1,424 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.azkfw.context.Context;
+import org.azkfw.dsql.entity.DSQLEntity;
+import org.azkfw.dsql.metrics.DynamicSQLMetrics;
+import org.azkfw.dsql.metrics.StatementMetrics;
+import org.azkfw.util.StringUtility;
+
+/**
+ * このクラスは、登録済みダイナミックSQLの情報を保持するクラスです。
+ * <p>
+ * 再ロード時は世代を進めた新しいインスタンスに差し替えます。
+ * 遅延ロード時はダイナミックSQLファイルを初回参照時に一度だけ解析し、以降は解析結果を共有します。
+ * 読み込み・解析に失敗した場合は失敗を保持し、再ロードで差し替えるまで再試行しません。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class StatementEntry {
+
+	/**
+	 * ストリームより読み込む場合のバッファサイズ
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * ダイナミックSQL名
+	 */
+	private final String name;
+
+	/**
+	 * リスト展開数の段階化。<code>null</code>の場合、ビルダーの設定に従う。
+	 */
+	private final InListBucketing bucketing;
+
+	/**
+	 * 実行属性
+	 */
+	private final StatementAttributes attributes;
+
+	/**
+	 * 世代
+	 */
+	private final long generation;
+
+	/**
+	 * ダイナミックSQLファイル
+	 */
+	private final String file;
+
+	/**
+	 * ダイナミックSQLファイルの文字コード
+	 */
+	private final Charset charset;
+
+	/**
+	 * コンテキスト情報。<code>null</code>の場合、カタログよりロードした登録情報
+	 */
+	private final Context context;
+
+	/**
+	 * ファイル内容のハッシュ値。{@link #entity}より先に設定する。
+	 */
+	private volatile String digest;
+
+	/**
+	 * エンティティ情報。<code>null</code>の場合、未解析
+	 */
+	private volatile DSQLEntity entity;
+
+	/**
+	 * 読み込み・解析時のエラー。<code>null</code>の場合、未解析または解析済み
+	 */
+	private volatile IOException loadError;
+
+	/**
+	 * 計測値。<code>null</code>の場合、未取得
+	 */
+	private volatile StatementMetrics metrics;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * 未解析の登録情報を生成する。
+	 * </p>
+	 * 
+	 * @param name ダイナミックSQL名
+	 * @param bucketing リスト展開数の段階化
+	 * @param attributes 実行属性
+	 * @param file ダイナミックSQLファイル
+	 * @param charset ダイナミックSQLファイルの文字コード
+	 * @param context コンテキスト情報
+	 */
+	StatementEntry(final String name, final InListBucketing bucketing, final StatementAttributes attributes, final String file, final Charset charset,
+			final Context context) {
+		this.name = name;
+		this.bucketing = bucketing;
+		this.attributes = attributes;
+		this.generation = 0L;
+		this.file = file;
+		this.charset = charset;
+		this.context = context;
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param entity エンティティ情報
+	 * @param bucketing リスト展開数の段階化
+	 * @param attributes 実行属性
+	 * @param generation 世代
+	 * @param file ダイナミックSQLファイル
+	 * @param charset ダイナミックSQLファイルの文字コード
+	 * @param digest ファイル内容のハッシュ値
+	 * @param context コンテキスト情報
+	 */
+	StatementEntry(final DSQLEntity entity, final InListBucketing bucketing, final StatementAttributes attributes, final long generation,
+			final String file, final Charset charset, final String digest, final Context context) {
+		this.name = entity.getName();
+		this.bucketing = bucketing;
+		this.attributes = attributes;
+		this.generation = generation;
+		this.file = file;
+		this.charset = charset;
+		this.context = context;
+		this.digest = digest;
+		this.entity = entity;
+	}
+
+	/**
+	 * ダイナミックSQL名を取得する。
+	 * 
+	 * @return ダイナミックSQL名
+	 */
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * エンティティ情報を取得する。
+	 * <p>
+	 * 未解析の場合、ダイナミックSQLファイルを解析する。複数スレッドから同時に呼び出された場合も解析は一度だけ行う。
+	 * 解析に失敗した場合、失敗した呼び出しのみ例外をスローし、以降の呼び出しは再試行せずに<code>null</code>を返す。
+	 * </p>
+	 * 
+	 * @return エンティティ情報。以前の読み込み・解析に失敗している場合、<code>null</code>を返す。
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	DSQLEntity getEntity() throws IOException {
+		DSQLEntity result = entity;
+		if (null == result) {
+			if (null != loadError) {
+				return null;
+			}
+			synchronized (this) {
+				result = entity;
+				if (null == result && null == loadError) {
+					try {
+						ByteBuffer data = read(context, file);
+						if (null == data) {
+							throw new FileNotFoundException(String.format("Not found dynamicSQL file.[name:%s, path:%s]", name, file));
+						}
+						result = parse(name, data, charset);
+						digest = digest(data);
+						entity = result;
+					} catch (IOException ex) {
+						loadError = ex;
+						throw ex;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 読み込み・解析時のエラーを取得する。
+	 * 
+	 * @return エラー。読み込み・解析に失敗していない場合、<code>null</code>を返す。
+	 */
+	IOException getLoadError() {
+		return loadError;
+	}
+
+	/**
+	 * 計測値を取得する。
+	 * <p>
+	 * 取得した計測値を保持し、生成ごとに名前空間・名前で検索しない。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @return 計測値。計測が無効な場合、<code>null</code>を返す。
+	 */
+	StatementMetrics getMetrics(final String namespace) {
+		StatementMetrics cached = metrics;
+		StatementMetrics result = DynamicSQLMetrics.getInstance().get(namespace, name, cached);
+		if (null != result && result != cached) {
+			metrics = result;
+		}
+		return result;
+	}
+
+	/**
+	 * 解析済みか判断する。
+	 * 
+	 * @return 解析済みの場合、<code>true</code>を返す。
+	 */
+	boolean isLoaded() {
+		return null != entity;
+	}
+
+	/**
+	 * リスト展開数の段階化を取得する。
+	 * 
+	 * @return リスト展開数の段階化
+	 */
+	InListBucketing getBucketing() {
+		return bucketing;
+	}
+
+	/**
+	 * 実行属性を取得する。
+	 * 
+	 * @return 実行属性
+	 */
+	StatementAttributes getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * 世代を取得する。
+	 * 
+	 * @return 世代
+	 */
+	long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * ダイナミックSQLファイルを取得する。
+	 * 
+	 * @return ダイナミックSQLファイル
+	 */
+	String getFile() {
+		return file;
+	}
+
+	/**
+	 * ダイナミックSQLファイルの文字コードを取得する。
+	 * 
+	 * @return 文字コード
+	 */
+	Charset getCharset() {
+		return charset;
+	}
+
+	/**
+	 * ファイル内容のハッシュ値を取得する。
+	 * 
+	 * @return ハッシュ値。未解析の場合、<code>null</code>を返す。
+	 */
+	String getDigest() {
+		if (null == entity) {
+			return null;
+		}
+		return digest;
+	}
+
+	/**
+	 * コンテキスト情報を取得する。
+	 * 
+	 * @return コンテキスト情報。カタログよりロードした場合、<code>null</code>を返す。
+	 */
+	Context getContext() {
+		return context;
+	}
+
+	/**
+	 * エンティティ情報を差し替えた次世代の登録情報を生成する。
+	 * 
+	 * @param newEntity エンティティ情報
+	 * @param newDigest ファイル内容のハッシュ値
+	 * @return 登録情報
+	 */
+	StatementEntry next(final DSQLEntity newEntity, final String newDigest) {
+		return new StatementEntry(newEntity, bucketing, attributes, generation + 1, file, charset, newDigest, context);
+	}
+
+	/**
+	 * ダイナミックSQLファイルを読み込む。
+	 * <p>
+	 * ファイルシステム上のファイルは{@link FileChannel}でファイルサイズ分のバッファへ直接読み込み、
+	 * それ以外(jar内のリソース等)はストリームをチャネルとして読み込む。
+	 * </p>
+	 * 
+	 * @param context コンテキスト情報
+	 * @param file ダイナミックSQLファイル
+	 * @return ファイル内容。ファイルが存在しない場合、<code>null</code>を返す。
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static ByteBuffer read(final Context context, final String file) throws IOException {
+		String path = context.getAbstractPath(file);
+		if (StringUtility.isNotEmpty(path)) {
+			File f = new File(path);
+			if (f.isFile()) {
+				FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+				try {
+					long size = channel.size();
+					if (Integer.MAX_VALUE < size) {
+						throw new IOException(String.format("Too large dynamicSQL file.[%s]", path));
+					}
+					ByteBuffer data = ByteBuffer.allocate((int) size);
+					while (data.hasRemaining()) {
+						if (-1 == channel.read(data)) {
+							break;
+						}
+					}
+					data.flip();
+					return data;
+				} finally {
+					channel.close();
+				}
+			}
+		}
+
+		InputStream is = context.getResourceAsStream(file);
+		if (null == is) {
+			return null;
+		}
+		ReadableByteChannel channel = Channels.newChannel(is);
+		try {
+			return read(channel);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * チャネルを終端まで読み込む。
+	 * 
+	 * @param channel チャネル
+	 * @return ファイル内容
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static ByteBuffer read(final ReadableByteChannel channel) throws IOException {
+		ByteBuffer data = ByteBuffer.allocate(BUFFER_SIZE);
+		while (-1 != channel.read(data)) {
+			if (!data.hasRemaining()) {
+				ByteBuffer expanded = ByteBuffer.allocate(data.capacity() * 2);
+				data.flip();
+				expanded.put(data);
+				data = expanded;
+			}
+		}
+		data.flip();
+		return data;
+	}
+
+	/**
+	 * ダイナミックSQLファイルを解析する。
+	 * 
+	 * @param name 名前
+	 * @param data ファイル内容
+	 * @param charset 文字コード
+	 * @return ダイナミックSQLエンティティ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static DSQLEntity parse(final String name, final ByteBuffer data, final Charset charset) throws IOException {
+		return DSQLEntity.getInstance(name, data, charset);
+	}
+
+	/**
+	 * ファイル内容のハッシュ値を取得する。
+	 * 
+	 * @param data ファイル内容(位置、リミットは変更しない)
+	 * @return ハッシュ値(16進数文字列)
+	 */
+	static String digest(final ByteBuffer data) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("MD5");
+			md.update(data.duplicate());
+			byte[] hash = md.digest();
+			StringBuilder s = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				s.append(String.format("%02x", b & 0xff));
+			}
+			return s.toString();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql;
+
+import java.util.Map;
+
+/**
+ * このクラスは、名前空間と名前を解決済みのダイナミックSQLを表すハンドルクラスです。
+ * <p>
+ * {@link DynamicSQLManager#prepare(String, String)}で取得し、定数として保持して使用します。
+ * 生成時のダイナミックSQL情報の検索を省略し、ロード・再ロードでダイナミックSQL情報が差し替えられた場合のみ解決し直します。
+ * スレッドセーフです。
+ * </p>
+ * 
+ * <pre>
+ * private static final StatementHandle SELECT_BY_IDS = DynamicSQLManager.prepare("ns", "selectByIds");
+ * 
+ * DynamicSQL dsql = SELECT_BY_IDS.build(group, parameter);
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class StatementHandle {
+
+	/**
+	 * マネージャー
+	 */
+	private final DynamicSQLManager manager;
+
+	/**
+	 * 名前空間
+	 */
+	private final String namespace;
+
+	/**
+	 * 名前
+	 */
+	private final String name;
+
+	/**
+	 * 固定したダイナミックSQL登録情報。固定しない場合、<code>null</code>
+	 */
+	private final StatementEntry pinned;
+
+	/**
+	 * 解決結果
+	 */
+	private volatile Binding binding;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param manager マネージャー
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 */
+	StatementHandle(final DynamicSQLManager manager, final String namespace, final String name) {
+		this(manager, namespace, name, null);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param manager マネージャー
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param pinned 固定するダイナミックSQL登録情報。固定しない場合、<code>null</code>
+	 */
+	StatementHandle(final DynamicSQLManager manager, final String namespace, final String name, final StatementEntry pinned) {
+		this.manager = manager;
+		this.namespace = namespace;
+		this.name = name;
+		this.pinned = pinned;
+	}
+
+	/**
+	 * 名前空間を取得する。
+	 * 
+	 * @return 名前空間
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	/**
+	 * 名前を取得する。
+	 * 
+	 * @return 名前
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * ダイナミックSQLが登録されているか判断する。
+	 * 
+	 * @return 登録されている場合、<code>true</code>を返す。
+	 */
+	public boolean isAvailable() {
+		return null != entry();
+	}
+
+	/**
+	 * ダイナミックSQLのフェッチサイズを取得する。
+	 * 
+	 * @return フェッチサイズ。未指定の場合、<code>0</code>。ダイナミックSQLが存在しない場合、<code>-1</code>を返す。
+	 * @see DynamicSQLManager#getFetchSize(String, String)
+	 */
+	public int getFetchSize() {
+		StatementEntry entry = entry();
+		if (null == entry) {
+			return -1;
+		}
+		return entry.getAttributes().getFetchSize();
+	}
+
+	/**
+	 * ダイナミックSQLの行マッパーのクラス名を取得する。
+	 * 
+	 * @return 行マッパーのクラス名。未指定またはダイナミックSQLが存在しない場合、<code>null</code>を返す。
+	 * @see DynamicSQLManager#getRowMapper(String, String)
+	 */
+	public String getRowMapper() {
+		StatementEntry entry = entry();
+		if (null == entry) {
+			return null;
+		}
+		return entry.getAttributes().getRowMapper();
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public DynamicSQL build(final Group group, final Parameter parameter) {
+		return DynamicSQLManager.generate(namespace, entry(), group, parameter);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * <p>
+	 * 形状キャッシュに存在する形状の場合、オブジェクトを生成しない。
+	 * </p>
+	 * 
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 * @see DynamicSQLBuffer#local()
+	 */
+	public DynamicSQLBuffer build(final Group group, final Parameter parameter, final DynamicSQLBuffer buffer) {
+		return DynamicSQLManager.generate(namespace, entry(), group, parameter, buffer);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成する。
+	 * <p>
+	 * パラメータ名と同名のプロパティ(<code>getXxx()</code>、<code>isXxx()</code>、<code>xxx()</code>、公開フィールド)の値を使用する。
+	 * <code>xxx()</code>は同名のフィールドを宣言している場合のみ使用する。
+	 * </p>
+	 * 
+	 * @param group グループ
+	 * @param bean Bean
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public DynamicSQL build(final Group group, final Object bean) {
+		return DynamicSQLManager.generateBean(namespace, entry(), group, bean);
+	}
+
+	/**
+	 * BeanのプロパティをパラメータとしてダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param group グループ
+	 * @param bean Bean
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public DynamicSQLBuffer build(final Group group, final Object bean, final DynamicSQLBuffer buffer) {
+		return DynamicSQLManager.generateBean(namespace, entry(), group, bean, buffer);
+	}
+
+	/**
+	 * ダイナミックSQLを生成する。
+	 * 
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return ダイナミックSQL。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public DynamicSQL buildIndexed(final Group group, final IndexedParameter parameter) {
+		return DynamicSQLManager.generateIndexed(namespace, entry(), group, parameter);
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param buffer バッファ
+	 * @return バッファ。ダイナミックSQLの生成に失敗した場合、<code>null</code>を返す。
+	 */
+	public DynamicSQLBuffer buildIndexed(final Group group, final IndexedParameter parameter, final DynamicSQLBuffer buffer) {
+		return DynamicSQLManager.generateIndexed(namespace, entry(), group, parameter, buffer);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("StatementHandle[ns:%s, name:%s]", namespace, name);
+	}
+
+	/**
+	 * ダイナミックSQL登録情報を取得する。
+	 * <p>
+	 * 固定したハンドルの場合、固定した登録情報を返す。
+	 * ダイナミックSQL情報のスナップショットが前回の解決時と同じ場合、前回の解決結果を返す。
+	 * </p>
+	 * 
+	 * @return ダイナミックSQL登録情報。登録されていない場合、<code>null</code>を返す。
+	 */
+	StatementEntry entry() {
+		if (null != pinned) {
+			return pinned;
+		}
+		Map<String, Map<String, StatementEntry>> snapshot = manager.snapshot();
+		Binding current = binding;
+		if (null != current && snapshot == current.snapshot) {
+			return current.entry;
+		}
+		StatementEntry entry = null;
+		Map<String, StatementEntry> dsqls = snapshot.get(namespace);
+		if (null != dsqls) {
+			entry = dsqls.get(name);
+		}
+		binding = new Binding(snapshot, entry);
+		return entry;
+	}
+
+	/**
+	 * このクラスは、スナップショットごとの解決結果を保持するクラスです。
+	 */
+	private static final class Binding {
+
+		/**
+		 * 解決に使用したスナップショット
+		 */
+		private final Map<String, Map<String, StatementEntry>> snapshot;
+
+		/**
+		 * ダイナミックSQL登録情報。登録されていない場合、<code>null</code>
+		 */
+		private final StatementEntry entry;
+
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param snapshot スナップショット
+		 * @param entry ダイナミックSQL登録情報
+		 */
+		private Binding(final Map<String, Map<String, StatementEntry>> snapshot, final StatementEntry entry) {
+			this.snapshot = snapshot;
+			this.entry = entry;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * このクラスは、Beanのプロパティ名ごとの値の取得方法を保持するクラスです。
+ * <p>
+ * クラスごとに一度だけ、公開メソッド・フィールドから{@link MethodHandle}を生成します。
+ * 優先順位は<code>getXxx()</code>(<code>boolean</code>の場合は<code>isXxx()</code>)、
+ * <code>xxx()</code>(レコード形式のアクセサー)、公開フィールドの順です。
+ * </p>
+ * <p>
+ * <code>xxx()</code>は、同名のフィールドを宣言しているクラスのみ対象とします。
+ * <code>size()</code>や<code>next()</code>等の副作用を持つメソッドをプロパティとして呼び出さないためです。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class BeanProperties {
+
+	/**
+	 * 値の取得方法の型(<code>Object (Object)</code>)
+	 */
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	/**
+	 * 優先順位: <code>getXxx()</code>、<code>isXxx()</code>
+	 */
+	private static final int PRIORITY_GETTER = 3;
+
+	/**
+	 * 優先順位: <code>xxx()</code>
+	 */
+	private static final int PRIORITY_ACCESSOR = 2;
+
+	/**
+	 * 優先順位: 公開フィールド
+	 */
+	private static final int PRIORITY_FIELD = 1;
+
+	/**
+	 * クラスごとのプロパティ情報
+	 */
+	private static final ClassValue<BeanProperties> PROPERTIES = new ClassValue<BeanProperties>() {
+		@Override
+		protected BeanProperties computeValue(final Class<?> type) {
+			return new BeanProperties(type);
+		}
+	};
+
+	/**
+	 * プロパティ名ごとの値の取得方法
+	 */
+	private final Map<String, MethodHandle> getters;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param type クラス
+	 */
+	private BeanProperties(final Class<?> type) {
+		Map<String, MethodHandle> handles = new HashMap<String, MethodHandle>();
+		Map<String, Integer> priorities = new HashMap<String, Integer>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		for (Method method : type.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers()) || 0 != method.getParameterTypes().length || Void.TYPE == method.getReturnType()
+					|| Object.class == method.getDeclaringClass()) {
+				continue;
+			}
+			String name = method.getName();
+			String property = name;
+			int priority = PRIORITY_ACCESSOR;
+			if (3 < name.length() && name.startsWith("get")) {
+				property = decapitalize(name.substring(3));
+				priority = PRIORITY_GETTER;
+			} else if (2 < name.length() && name.startsWith("is") && (Boolean.TYPE == method.getReturnType() || Boolean.class == method.getReturnType())) {
+				property = decapitalize(name.substring(2));
+				priority = PRIORITY_GETTER;
+			} else if (!hasField(type, name)) {
+				continue;
+			}
+			if (isPrior(priorities, property, priority)) {
+				MethodHandle handle = unreflect(lookup, method);
+				if (null != handle) {
+					handles.put(property, handle);
+					priorities.put(property, priority);
+				}
+			}
+		}
+		for (Field field : type.getFields()) {
+			if (Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			String property = field.getName();
+			if (isPrior(priorities, property, PRIORITY_FIELD)) {
+				MethodHandle handle = unreflect(lookup, field);
+				if (null != handle) {
+					handles.put(property, handle);
+					priorities.put(property, PRIORITY_FIELD);
+				}
+			}
+		}
+		getters = handles;
+	}
+
+	/**
+	 * クラスのプロパティ情報を取得する。
+	 * 
+	 * @param type クラス
+	 * @return プロパティ情報
+	 */
+	static BeanProperties of(final Class<?> type) {
+		return PROPERTIES.get(type);
+	}
+
+	/**
+	 * プロパティの値の取得方法を取得する。
+	 * <p>
+	 * 型は<code>Object (Object)</code>です。
+	 * </p>
+	 * 
+	 * @param property プロパティ名
+	 * @return 値の取得方法。プロパティが存在しない場合、<code>null</code>を返す。
+	 */
+	MethodHandle getGetter(final String property) {
+		return getters.get(property);
+	}
+
+	/**
+	 * クラス(スーパークラスを含む)が同名のインスタンスフィールドを宣言しているか判断する。
+	 * 
+	 * @param type クラス
+	 * @param name フィールド名
+	 * @return 宣言している場合、<code>true</code>を返す。
+	 */
+	private static boolean hasField(final Class<?> type, final String name) {
+		for (Class<?> c = type; null != c && Object.class != c; c = c.getSuperclass()) {
+			try {
+				Field field = c.getDeclaredField(name);
+				if (!Modifier.isStatic(field.getModifiers())) {
+					return true;
+				}
+			} catch (NoSuchFieldException ex) {
+				continue;
+			} catch (SecurityException ex) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 登録済みのプロパティより優先順位が高いか判断する。
+	 * 
+	 * @param priorities プロパティ名ごとの優先順位
+	 * @param property プロパティ名
+	 * @param priority 優先順位
+	 * @return 優先順位が高い場合、<code>true</code>を返す。
+	 */
+	private static boolean isPrior(final Map<String, Integer> priorities, final String property, final int priority) {
+		Integer current = priorities.get(property);
+		return null == current || current.intValue() < priority;
+	}
+
+	/**
+	 * メソッドの{@link MethodHandle}を生成する。
+	 * <p>
+	 * 非公開クラスのメソッドはアクセス可能にして生成する。
+	 * </p>
+	 * 
+	 * @param lookup ルックアップ
+	 * @param method メソッド
+	 * @return 値の取得方法。生成できない場合、<code>null</code>を返す。
+	 */
+	private static MethodHandle unreflect(final MethodHandles.Lookup lookup, final Method method) {
+		try {
+			if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+				method.setAccessible(true);
+			}
+			return lookup.unreflect(method).asType(GETTER_TYPE);
+		} catch (IllegalAccessException | SecurityException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * フィールドの{@link MethodHandle}を生成する。
+	 * 
+	 * @param lookup ルックアップ
+	 * @param field フィールド
+	 * @return 値の取得方法。生成できない場合、<code>null</code>を返す。
+	 */
+	private static MethodHandle unreflect(final MethodHandles.Lookup lookup, final Field field) {
+		try {
+			if (!Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+				field.setAccessible(true);
+			}
+			return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException | SecurityException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * プロパティ名に変換する。
+	 * <p>
+	 * {@link java.beans.Introspector#decapitalize(String)}と同様に、先頭2文字が大文字の場合は変換しない。
+	 * </p>
+	 * 
+	 * @param name 名前
+	 * @return プロパティ名
+	 */
+	private static String decapitalize(final String name) {
+		if (1 < name.length() && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		char[] chars = name.toCharArray();
+		chars[0] = Character.toLowerCase(chars[0]);
+		return new String(chars);
+	}
+}
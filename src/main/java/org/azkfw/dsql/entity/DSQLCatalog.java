@@ -0,0 +1,481 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、コンパイル済みダイナミックSQLのカタログを読み書きするクラスです。
+ * <p>
+ * カタログは文字列表(SQL断片等を重複なく格納)、行文字列、および実行プランの命令コード・グループ名・パラメータスロットをバイナリ形式で保持します。
+ * 読み込みは{@link FileChannel#map(java.nio.channels.FileChannel.MapMode, long, long)}でマップしたファイルより行い、実行プランのコンパイルを行いません。
+ * </p>
+ * <p>
+ * 行情報は行文字列のみを格納し、{@link DSQLEntity#getLineList()}等で参照された時点で解析します。
+ * 文字列表は読み込み時に全てヒープ上の文字列に変換するため、マップしたファイルは読み込み後に保持しません。
+ * カタログの効果はテキストの解析と実行プランのコンパイルを省くことであり、ヒープ使用量はテキストから読み込んだ場合と同程度です。
+ * </p>
+ * 
+ * <pre>
+ * catalog   := MAGIC VERSION stringCount string* statementCount statement*
+ * string    := length(int, -1 = null) UTF-8 bytes
+ * statement := name file inListBuckets inListPadding fetchSize rowMapper digest lineCount line* planSize op* (exec format group parameter slot)* layoutSize layout*
+ * line      := 行文字列(コメント・バインドキーを含む)
+ * </pre>
+ * 
+ * 文字列は全て文字列表のインデックス(int)で格納します。
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DSQLCatalog {
+
+	/**
+	 * 識別子("DSQC")
+	 */
+	private static final int MAGIC = 0x44535143;
+
+	/**
+	 * 形式バージョン
+	 */
+	private static final int VERSION = 3;
+
+	/**
+	 * 文字コード
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * ステートメントリスト
+	 */
+	private final List<Statement> statements;
+
+	/**
+	 * コンストラクタ
+	 */
+	public DSQLCatalog() {
+		statements = new ArrayList<Statement>();
+	}
+
+	/**
+	 * ステートメントを追加する。
+	 * 
+	 * @param statement ステートメント
+	 */
+	public void add(final Statement statement) {
+		statements.add(statement);
+	}
+
+	/**
+	 * ステートメントリストを取得する。
+	 * 
+	 * @return ステートメントリスト(定義順)
+	 */
+	public List<Statement> getStatements() {
+		return Collections.unmodifiableList(statements);
+	}
+
+	/**
+	 * カタログをファイルに書き込む。
+	 * 
+	 * @param file カタログファイル
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void write(final File file) throws IOException {
+		// 文字列表を作成
+		Map<String, Integer> indexes = new HashMap<String, Integer>();
+		List<String> strings = new ArrayList<String>();
+		for (Statement statement : statements) {
+			intern(statement.getName(), indexes, strings);
+			intern(statement.getFile(), indexes, strings);
+			intern(statement.getInListBuckets(), indexes, strings);
+			intern(statement.getInListPadding(), indexes, strings);
+			intern(statement.getFetchSize(), indexes, strings);
+			intern(statement.getRowMapper(), indexes, strings);
+			intern(statement.getDigest(), indexes, strings);
+			for (DSQLLineEntity line : statement.getEntity()) {
+				intern(line.getLine(), indexes, strings);
+			}
+			DSQLPlan plan = statement.getEntity().getPlan();
+			for (int i = 0; i < plan.size(); i++) {
+				intern(plan.getExecuteSQLs()[i], indexes, strings);
+				intern(plan.getFormatSQLs()[i], indexes, strings);
+				intern(plan.getGroups()[i], indexes, strings);
+				intern(plan.getParameters()[i], indexes, strings);
+			}
+			ParameterLayout layout = plan.getParameterLayout();
+			for (int i = 0; i < layout.size(); i++) {
+				intern(layout.getName(i), indexes, strings);
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(strings.size());
+			for (String string : strings) {
+				byte[] bytes = string.getBytes(UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			out.writeInt(statements.size());
+			for (Statement statement : statements) {
+				writeString(out, statement.getName(), indexes);
+				writeString(out, statement.getFile(), indexes);
+				writeString(out, statement.getInListBuckets(), indexes);
+				writeString(out, statement.getInListPadding(), indexes);
+				writeString(out, statement.getFetchSize(), indexes);
+				writeString(out, statement.getRowMapper(), indexes);
+				writeString(out, statement.getDigest(), indexes);
+
+				List<DSQLLineEntity> lines = statement.getEntity().getLineList();
+				out.writeInt(lines.size());
+				for (DSQLLineEntity line : lines) {
+					writeString(out, line.getLine(), indexes);
+				}
+
+				DSQLPlan plan = statement.getEntity().getPlan();
+				out.writeInt(plan.size());
+				out.write(plan.getOperations());
+				for (int i = 0; i < plan.size(); i++) {
+					writeString(out, plan.getExecuteSQLs()[i], indexes);
+					writeString(out, plan.getFormatSQLs()[i], indexes);
+					writeString(out, plan.getGroups()[i], indexes);
+					writeString(out, plan.getParameters()[i], indexes);
+					out.writeInt(plan.getParameterSlots()[i]);
+				}
+				ParameterLayout layout = plan.getParameterLayout();
+				out.writeInt(layout.size());
+				for (int i = 0; i < layout.size(); i++) {
+					writeString(out, layout.getName(i), indexes);
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * カタログファイルを読み込む。
+	 * 
+	 * @param file カタログファイル
+	 * @return カタログ
+	 * @throws IOException IO操作時に問題が発生した場合、またはカタログの形式が不正な場合
+	 */
+	public static DSQLCatalog read(final File file) throws IOException {
+		MappedByteBuffer buffer = null;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+
+		try {
+			return read(buffer);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException ex) {
+			throw new IOException(String.format("Invalid dynamicSQL catalog.[%s]", file), ex);
+		}
+	}
+
+	/**
+	 * バッファよりカタログを読み込む。
+	 * 
+	 * @param buffer バッファ
+	 * @return カタログ
+	 * @throws IOException カタログの形式が不正な場合
+	 */
+	private static DSQLCatalog read(final ByteBuffer buffer) throws IOException {
+		if (MAGIC != buffer.getInt()) {
+			throw new IOException("Not a dynamicSQL catalog.");
+		}
+		int version = buffer.getInt();
+		if (VERSION != version) {
+			throw new IOException(String.format("Unsupported dynamicSQL catalog version.[%d]", version));
+		}
+
+		String[] strings = new String[buffer.getInt()];
+		byte[] bytes = new byte[256];
+		for (int i = 0; i < strings.length; i++) {
+			int length = buffer.getInt();
+			if (bytes.length < length) {
+				bytes = new byte[length];
+			}
+			buffer.get(bytes, 0, length);
+			strings[i] = new String(bytes, 0, length, UTF_8);
+		}
+
+		DSQLCatalog catalog = new DSQLCatalog();
+		int count = buffer.getInt();
+		for (int i = 0; i < count; i++) {
+			String name = readString(buffer, strings);
+			String file = readString(buffer, strings);
+			String inListBuckets = readString(buffer, strings);
+			String inListPadding = readString(buffer, strings);
+			String fetchSize = readString(buffer, strings);
+			String rowMapper = readString(buffer, strings);
+			String digest = readString(buffer, strings);
+
+			String[] lines = new String[buffer.getInt()];
+			for (int j = 0; j < lines.length; j++) {
+				lines[j] = readString(buffer, strings);
+			}
+
+			int size = buffer.getInt();
+			byte[] operations = new byte[size];
+			buffer.get(operations);
+			String[] executeSQLs = new String[size];
+			String[] formatSQLs = new String[size];
+			String[] groups = new String[size];
+			String[] parameters = new String[size];
+			int[] parameterSlots = new int[size];
+			for (int j = 0; j < size; j++) {
+				executeSQLs[j] = readString(buffer, strings);
+				formatSQLs[j] = readString(buffer, strings);
+				groups[j] = readString(buffer, strings);
+				parameters[j] = readString(buffer, strings);
+				parameterSlots[j] = buffer.getInt();
+			}
+			String[] layout = new String[buffer.getInt()];
+			for (int j = 0; j < layout.length; j++) {
+				layout[j] = readString(buffer, strings);
+			}
+
+			DSQLPlan plan = DSQLPlan.restore(operations, executeSQLs, formatSQLs, groups, parameters, parameterSlots, layout);
+			DSQLEntity entity = DSQLEntity.restore(name, lines, plan);
+			catalog.add(new Statement(entity, file, inListBuckets, inListPadding, fetchSize, rowMapper, digest));
+		}
+		return catalog;
+	}
+
+	/**
+	 * 文字列を文字列表に登録する。
+	 * 
+	 * @param string 文字列
+	 * @param indexes 文字列ごとのインデックス
+	 * @param strings 文字列表
+	 */
+	private static void intern(final String string, final Map<String, Integer> indexes, final List<String> strings) {
+		if (null != string && !indexes.containsKey(string)) {
+			indexes.put(string, Integer.valueOf(strings.size()));
+			strings.add(string);
+		}
+	}
+
+	/**
+	 * 文字列を文字列表のインデックスで書き込む。
+	 * 
+	 * @param out 出力ストリーム
+	 * @param string 文字列
+	 * @param indexes 文字列ごとのインデックス
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static void writeString(final DataOutputStream out, final String string, final Map<String, Integer> indexes) throws IOException {
+		if (null == string) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(indexes.get(string).intValue());
+		}
+	}
+
+	/**
+	 * 文字列表のインデックスより文字列を読み込む。
+	 * 
+	 * @param buffer バッファ
+	 * @param strings 文字列表
+	 * @return 文字列
+	 */
+	private static String readString(final ByteBuffer buffer, final String[] strings) {
+		int index = buffer.getInt();
+		if (-1 == index) {
+			return null;
+		}
+		return strings[index];
+	}
+
+	/**
+	 * このクラスは、カタログに格納するダイナミックSQLの情報を保持するクラスです。
+	 * 
+	 * @since 1.7.0
+	 * @version 1.7.0 2026/10/17
+	 * @author Kawakicchi
+	 */
+	public static final class Statement {
+
+		/**
+		 * エンティティ情報
+		 */
+		private final DSQLEntity entity;
+
+		/**
+		 * ダイナミックSQLファイル
+		 */
+		private final String file;
+
+		/**
+		 * リスト展開数の段階
+		 */
+		private final String inListBuckets;
+
+		/**
+		 * リスト展開時の補完方法
+		 */
+		private final String inListPadding;
+
+		/**
+		 * フェッチサイズ
+		 */
+		private final String fetchSize;
+
+		/**
+		 * 行マッパーのクラス名
+		 */
+		private final String rowMapper;
+
+		/**
+		 * ファイル内容のハッシュ値
+		 */
+		private final String digest;
+
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param entity エンティティ情報
+		 * @param file ダイナミックSQLファイル
+		 * @param inListBuckets リスト展開数の段階
+		 * @param inListPadding リスト展開時の補完方法
+		 * @param digest ファイル内容のハッシュ値
+		 */
+		public Statement(final DSQLEntity entity, final String file, final String inListBuckets, final String inListPadding, final String digest) {
+			this(entity, file, inListBuckets, inListPadding, null, null, digest);
+		}
+
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param entity エンティティ情報
+		 * @param file ダイナミックSQLファイル
+		 * @param inListBuckets リスト展開数の段階
+		 * @param inListPadding リスト展開時の補完方法
+		 * @param fetchSize フェッチサイズ
+		 * @param rowMapper 行マッパーのクラス名
+		 * @param digest ファイル内容のハッシュ値
+		 */
+		public Statement(final DSQLEntity entity, final String file, final String inListBuckets, final String inListPadding,
+				final String fetchSize, final String rowMapper, final String digest) {
+			this.entity = entity;
+			this.file = file;
+			this.inListBuckets = inListBuckets;
+			this.inListPadding = inListPadding;
+			this.fetchSize = fetchSize;
+			this.rowMapper = rowMapper;
+			this.digest = digest;
+		}
+
+		/**
+		 * ダイナミックSQL名を取得する。
+		 * 
+		 * @return ダイナミックSQL名
+		 */
+		public String getName() {
+			return entity.getName();
+		}
+
+		/**
+		 * エンティティ情報を取得する。
+		 * 
+		 * @return エンティティ情報
+		 */
+		public DSQLEntity getEntity() {
+			return entity;
+		}
+
+		/**
+		 * ダイナミックSQLファイルを取得する。
+		 * 
+		 * @return ダイナミックSQLファイル
+		 */
+		public String getFile() {
+			return file;
+		}
+
+		/**
+		 * リスト展開数の段階を取得する。
+		 * 
+		 * @return リスト展開数の段階
+		 */
+		public String getInListBuckets() {
+			return inListBuckets;
+		}
+
+		/**
+		 * リスト展開時の補完方法を取得する。
+		 * 
+		 * @return リスト展開時の補完方法
+		 */
+		public String getInListPadding() {
+			return inListPadding;
+		}
+
+		/**
+		 * フェッチサイズを取得する。
+		 * 
+		 * @return フェッチサイズ
+		 */
+		public String getFetchSize() {
+			return fetchSize;
+		}
+
+		/**
+		 * 行マッパーのクラス名を取得する。
+		 * 
+		 * @return クラス名
+		 */
+		public String getRowMapper() {
+			return rowMapper;
+		}
+
+		/**
+		 * ファイル内容のハッシュ値を取得する。
+		 * 
+		 * @return ハッシュ値
+		 */
+		public String getDigest() {
+			return digest;
+		}
+	}
+}
@@ -19,16 +19,17 @@ package org.azkfw.dsql.entity;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * このクラスは、ダイナミックSQL情報を保持するエンティティクラスです。
@@ -40,24 +41,24 @@ import java.util.regex.Pattern;
 public final class DSQLEntity implements Iterable<DSQLLineEntity> {
 
 	/**
-	 * Bind line pattern
+	 * ダイナミックSQL名
 	 */
-	private static Pattern PTN_MATCH_BIND_LINE = Pattern.compile("^[\\s\\t]*(\\$\\{.+\\}).*$");
+	private String name;
 
 	/**
-	 * Comment line pattern
+	 * 行情報
 	 */
-	private static Pattern PTN_MATCH_COMMENT_LINE = Pattern.compile("^[\\s\\t]*#.*");
+	private volatile List<DSQLLineEntity> lines;
 
 	/**
-	 * ダイナミックSQL名
+	 * 行情報を未解析の行文字列(カタログより復元した場合のみ)
 	 */
-	private String name;
+	private String[] source;
 
 	/**
-	 * 行情報
+	 * 実行プラン
 	 */
-	private List<DSQLLineEntity> lines;
+	private DSQLPlan plan;
 
 	/**
 	 * コンストラクタ
@@ -82,7 +83,19 @@ public final class DSQLEntity implements Iterable<DSQLLineEntity> {
 	 * @return 行情報リスト
 	 */
 	public List<DSQLLineEntity> getLineList() {
-		return lines;
+		return lines();
+	}
+
+	/**
+	 * 実行プランを取得する。
+	 * <p>
+	 * 実行プランはインスタンス生成時に行情報よりコンパイルされる。
+	 * </p>
+	 * 
+	 * @return 実行プラン
+	 */
+	public DSQLPlan getPlan() {
+		return plan;
 	}
 
 	/**
@@ -114,7 +127,7 @@ public final class DSQLEntity implements Iterable<DSQLLineEntity> {
 	 * @return 判断結果
 	 */
 	public boolean isEmpty() {
-		if (0 < lines.size()) {
+		if (0 < lines().size()) {
 			return false;
 		}
 		return true;
@@ -122,7 +135,33 @@ public final class DSQLEntity implements Iterable<DSQLLineEntity> {
 
 	@Override
 	public Iterator<DSQLLineEntity> iterator() {
-		return lines.iterator();
+		return lines().iterator();
+	}
+
+	/**
+	 * 行情報を取得する。
+	 * <p>
+	 * カタログより復元した場合は、初回呼び出し時に行文字列を解析する。
+	 * </p>
+	 * 
+	 * @return 行情報
+	 */
+	private List<DSQLLineEntity> lines() {
+		List<DSQLLineEntity> result = lines;
+		if (null == result) {
+			synchronized (this) {
+				result = lines;
+				if (null == result) {
+					result = new ArrayList<DSQLLineEntity>(source.length);
+					for (String line : source) {
+						result.add(DSQLLineLexer.scan(line));
+					}
+					lines = result;
+					source = null;
+				}
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -134,7 +173,7 @@ public final class DSQLEntity implements Iterable<DSQLLineEntity> {
 	 * @throws IOException IO操作に起因する問題が発生した場合
 	 */
 	public static DSQLEntity getInstance(final String name, final File file) throws IOException {
-		return getInstance(name, new InputStreamReader(new FileInputStream(file)));
+		return getInstance(name, file.toPath(), Charset.defaultCharset());
 	}
 
 	/**
@@ -147,7 +186,60 @@ public final class DSQLEntity implements Iterable<DSQLLineEntity> {
 	 * @throws IOException IO操作に起因する問題が発生した場合
 	 */
 	public static DSQLEntity getInstance(final String name, final File file, final Charset charset) throws IOException {
-		return getInstance(name, new InputStreamReader(new FileInputStream(file), charset));
+		return getInstance(name, file.toPath(), charset);
+	}
+
+	/**
+	 * ファイルよりダイナミックSQLインスタンスを取得する。
+	 * <p>
+	 * ファイルはチャネルで一括して読み込む。jarファイル等のファイルシステム上のパスも指定できる。
+	 * </p>
+	 * 
+	 * @param name 名前
+	 * @param path ダイナミックSQLファイル
+	 * @param charset ファイル文字コード
+	 * @return ダイナミックSQL
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public static DSQLEntity getInstance(final String name, final Path path, final Charset charset) throws IOException {
+		ByteBuffer data = null;
+		SeekableByteChannel channel = Files.newByteChannel(path);
+		try {
+			long size = channel.size();
+			if (Integer.MAX_VALUE < size) {
+				throw new IOException(String.format("Too large dynamicSQL file.[%s]", path));
+			}
+			data = ByteBuffer.allocate((int) size);
+			while (data.hasRemaining()) {
+				if (-1 == channel.read(data)) {
+					break;
+				}
+			}
+			data.flip();
+		} finally {
+			channel.close();
+		}
+		return getInstance(name, data, charset);
+	}
+
+	/**
+	 * ファイル内容よりダイナミックSQLインスタンスを取得する。
+	 * <p>
+	 * ファイル内容は指定された文字コードで固定長のバッファへ順次デコードし、行単位に解析する。
+	 * 文字コードに従ってデコードできないバイト列を含む場合はエラーとする。
+	 * </p>
+	 * 
+	 * @param name 名前
+	 * @param data ファイル内容(位置からリミットまで。位置、リミットは変更しない)
+	 * @param charset ファイル文字コード
+	 * @return ダイナミックSQL
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public static DSQLEntity getInstance(final String name, final ByteBuffer data, final Charset charset) throws IOException {
+		DSQLEntity dsql = new DSQLEntity(name);
+		DSQLLineReader.read(data, charset, dsql.lines);
+		dsql.plan = DSQLPlan.compile(dsql.lines);
+		return dsql;
 	}
 
 	/**
@@ -175,94 +267,36 @@ public final class DSQLEntity implements Iterable<DSQLLineEntity> {
 		DSQLEntity dsql = new DSQLEntity(name);
 
 		if (null != aReader) {
-			BufferedReader reader = null;
-			reader = new BufferedReader(aReader);
-
-			String line = null;
-			while (null != (line = reader.readLine())) {
-				DSQLLineEntity dsqll = new DSQLLineEntity();
-				dsqll.setLine(line);
-
-				if (PTN_MATCH_COMMENT_LINE.matcher(line).matches()) {
-					dsqll.setComment(true);
-
-				} else {
-					dsqll.setComment(false);
-
-					Matcher m = PTN_MATCH_BIND_LINE.matcher(line);
-					if (!m.find()) {
-						// SQL行
-						dsqll.setSQL(trim(line));
-						dsqll.setFormatSQL(trimSuffix(line));
-					} else {
-						// バインドSQL行
-						int idxBindStart = m.start(1);
-						int idxBindEnd = m.end(1);
-
-						String trimSql = trim(line.substring(idxBindEnd));
-						dsqll.setSQL(trimSql);
-
-						String formatSql = line.substring(0, idxBindStart) + space(idxBindEnd - idxBindStart) + line.substring(idxBindEnd);
-						dsqll.setFormatSQL(trimSuffix(formatSql));
-
-						String bind = trim(line.substring(idxBindStart + 2, idxBindEnd - 1));
-						int idxGrpSpr = bind.indexOf(":");
-
-						if (0 == idxGrpSpr) {
-							// ${:parameter}
-							String param = trim(bind.substring(1));
-							dsqll.setParameter(param);
-						} else if (bind.length() - 1 == idxGrpSpr) {
-							// ${group:}
-							String group = trim(bind.substring(0, bind.length() - 1));
-							dsqll.setGroup(group);
-						} else if (-1 == idxGrpSpr) {
-							// ${parameter}
-							dsqll.setParameter(bind);
-						} else {
-							// ${group:parameter}
-							String[] splt = bind.split(":");
-							String group = trim(splt[0]);
-							String param = trim(splt[1]);
-							dsqll.setGroup(group);
-							dsqll.setParameter(param);
-						}
-					}
+			BufferedReader reader = new BufferedReader(aReader);
+			try {
+				String line = null;
+				while (null != (line = reader.readLine())) {
+					dsql.lines.add(DSQLLineLexer.scan(line));
 				}
-				dsql.lines.add(dsqll);
+			} finally {
+				reader.close();
 			}
-			reader.close();
-
 		}
+		dsql.plan = DSQLPlan.compile(dsql.lines);
 		return dsql;
 	}
 
-	private static String trimPrefix(final String s) {
-		String buf = s;
-		while (0 < buf.length() && (buf.startsWith(" ") || buf.startsWith("\t"))) {
-			buf = buf.substring(1);
-		}
-		return buf;
-	}
-
-	private static String trimSuffix(final String s) {
-		String buf = s;
-		while (0 < buf.length() && (buf.endsWith(" ") || buf.endsWith("\t"))) {
-			buf = buf.substring(0, buf.length() - 1);
-		}
-		return buf;
-	}
-
-	private static String trim(final String s) {
-		String buf = trimPrefix(s);
-		return trimSuffix(buf);
-	}
-
-	private static String space(final int size) {
-		StringBuilder s = new StringBuilder();
-		for (int i = 0; i < size; i++) {
-			s.append(" ");
-		}
-		return s.toString();
+	/**
+	 * 行文字列と実行プランよりダイナミックSQLインスタンスを復元する。
+	 * <p>
+	 * 行情報は{@link #getLineList()}等で参照されるまで解析しない。
+	 * </p>
+	 * 
+	 * @param name 名前
+	 * @param source 行文字列
+	 * @param plan 実行プラン
+	 * @return ダイナミックSQL
+	 */
+	static DSQLEntity restore(final String name, final String[] source, final DSQLPlan plan) {
+		DSQLEntity dsql = new DSQLEntity(name);
+		dsql.lines = null;
+		dsql.source = source;
+		dsql.plan = plan;
+		return dsql;
 	}
 }
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * このクラスは、グループ名をインデックスへ変換するクラスです。
+ * <p>
+ * グループ名はプロセス内で一意な0から始まる連番に変換され、グループ情報はこのインデックスのビットで保持されます。
+ * インデックスはダイナミックSQLの解析時に、SQLが参照するグループ名にのみ割り当てます。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DSQLGroupIndex {
+
+	/**
+	 * インデックスマップ
+	 */
+	private static final ConcurrentMap<String, Integer> INDEXES = new ConcurrentHashMap<String, Integer>();
+
+	/**
+	 * インデックスごとのグループ名
+	 */
+	private static volatile String[] names = new String[0];
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * インスタンス生成を禁止
+	 * </p>
+	 */
+	private DSQLGroupIndex() {
+
+	}
+
+	/**
+	 * グループ名のインデックスを取得する。
+	 * <p>
+	 * 未登録のグループ名の場合、新たにインデックスを割り当てる。
+	 * ダイナミックSQLの解析時に使用し、実行時に指定されたグループ名には{@link #find(String)}を使用する。
+	 * </p>
+	 * 
+	 * @param group グループ名
+	 * @return インデックス
+	 */
+	public static int indexOf(final String group) {
+		Integer index = INDEXES.get(group);
+		if (null == index) {
+			synchronized (INDEXES) {
+				index = INDEXES.get(group);
+				if (null == index) {
+					index = Integer.valueOf(INDEXES.size());
+					String[] array = Arrays.copyOf(names, index.intValue() + 1);
+					array[index.intValue()] = group;
+					names = array;
+					INDEXES.put(group, index);
+				}
+			}
+		}
+		return index.intValue();
+	}
+
+	/**
+	 * グループ名のインデックスを検索する。
+	 * 
+	 * @param group グループ名
+	 * @return インデックス。未登録のグループ名、または<code>null</code>の場合、<code>-1</code>を返す。
+	 */
+	public static int find(final String group) {
+		if (null == group) {
+			return -1;
+		}
+		Integer index = INDEXES.get(group);
+		if (null == index) {
+			return -1;
+		}
+		return index.intValue();
+	}
+
+	/**
+	 * インデックスのグループ名を取得する。
+	 * 
+	 * @param index インデックス
+	 * @return グループ名。未割り当てのインデックスの場合、<code>null</code>を返す。
+	 */
+	public static String nameOf(final int index) {
+		String[] array = names;
+		if (0 > index || array.length <= index) {
+			return null;
+		}
+		return array[index];
+	}
+}
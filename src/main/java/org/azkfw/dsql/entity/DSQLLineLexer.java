@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+/**
+ * このクラスは、ダイナミックSQLの行を解析する字句解析クラスです。
+ * <p>
+ * 1行を1度だけ走査し、行種別(コメント行・SQL行・バインド行)、バインドキーの範囲、およびtrim後の位置を求めます。
+ * 文字列の切り出しは確定した位置に対して1度だけ行います。
+ * </p>
+ * 
+ * <ul>
+ * <li>コメント行: 先頭の空白に続いて<code>#</code>で始まる行</li>
+ * <li>バインド行: 先頭の空白に続いて<code>${</code>で始まり、1文字以上をはさんで<code>}</code>を含む行(バインドキーは最後の<code>}</code>まで)</li>
+ * <li>SQL行: 上記以外の行</li>
+ * </ul>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class DSQLLineLexer {
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * インスタンス生成を禁止する。
+	 * </p>
+	 */
+	private DSQLLineLexer() {
+
+	}
+
+	/**
+	 * 行を解析する。
+	 * 
+	 * @param line 行文字列
+	 * @return 行情報
+	 */
+	static DSQLLineEntity scan(final String line) {
+		DSQLLineEntity dsqll = new DSQLLineEntity();
+		dsqll.setLine(line);
+
+		int length = line.length();
+		int start = 0;
+		while (start < length && isLeadingSpace(line.charAt(start))) {
+			start++;
+		}
+
+		if (start < length && '#' == line.charAt(start)) {
+			dsqll.setComment(true);
+			return dsqll;
+		}
+		dsqll.setComment(false);
+
+		// バインドキーの範囲 [start, end)
+		int end = -1;
+		if (start + 3 < length && '$' == line.charAt(start) && '{' == line.charAt(start + 1)) {
+			int close = line.lastIndexOf('}');
+			if (start + 3 <= close) {
+				end = close + 1;
+			}
+		}
+
+		if (-1 == end) {
+			// SQL行
+			int right = trimRight(line, 0, length);
+			dsqll.setSQL(line.substring(trimLeft(line, 0, right), right));
+			dsqll.setFormatSQL(line.substring(0, right));
+			return dsqll;
+		}
+
+		// バインドSQL行
+		int right = trimRight(line, end, length);
+		dsqll.setSQL(line.substring(trimLeft(line, end, right), right));
+
+		if (end < right) {
+			// バインドキーを空白に置き換える
+			StringBuilder format = new StringBuilder(right);
+			format.append(line, 0, start);
+			for (int i = start; i < end; i++) {
+				format.append(' ');
+			}
+			format.append(line, end, right);
+			dsqll.setFormatSQL(format.toString());
+		} else {
+			dsqll.setFormatSQL(line.substring(0, trimRight(line, 0, start)));
+		}
+
+		// ${...} の内側
+		int bindEnd = trimRight(line, start + 2, end - 1);
+		int bindStart = trimLeft(line, start + 2, bindEnd);
+		int separator = indexOf(line, ':', bindStart, bindEnd);
+		if (bindStart == separator) {
+			// ${:parameter}
+			dsqll.setParameter(trimmed(line, separator + 1, bindEnd));
+		} else if (bindEnd - 1 == separator) {
+			// ${group:}
+			dsqll.setGroup(trimmed(line, bindStart, separator));
+		} else if (-1 == separator) {
+			// ${parameter}
+			dsqll.setParameter(line.substring(bindStart, bindEnd));
+		} else {
+			// ${group:parameter}
+			int next = indexOf(line, ':', separator + 1, bindEnd);
+			dsqll.setGroup(trimmed(line, bindStart, separator));
+			dsqll.setParameter(trimmed(line, separator + 1, (-1 == next) ? bindEnd : next));
+		}
+		return dsqll;
+	}
+
+	/**
+	 * 行頭の空白文字か判断する。
+	 * 
+	 * @param c 文字
+	 * @return 判断結果
+	 */
+	private static boolean isLeadingSpace(final char c) {
+		return ' ' == c || '\t' == c || '\n' == c || 0x0B == c || '\f' == c || '\r' == c;
+	}
+
+	/**
+	 * trim対象の文字か判断する。
+	 * 
+	 * @param c 文字
+	 * @return 判断結果
+	 */
+	private static boolean isTrim(final char c) {
+		return ' ' == c || '\t' == c;
+	}
+
+	/**
+	 * 範囲の先頭の空白を除いた開始位置を取得する。
+	 * 
+	 * @param s 文字列
+	 * @param from 開始位置
+	 * @param to 終了位置
+	 * @return 開始位置
+	 */
+	private static int trimLeft(final String s, final int from, final int to) {
+		int index = from;
+		while (index < to && isTrim(s.charAt(index))) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * 範囲の末尾の空白を除いた終了位置を取得する。
+	 * 
+	 * @param s 文字列
+	 * @param from 開始位置
+	 * @param to 終了位置
+	 * @return 終了位置
+	 */
+	private static int trimRight(final String s, final int from, final int to) {
+		int index = to;
+		while (from < index && isTrim(s.charAt(index - 1))) {
+			index--;
+		}
+		return index;
+	}
+
+	/**
+	 * 範囲の前後の空白を除いた文字列を取得する。
+	 * 
+	 * @param s 文字列
+	 * @param from 開始位置
+	 * @param to 終了位置
+	 * @return 文字列
+	 */
+	private static String trimmed(final String s, final int from, final int to) {
+		int right = trimRight(s, from, to);
+		return s.substring(trimLeft(s, from, right), right);
+	}
+
+	/**
+	 * 範囲内で文字を検索する。
+	 * 
+	 * @param s 文字列
+	 * @param c 文字
+	 * @param from 開始位置
+	 * @param to 終了位置
+	 * @return 位置。存在しない場合、<code>-1</code>を返す。
+	 */
+	private static int indexOf(final String s, final char c, final int from, final int to) {
+		for (int i = from; i < to; i++) {
+			if (c == s.charAt(i)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.List;
+
+/**
+ * このクラスは、ダイナミックSQLファイルの内容を行に分割して解析するクラスです。
+ * <p>
+ * バイト列を固定長の文字バッファへ順次デコードし、バッファ内で完結する行はバッファから直接文字列化して{@link DSQLLineLexer}へ渡します。
+ * バッファをまたぐ行のみ作業用バッファに連結します。
+ * 行の区切りは{@link java.io.BufferedReader#readLine()}と同様に<code>\n</code>、<code>\r</code>、<code>\r\n</code>とします。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class DSQLLineReader {
+
+	/**
+	 * 文字バッファサイズ
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * 行情報リスト
+	 */
+	private final List<DSQLLineEntity> lines;
+
+	/**
+	 * バッファをまたぐ行の作業用バッファ
+	 */
+	private final StringBuilder pending;
+
+	/**
+	 * 直前の文字が<code>\r</code>で、続く<code>\n</code>を読み飛ばす場合、<code>true</code>
+	 */
+	private boolean skipLF;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param lines 行情報リスト
+	 */
+	private DSQLLineReader(final List<DSQLLineEntity> lines) {
+		this.lines = lines;
+		this.pending = new StringBuilder();
+		this.skipLF = false;
+	}
+
+	/**
+	 * ファイル内容を解析し、行情報を追加する。
+	 * <p>
+	 * 不正なバイト列を含む場合は置換せずにエラーとする。
+	 * </p>
+	 * 
+	 * @param data ファイル内容(位置、リミットは変更しない)
+	 * @param charset 文字コード
+	 * @param lines 行情報リスト
+	 * @throws CharacterCodingException 文字コードに従ってデコードできない場合
+	 */
+	static void read(final ByteBuffer data, final Charset charset, final List<DSQLLineEntity> lines) throws CharacterCodingException {
+		CharsetDecoder decoder = charset.newDecoder();
+		decoder.onMalformedInput(CodingErrorAction.REPORT);
+		decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+
+		ByteBuffer in = data.duplicate();
+		CharBuffer out = CharBuffer.allocate(BUFFER_SIZE);
+		DSQLLineReader reader = new DSQLLineReader(lines);
+
+		boolean flushing = false;
+		while (true) {
+			CoderResult result = (flushing) ? decoder.flush(out) : decoder.decode(in, out, true);
+			if (result.isError()) {
+				result.throwException();
+			}
+
+			out.flip();
+			reader.feed(out.array(), out.arrayOffset() + out.position(), out.arrayOffset() + out.limit());
+			out.clear();
+
+			if (result.isUnderflow()) {
+				if (flushing) {
+					break;
+				}
+				flushing = true;
+			}
+		}
+		reader.finish();
+	}
+
+	/**
+	 * デコードした文字を行に分割する。
+	 * <p>
+	 * 範囲内の文字はすべて消費し、終端の区切りのない部分は作業用バッファに保持する。
+	 * </p>
+	 * 
+	 * @param chars 文字配列
+	 * @param from 開始位置
+	 * @param to 終了位置
+	 */
+	private void feed(final char[] chars, final int from, final int to) {
+		int mark = from;
+		if (skipLF && mark < to) {
+			skipLF = false;
+			if ('\n' == chars[mark]) {
+				mark++;
+			}
+		}
+
+		for (int i = mark; i < to; i++) {
+			char c = chars[i];
+			if ('\n' != c && '\r' != c) {
+				continue;
+			}
+			emit(chars, mark, i);
+			if ('\r' == c) {
+				if (i + 1 < to) {
+					if ('\n' == chars[i + 1]) {
+						i++;
+					}
+				} else {
+					skipLF = true;
+				}
+			}
+			mark = i + 1;
+		}
+
+		if (mark < to) {
+			pending.append(chars, mark, to - mark);
+		}
+	}
+
+	/**
+	 * 終端の区切りのない最終行を解析する。
+	 */
+	private void finish() {
+		if (0 < pending.length()) {
+			lines.add(DSQLLineLexer.scan(pending.toString()));
+			pending.setLength(0);
+		}
+	}
+
+	/**
+	 * 1行を解析する。
+	 * 
+	 * @param chars 文字配列
+	 * @param from 開始位置
+	 * @param to 終了位置(区切り文字を含まない)
+	 */
+	private void emit(final char[] chars, final int from, final int to) {
+		String line = null;
+		if (0 == pending.length()) {
+			line = new String(chars, from, to - from);
+		} else {
+			pending.append(chars, from, to - from);
+			line = pending.toString();
+			pending.setLength(0);
+		}
+		lines.add(DSQLLineLexer.scan(line));
+	}
+}
@@ -0,0 +1,595 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、ダイナミックSQLの実行プランを保持するクラスです。
+ * <p>
+ * ロード時に{@link DSQLEntity}の行情報をコンパイルし、コメント行を除いたSQL断片、命令コード、バインド位置を配列で保持します。
+ * ビルド時は行情報を走査せず、本クラスの配列のみを参照します。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DSQLPlan {
+
+	/**
+	 * 命令コード: 常に出力
+	 */
+	public static final byte OP_ALWAYS = 0x00;
+
+	/**
+	 * 命令コード: グループが有効な場合のみ出力
+	 */
+	public static final byte OP_GROUP = 0x01;
+
+	/**
+	 * 命令コード: パラメータが存在する場合のみ出力
+	 */
+	public static final byte OP_PARAMETER = 0x02;
+
+	/**
+	 * 命令コード: バインド記号を含み、パラメータがリストの場合に展開する
+	 */
+	public static final byte OP_EXPAND = 0x04;
+
+	/**
+	 * バインド記号
+	 */
+	private static final char BIND = '?';
+
+	/**
+	 * 整形用SQLの改行コード
+	 */
+	private static final String FORMAT_LINE_SEPARATOR = "\n";
+
+	/**
+	 * 命令数
+	 */
+	private final int size;
+
+	/**
+	 * 命令コード
+	 */
+	private final byte[] operations;
+
+	/**
+	 * 実行用SQL断片(trim済み)
+	 */
+	private final String[] executeSQLs;
+
+	/**
+	 * 整形用SQL断片
+	 */
+	private final String[] formatSQLs;
+
+	/**
+	 * グループ名
+	 */
+	private final String[] groups;
+
+	/**
+	 * グループインデックス
+	 */
+	private final int[] groupIndexes;
+
+	/**
+	 * パラメータ名
+	 */
+	private final String[] parameters;
+
+	/**
+	 * パラメータスロット
+	 */
+	private final int[] parameterSlots;
+
+	/**
+	 * 実行用SQL断片のバインド位置
+	 */
+	private final int[][] executeBindIndexes;
+
+	/**
+	 * 整形用SQL断片のバインド位置
+	 */
+	private final int[][] formatBindIndexes;
+
+	/**
+	 * 形状キャッシュ
+	 */
+	private final DSQLShapeCache shapeCache;
+
+	/**
+	 * パラメータ配置情報
+	 */
+	private ParameterLayout parameterLayout;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param size 命令数
+	 */
+	private DSQLPlan(final int size) {
+		this.size = size;
+		operations = new byte[size];
+		executeSQLs = new String[size];
+		formatSQLs = new String[size];
+		groups = new String[size];
+		groupIndexes = new int[size];
+		parameters = new String[size];
+		parameterSlots = new int[size];
+		executeBindIndexes = new int[size][];
+		formatBindIndexes = new int[size][];
+		shapeCache = new DSQLShapeCache();
+	}
+
+	/**
+	 * 命令数を取得する。
+	 * 
+	 * @return 命令数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 命令コード配列を取得する。
+	 * 
+	 * @return 命令コード配列
+	 */
+	public byte[] getOperations() {
+		return operations;
+	}
+
+	/**
+	 * 実行用SQL断片配列を取得する。
+	 * 
+	 * @return 実行用SQL断片配列
+	 */
+	public String[] getExecuteSQLs() {
+		return executeSQLs;
+	}
+
+	/**
+	 * 整形用SQL断片配列を取得する。
+	 * 
+	 * @return 整形用SQL断片配列
+	 */
+	public String[] getFormatSQLs() {
+		return formatSQLs;
+	}
+
+	/**
+	 * グループ名配列を取得する。
+	 * 
+	 * @return グループ名配列
+	 */
+	public String[] getGroups() {
+		return groups;
+	}
+
+	/**
+	 * グループインデックス配列を取得する。
+	 * <p>
+	 * グループ判定を行わない命令のインデックスは<code>-1</code>となる。
+	 * </p>
+	 * 
+	 * @return グループインデックス配列
+	 * @see DSQLGroupIndex
+	 */
+	public int[] getGroupIndexes() {
+		return groupIndexes;
+	}
+
+	/**
+	 * パラメータ名配列を取得する。
+	 * 
+	 * @return パラメータ名配列
+	 */
+	public String[] getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * パラメータスロット配列を取得する。
+	 * <p>
+	 * パラメータを参照しない命令のスロットは<code>-1</code>となる。
+	 * </p>
+	 * 
+	 * @return パラメータスロット配列
+	 */
+	public int[] getParameterSlots() {
+		return parameterSlots;
+	}
+
+	/**
+	 * 命令の実行用SQL断片に含まれるバインド記号の数を取得する。
+	 * <p>
+	 * 行リストで展開する場合、1行あたりのバインド記号の数となる。
+	 * </p>
+	 * 
+	 * @param index 命令インデックス
+	 * @return バインド記号の数
+	 */
+	public int getBindCount(final int index) {
+		return executeBindIndexes[index].length;
+	}
+
+	/**
+	 * パラメータ配置情報を取得する。
+	 * 
+	 * @return パラメータ配置情報
+	 */
+	public ParameterLayout getParameterLayout() {
+		return parameterLayout;
+	}
+
+	/**
+	 * 実行用SQL断片のバインド位置配列を取得する。
+	 * 
+	 * @return バインド位置配列
+	 */
+	public int[][] getExecuteBindIndexes() {
+		return executeBindIndexes;
+	}
+
+	/**
+	 * 整形用SQL断片のバインド位置配列を取得する。
+	 * 
+	 * @return バインド位置配列
+	 */
+	public int[][] getFormatBindIndexes() {
+		return formatBindIndexes;
+	}
+
+	/**
+	 * 形状キャッシュを取得する。
+	 * 
+	 * @return 形状キャッシュ
+	 */
+	public DSQLShapeCache getShapeCache() {
+		return shapeCache;
+	}
+
+	/**
+	 * 形状より実行用SQLを生成する。
+	 * 
+	 * @param states 命令ごとの状態
+	 * @return 実行用SQL
+	 * @see DSQLShapeCache.Key
+	 */
+	public String renderExecuteSQL(final int[] states) {
+		return render(states, executeSQLs, executeBindIndexes, " ");
+	}
+
+	/**
+	 * 形状より整形用SQLを生成する。
+	 * 
+	 * @param states 命令ごとの状態
+	 * @return 整形用SQL
+	 * @see DSQLShapeCache.Key
+	 */
+	public String renderFormatSQL(final int[] states) {
+		return render(states, formatSQLs, formatBindIndexes, FORMAT_LINE_SEPARATOR);
+	}
+
+	/**
+	 * 形状よりSQLを生成する。
+	 * <p>
+	 * 断片の区切りは、実行用SQLとして出力済みの内容がある場合に追加する(整形用SQLも実行用SQLに合わせる)。
+	 * </p>
+	 * 
+	 * @param states 命令ごとの状態
+	 * @param sqls SQL断片
+	 * @param bindIndexes SQL断片のバインド位置
+	 * @param separator 断片の区切り
+	 * @return SQL
+	 */
+	private String render(final int[] states, final String[] sqls, final int[][] bindIndexes, final String separator) {
+		StringBuilder s = new StringBuilder();
+		boolean emitted = false;
+		for (int i = 0; i < states.length; i++) {
+			int state = states[i];
+			if (DSQLShapeCache.Key.SKIP == state) {
+				continue;
+			}
+
+			if (emitted) {
+				s.append(separator);
+			}
+			if (0 <= state) {
+				appendExpand(s, sqls[i], bindIndexes[i], state);
+			} else if (DSQLShapeCache.Key.isRows(state)) {
+				appendRows(s, sqls[i], bindIndexes[i], DSQLShapeCache.Key.rowCount(state));
+			} else {
+				s.append(sqls[i]);
+			}
+			emitted = emitted || isExecuteEmitted(i, state);
+		}
+		return s.toString();
+	}
+
+	/**
+	 * 実行用SQL断片の出力が空でないか判断する。
+	 * 
+	 * @param index 命令インデックス
+	 * @param state 状態
+	 * @return 空でない場合、<code>true</code>を返す。
+	 */
+	private boolean isExecuteEmitted(final int index, final int state) {
+		int length = executeSQLs[index].length();
+		if (DSQLShapeCache.Key.isRows(state)) {
+			int[] span = rowSpan(executeSQLs[index], executeBindIndexes[index]);
+			return 0 < DSQLShapeCache.Key.rowCount(state) || span[1] - span[0] < length;
+		}
+		if (0 > state) {
+			return 0 < length;
+		}
+		int binds = executeBindIndexes[index].length;
+		return binds < length || (0 < binds && 0 < state);
+	}
+
+	/**
+	 * バインド記号をリストのサイズ分展開してSQL断片を追加する。
+	 * 
+	 * @param s 出力先
+	 * @param sql SQL断片
+	 * @param indexes バインド位置
+	 * @param count 展開数
+	 */
+	private static void appendExpand(final StringBuilder s, final String sql, final int[] indexes, final int count) {
+		int offset = 0;
+		for (int index : indexes) {
+			s.append(sql, offset, index);
+			for (int i = 0; i < count; i++) {
+				if (i != 0) {
+					s.append(", ");
+				}
+				s.append(BIND);
+			}
+			offset = index + 1;
+		}
+		s.append(sql, offset, sql.length());
+	}
+
+	/**
+	 * バインド記号を囲む括弧の範囲を行数分繰り返してSQL断片を追加する。
+	 * 
+	 * @param s 出力先
+	 * @param sql SQL断片
+	 * @param indexes バインド位置
+	 * @param count 行数
+	 */
+	private static void appendRows(final StringBuilder s, final String sql, final int[] indexes, final int count) {
+		int[] span = rowSpan(sql, indexes);
+		s.append(sql, 0, span[0]);
+		for (int i = 0; i < count; i++) {
+			if (i != 0) {
+				s.append(", ");
+			}
+			s.append(sql, span[0], span[1]);
+		}
+		s.append(sql, span[1], sql.length());
+	}
+
+	/**
+	 * 行リストで繰り返す範囲を取得する。
+	 * <p>
+	 * 最初のバインド記号を囲む括弧のうち、最後のバインド記号も囲む括弧の範囲とする。
+	 * 該当する括弧がない場合はSQL断片全体とする。
+	 * </p>
+	 * 
+	 * @param sql SQL断片
+	 * @param indexes バインド位置
+	 * @return 範囲 [開始位置, 終了位置)
+	 */
+	static int[] rowSpan(final String sql, final int[] indexes) {
+		int first = indexes[0];
+		int last = indexes[indexes.length - 1];
+		int depth = 0;
+		for (int start = first - 1; 0 <= start; start--) {
+			char c = sql.charAt(start);
+			if (')' == c) {
+				depth++;
+			} else if ('(' == c) {
+				if (0 < depth) {
+					depth--;
+					continue;
+				}
+				int end = closeOf(sql, start);
+				if (last < end) {
+					return new int[] { start, end + 1 };
+				}
+			}
+		}
+		return new int[] { 0, sql.length() };
+	}
+
+	/**
+	 * 対応する閉じ括弧の位置を取得する。
+	 * 
+	 * @param sql SQL断片
+	 * @param open 開き括弧の位置
+	 * @return 閉じ括弧の位置。存在しない場合、<code>-1</code>を返す。
+	 */
+	private static int closeOf(final String sql, final int open) {
+		int depth = 0;
+		for (int i = open + 1; i < sql.length(); i++) {
+			char c = sql.charAt(i);
+			if ('(' == c) {
+				depth++;
+			} else if (')' == c) {
+				if (0 == depth) {
+					return i;
+				}
+				depth--;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 行情報より実行プランを生成する。
+	 * <p>
+	 * コメント行は除外し、連続する常時出力行は1つの断片に結合する。
+	 * </p>
+	 * 
+	 * @param lines 行情報リスト
+	 * @return 実行プラン
+	 */
+	static DSQLPlan compile(final List<DSQLLineEntity> lines) {
+		List<DSQLLineEntity> targets = new ArrayList<DSQLLineEntity>(lines.size());
+		for (DSQLLineEntity line : lines) {
+			if (!line.isComment()) {
+				targets.add(line);
+			}
+		}
+
+		// 結合後の命令数を算出
+		int size = 0;
+		boolean joinable = false;
+		for (DSQLLineEntity line : targets) {
+			boolean always = isJoinable(line);
+			if (!(always && joinable)) {
+				size++;
+			}
+			joinable = always;
+		}
+
+		DSQLPlan plan = new DSQLPlan(size);
+		Map<String, Integer> slots = new LinkedHashMap<String, Integer>();
+		int index = -1;
+		joinable = false;
+		for (DSQLLineEntity line : targets) {
+			boolean always = isJoinable(line);
+			if (always && joinable) {
+				// 直前の常時出力行と結合
+				plan.executeSQLs[index] = plan.executeSQLs[index] + " " + line.getSQL();
+				plan.formatSQLs[index] = plan.formatSQLs[index] + "\n" + line.getFormatSQL();
+			} else {
+				index++;
+				byte operation = OP_ALWAYS;
+				plan.groupIndexes[index] = -1;
+				plan.parameterSlots[index] = -1;
+				if (line.isGroup()) {
+					operation |= OP_GROUP;
+					plan.groups[index] = line.getGroup();
+					plan.groupIndexes[index] = DSQLGroupIndex.indexOf(line.getGroup());
+				}
+				if (line.isParameter()) {
+					operation |= OP_PARAMETER;
+					plan.parameters[index] = line.getParameter();
+					Integer slot = slots.get(line.getParameter());
+					if (null == slot) {
+						slot = Integer.valueOf(slots.size());
+						slots.put(line.getParameter(), slot);
+					}
+					plan.parameterSlots[index] = slot.intValue();
+					plan.executeBindIndexes[index] = indexesOf(line.getSQL());
+					plan.formatBindIndexes[index] = indexesOf(line.getFormatSQL());
+					if (0 < plan.executeBindIndexes[index].length) {
+						operation |= OP_EXPAND;
+					}
+				}
+				plan.operations[index] = operation;
+				plan.executeSQLs[index] = line.getSQL();
+				plan.formatSQLs[index] = line.getFormatSQL();
+			}
+			joinable = always;
+		}
+		plan.parameterLayout = new ParameterLayout(slots.keySet().toArray(new String[slots.size()]));
+		return plan;
+	}
+
+	/**
+	 * コンパイル済みの配列より実行プランを復元する。
+	 * <p>
+	 * グループインデックスはプロセス内で採番されるため、グループ名より再取得する。
+	 * </p>
+	 * 
+	 * @param operations 命令コード
+	 * @param executeSQLs 実行用SQL断片
+	 * @param formatSQLs 整形用SQL断片
+	 * @param groups グループ名
+	 * @param parameters パラメータ名
+	 * @param parameterSlots パラメータスロット
+	 * @param layout スロットごとのパラメータ名
+	 * @return 実行プラン
+	 */
+	static DSQLPlan restore(final byte[] operations, final String[] executeSQLs, final String[] formatSQLs, final String[] groups,
+			final String[] parameters, final int[] parameterSlots, final String[] layout) {
+		DSQLPlan plan = new DSQLPlan(operations.length);
+		for (int i = 0; i < plan.size; i++) {
+			plan.operations[i] = operations[i];
+			plan.executeSQLs[i] = executeSQLs[i];
+			plan.formatSQLs[i] = formatSQLs[i];
+			plan.groups[i] = groups[i];
+			plan.groupIndexes[i] = (null == groups[i]) ? -1 : DSQLGroupIndex.indexOf(groups[i]);
+			plan.parameters[i] = parameters[i];
+			plan.parameterSlots[i] = parameterSlots[i];
+			if (0 != (operations[i] & OP_PARAMETER)) {
+				plan.executeBindIndexes[i] = indexesOf(executeSQLs[i]);
+				plan.formatBindIndexes[i] = indexesOf(formatSQLs[i]);
+			}
+		}
+		plan.parameterLayout = new ParameterLayout(layout);
+		return plan;
+	}
+
+	/**
+	 * 前後の行と結合可能な常時出力行か判断する。
+	 * <p>
+	 * 空の断片は区切り文字の出力有無に影響するため結合対象外とする。
+	 * </p>
+	 * 
+	 * @param line 行情報
+	 * @return 判断結果
+	 */
+	private static boolean isJoinable(final DSQLLineEntity line) {
+		return !line.isGroup() && !line.isParameter() && 0 < line.getSQL().length();
+	}
+
+	/**
+	 * バインド記号の位置を取得する。
+	 * 
+	 * @param sql SQL断片
+	 * @return バインド位置配列
+	 */
+	private static int[] indexesOf(final String sql) {
+		int count = 0;
+		for (int i = 0; i < sql.length(); i++) {
+			if (BIND == sql.charAt(i)) {
+				count++;
+			}
+		}
+		int[] indexes = new int[count];
+		int index = 0;
+		for (int i = 0; i < sql.length(); i++) {
+			if (BIND == sql.charAt(i)) {
+				indexes[index++] = i;
+			}
+		}
+		return indexes;
+	}
+}
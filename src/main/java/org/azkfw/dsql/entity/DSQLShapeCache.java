@@ -0,0 +1,591 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * このクラスは、生成済みSQLを形状(シェイプ)単位でキャッシュするクラスです。
+ * <p>
+ * 形状は実行プランの命令ごとの出力有無とリスト展開数で決まり、同一形状であれば生成されるSQL文字列も同一となります。
+ * 参照はロックフリーで行い、容量を超えた場合は参照ビットによる近似LRU(クロック方式)で形状を破棄します。
+ * 参照ビットは未設定の場合のみ書き込み、ヒット・ミス回数はスレッドごとに分散したカウンターで数えるため、
+ * 同じ形状を多数のスレッドで参照しても共有データへの書き込みは競合しません。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DSQLShapeCache {
+
+	/**
+	 * デフォルト容量
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	/**
+	 * カウンターの分散数(2のべき乗)
+	 */
+	private static final int STRIPES = 4;
+
+	/**
+	 * カウンターの間隔(64バイト)
+	 */
+	private static final int PADDING = 8;
+
+	/**
+	 * ヒット回数の位置
+	 */
+	private static final int HIT = 0;
+
+	/**
+	 * ミス回数の位置
+	 */
+	private static final int MISS = 1;
+
+	/**
+	 * 新規キャッシュの容量
+	 */
+	private static volatile int defaultCapacity = DEFAULT_CAPACITY;
+
+	/**
+	 * 容量
+	 */
+	private final int capacity;
+
+	/**
+	 * 形状マップ
+	 */
+	private final ConcurrentMap<Key, Shape> shapes;
+
+	/**
+	 * スレッドごとのヒット・ミス回数
+	 */
+	private final AtomicLongArray counts;
+
+	/**
+	 * 破棄回数
+	 */
+	private final AtomicLong evictionCount;
+
+	/**
+	 * コンストラクタ
+	 */
+	public DSQLShapeCache() {
+		this(defaultCapacity);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param capacity 容量。<code>0</code>の場合、キャッシュしない。
+	 */
+	public DSQLShapeCache(final int capacity) {
+		if (0 > capacity) {
+			throw new IllegalArgumentException(String.format("Invalid capacity.[%d]", capacity));
+		}
+		this.capacity = capacity;
+		shapes = new ConcurrentHashMap<Key, Shape>();
+		counts = new AtomicLongArray(STRIPES * PADDING);
+		evictionCount = new AtomicLong();
+	}
+
+	/**
+	 * 新規に生成するキャッシュの容量を設定する。
+	 * <p>
+	 * 設定以降にロードされたダイナミックSQLに適用される。
+	 * </p>
+	 * 
+	 * @param capacity 容量。<code>0</code>の場合、キャッシュしない。
+	 */
+	public static void setDefaultCapacity(final int capacity) {
+		if (0 > capacity) {
+			throw new IllegalArgumentException(String.format("Invalid capacity.[%d]", capacity));
+		}
+		defaultCapacity = capacity;
+	}
+
+	/**
+	 * 新規に生成するキャッシュの容量を取得する。
+	 * 
+	 * @return 容量
+	 */
+	public static int getDefaultCapacity() {
+		return defaultCapacity;
+	}
+
+	/**
+	 * 形状を取得する。
+	 * 
+	 * @param key 形状キー
+	 * @return 形状。キャッシュに存在しない場合、<code>null</code>を返す。
+	 */
+	public Shape get(final Key key) {
+		return lookup(key);
+	}
+
+	/**
+	 * 形状を取得する。
+	 * <p>
+	 * 再利用する検索キーで検索し、形状キーを生成しない。
+	 * </p>
+	 * 
+	 * @param probe 検索キー
+	 * @return 形状。キャッシュに存在しない場合、<code>null</code>を返す。
+	 */
+	public Shape get(final Probe probe) {
+		return lookup(probe);
+	}
+
+	/**
+	 * 形状を検索する。
+	 * 
+	 * @param key 形状キーまたは検索キー
+	 * @return 形状。キャッシュに存在しない場合、<code>null</code>を返す。
+	 */
+	private Shape lookup(final Object key) {
+		Shape shape = shapes.get(key);
+		int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+		if (null == shape) {
+			counts.incrementAndGet(stripe + MISS);
+		} else {
+			counts.incrementAndGet(stripe + HIT);
+			if (!shape.referenced) {
+				shape.referenced = true;
+			}
+		}
+		return shape;
+	}
+
+	/**
+	 * 形状を登録する。
+	 * 
+	 * @param key 形状キー
+	 * @param shape 形状
+	 * @return 登録された形状。既に同一キーの形状が存在する場合、既存の形状を返す。
+	 */
+	public Shape put(final Key key, final Shape shape) {
+		if (0 == capacity) {
+			return shape;
+		}
+		Shape old = shapes.putIfAbsent(key, shape);
+		if (null != old) {
+			return old;
+		}
+		if (capacity < shapes.size()) {
+			evict();
+		}
+		return shape;
+	}
+
+	/**
+	 * 容量を超えた形状を破棄する。
+	 * <p>
+	 * 参照ビットが設定された形状はビットを解除して残し(セカンドチャンス)、未設定の形状を破棄する。
+	 * 全ての形状の参照ビットが設定されていた場合も、2巡目で破棄する形状が決まる。
+	 * </p>
+	 */
+	private synchronized void evict() {
+		while (capacity < shapes.size()) {
+			Key victim = null;
+			for (int pass = 0; pass < 2 && null == victim; pass++) {
+				for (Map.Entry<Key, Shape> entry : shapes.entrySet()) {
+					Shape shape = entry.getValue();
+					if (shape.referenced) {
+						shape.referenced = false;
+					} else {
+						victim = entry.getKey();
+						break;
+					}
+				}
+			}
+			if (null == victim) {
+				break;
+			}
+			if (null != shapes.remove(victim)) {
+				evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * キャッシュをクリアする。
+	 */
+	public void clear() {
+		shapes.clear();
+	}
+
+	/**
+	 * 容量を取得する。
+	 * 
+	 * @return 容量
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * キャッシュ済みの形状数を取得する。
+	 * 
+	 * @return 形状数
+	 */
+	public int size() {
+		return shapes.size();
+	}
+
+	/**
+	 * ヒット回数を取得する。
+	 * 
+	 * @return ヒット回数
+	 */
+	public long getHitCount() {
+		return sum(HIT);
+	}
+
+	/**
+	 * ミス回数を取得する。
+	 * 
+	 * @return ミス回数
+	 */
+	public long getMissCount() {
+		return sum(MISS);
+	}
+
+	/**
+	 * 破棄回数を取得する。
+	 * 
+	 * @return 破棄回数
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * スレッドごとの回数を合計する。
+	 * 
+	 * @param offset 回数の位置
+	 * @return 合計
+	 */
+	private long sum(final int offset) {
+		long sum = 0L;
+		for (int i = 0; i < STRIPES; i++) {
+			sum += counts.get(i * PADDING + offset);
+		}
+		return sum;
+	}
+
+	/**
+	 * このクラスは、形状キーを保持するクラスです。
+	 * <p>
+	 * 実行プランの命令ごとの状態({@link #SKIP}、{@link #EMIT}、または0以上のリスト展開数)を保持します。
+	 * </p>
+	 * 
+	 * @since 1.7.0
+	 * @version 1.7.0 2026/10/17
+	 * @author Kawakicchi
+	 */
+	public static final class Key {
+
+		/**
+		 * 状態: 出力しない
+		 */
+		public static final int SKIP = -1;
+
+		/**
+		 * 状態: そのまま出力する
+		 */
+		public static final int EMIT = -2;
+
+		/**
+		 * 状態: 行リストを0行で展開する
+		 * <p>
+		 * 行リストの展開は<code>ROWS - 行数</code>で表す(<code>0</code>以上はリストの展開数)。
+		 * </p>
+		 */
+		public static final int ROWS = -3;
+
+		/**
+		 * 命令ごとの状態
+		 */
+		private final int[] states;
+
+		/**
+		 * ハッシュ値
+		 */
+		private final int hash;
+
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param states 命令ごとの状態
+		 */
+		public Key(final int[] states) {
+			this.states = states;
+			this.hash = Arrays.hashCode(states);
+		}
+
+		/**
+		 * 行リストの展開を表す状態を取得する。
+		 * 
+		 * @param count 行数
+		 * @return 状態
+		 */
+		public static int rows(final int count) {
+			return ROWS - count;
+		}
+
+		/**
+		 * 状態が行リストの展開か判断する。
+		 * 
+		 * @param state 状態
+		 * @return 判断結果
+		 */
+		public static boolean isRows(final int state) {
+			return ROWS >= state;
+		}
+
+		/**
+		 * 行リストの展開を表す状態より行数を取得する。
+		 * 
+		 * @param state 状態
+		 * @return 行数
+		 */
+		public static int rowCount(final int state) {
+			return ROWS - state;
+		}
+
+		/**
+		 * 命令ごとの状態を取得する。
+		 * 
+		 * @return 状態配列
+		 */
+		public int[] getStates() {
+			return states;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj instanceof Probe) {
+				return obj.equals(this);
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && Arrays.equals(states, other.states);
+		}
+	}
+
+	/**
+	 * このクラスは、形状キャッシュを検索するための再利用可能なキーです。
+	 * <p>
+	 * 状態配列の先頭から指定数の要素を{@link Key}と同じ規則で比較します。
+	 * 検索中に状態配列を変更しないこと。スレッドセーフではありません。
+	 * </p>
+	 * 
+	 * @since 1.7.0
+	 * @version 1.7.0 2026/10/17
+	 * @author Kawakicchi
+	 */
+	public static final class Probe {
+
+		/**
+		 * 命令ごとの状態
+		 */
+		private int[] states;
+
+		/**
+		 * 有効な要素数
+		 */
+		private int length;
+
+		/**
+		 * ハッシュ値
+		 */
+		private int hash;
+
+		/**
+		 * コンストラクタ
+		 */
+		public Probe() {
+			states = new int[0];
+		}
+
+		/**
+		 * 検索対象の状態を設定する。
+		 * 
+		 * @param states 命令ごとの状態(配列は複製しない)
+		 * @param length 有効な要素数
+		 */
+		public void reset(final int[] states, final int length) {
+			int h = 1;
+			for (int i = 0; i < length; i++) {
+				h = 31 * h + states[i];
+			}
+			this.states = states;
+			this.length = length;
+			this.hash = h;
+		}
+
+		/**
+		 * 検索対象の状態より形状キーを生成する。
+		 * 
+		 * @return 形状キー
+		 */
+		public Key toKey() {
+			return new Key(Arrays.copyOf(states, length));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			if (hash != other.hash || length != other.states.length) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (states[i] != other.states[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * このクラスは、形状ごとの生成済みSQLを保持するクラスです。
+	 * <p>
+	 * 整形済みSQLはログ出力等で参照された時点で実行プランより生成します。
+	 * </p>
+	 * 
+	 * @since 1.7.0
+	 * @version 1.7.0 2026/10/17
+	 * @author Kawakicchi
+	 */
+	public static final class Shape {
+
+		/**
+		 * 実行用SQL
+		 */
+		private final String executeSQL;
+
+		/**
+		 * 実行プラン。整形済みSQLを生成済みの場合、<code>null</code>
+		 */
+		private volatile DSQLPlan plan;
+
+		/**
+		 * 命令ごとの状態
+		 */
+		private volatile int[] states;
+
+		/**
+		 * 整形済みSQL。<code>null</code>の場合、未生成
+		 */
+		private volatile String formatSQL;
+
+		/**
+		 * 参照ビット。登録後に参照された場合に設定し、未設定の場合のみ書き込む。
+		 */
+		private volatile boolean referenced;
+
+		/**
+		 * コンストラクタ
+		 * <p>
+		 * SQL文字列はインターンされた状態で保持する。
+		 * </p>
+		 * 
+		 * @param executeSQL 実行用SQL
+		 * @param formatSQL 整形済みSQL
+		 */
+		public Shape(final String executeSQL, final String formatSQL) {
+			this.executeSQL = executeSQL.intern();
+			this.formatSQL = formatSQL.intern();
+		}
+
+		/**
+		 * コンストラクタ
+		 * <p>
+		 * 整形済みSQLは{@link #getFormatSQL()}の初回呼び出し時に生成する。
+		 * </p>
+		 * 
+		 * @param executeSQL 実行用SQL
+		 * @param plan 実行プラン
+		 * @param states 命令ごとの状態
+		 */
+		public Shape(final String executeSQL, final DSQLPlan plan, final int[] states) {
+			this.executeSQL = executeSQL.intern();
+			this.states = states;
+			this.plan = plan;
+		}
+
+		/**
+		 * 実行用SQLを取得する。
+		 * 
+		 * @return 実行用SQL
+		 */
+		public String getExecuteSQL() {
+			return executeSQL;
+		}
+
+		/**
+		 * 整形済みSQLを取得する。
+		 * 
+		 * @return 整形済みSQL
+		 */
+		public String getFormatSQL() {
+			String result = formatSQL;
+			if (null == result) {
+				synchronized (this) {
+					result = formatSQL;
+					if (null == result) {
+						result = plan.renderFormatSQL(states).intern();
+						formatSQL = result;
+						plan = null;
+						states = null;
+					}
+				}
+			}
+			return result;
+		}
+	}
+}
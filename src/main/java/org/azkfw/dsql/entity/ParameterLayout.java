@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.entity;
+
+import java.lang.invoke.MethodHandle;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * このクラスは、ダイナミックSQLのパラメータ配置情報を保持するクラスです。
+ * <p>
+ * ダイナミックSQLが参照するパラメータ名ごとに配列上の位置(スロット)を割り当てます。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class ParameterLayout {
+
+	/**
+	 * スロットごとのパラメータ名
+	 */
+	private final String[] names;
+
+	/**
+	 * パラメータ名ごとのスロット
+	 */
+	private final Map<String, Integer> slots;
+
+	/**
+	 * Beanのクラスごとのスロットごとの値の取得方法
+	 */
+	private final ClassValue<MethodHandle[]> accessors = new ClassValue<MethodHandle[]>() {
+		@Override
+		protected MethodHandle[] computeValue(final Class<?> type) {
+			BeanProperties properties = BeanProperties.of(type);
+			MethodHandle[] handles = new MethodHandle[names.length];
+			for (int i = 0; i < names.length; i++) {
+				handles[i] = properties.getGetter(names[i]);
+			}
+			return handles;
+		}
+	};
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param names スロットごとのパラメータ名
+	 */
+	ParameterLayout(final String[] names) {
+		this.names = names;
+		slots = new HashMap<String, Integer>();
+		for (int i = 0; i < names.length; i++) {
+			slots.put(names[i], Integer.valueOf(i));
+		}
+	}
+
+	/**
+	 * スロット数を取得する。
+	 * 
+	 * @return スロット数
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * パラメータ名のスロットを取得する。
+	 * 
+	 * @param name パラメータ名
+	 * @return スロット。パラメータ名が存在しない場合、<code>-1</code>を返す。
+	 */
+	public int indexOf(final String name) {
+		Integer slot = slots.get(name);
+		if (null == slot) {
+			return -1;
+		}
+		return slot.intValue();
+	}
+
+	/**
+	 * スロットのパラメータ名を取得する。
+	 * 
+	 * @param slot スロット
+	 * @return パラメータ名
+	 */
+	public String getName(final int slot) {
+		return names[slot];
+	}
+
+	/**
+	 * Beanのスロットごとの値の取得方法を取得する。
+	 * <p>
+	 * クラスごとに一度だけ生成する。型は<code>Object (Object)</code>、スロットに対応するプロパティが存在しない場合は<code>null</code>です。
+	 * 返却する配列は変更しないこと。
+	 * </p>
+	 * 
+	 * @param type Beanのクラス
+	 * @return スロットごとの値の取得方法
+	 */
+	public MethodHandle[] getAccessors(final Class<?> type) {
+		return accessors.get(type);
+	}
+}
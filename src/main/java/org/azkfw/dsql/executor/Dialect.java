@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+/**
+ * この列挙型は、データベースごとの1ステートメントあたりのバインド数の上限を定義します。
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ * @see DynamicSQLExecutor#setDialect(Dialect)
+ */
+public enum Dialect {
+
+	/** PostgreSQL */
+	POSTGRESQL(65535),
+
+	/** MySQL */
+	MYSQL(65535),
+
+	/** Oracle */
+	ORACLE(65535),
+
+	/** SQL Server */
+	SQLSERVER(2100);
+
+	/**
+	 * バインド数の上限
+	 */
+	private final int maxBindCount;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param maxBindCount バインド数の上限
+	 */
+	private Dialect(final int maxBindCount) {
+		this.maxBindCount = maxBindCount;
+	}
+
+	/**
+	 * バインド数の上限を取得する。
+	 * 
+	 * @return バインド数の上限
+	 */
+	public int getMaxBindCount() {
+		return maxBindCount;
+	}
+}
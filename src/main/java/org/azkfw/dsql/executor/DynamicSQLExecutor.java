@@ -0,0 +1,1178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.azkfw.dsql.DynamicSQL;
+import org.azkfw.dsql.DynamicSQLBuffer;
+import org.azkfw.dsql.DynamicSQLManager;
+import org.azkfw.dsql.Group;
+import org.azkfw.dsql.IndexedParameter;
+import org.azkfw.dsql.Parameter;
+import org.azkfw.dsql.RowList;
+import org.azkfw.dsql.StatementHandle;
+import org.azkfw.dsql.metrics.DynamicSQLMetrics;
+import org.azkfw.dsql.metrics.StatementMetrics;
+
+/**
+ * このクラスは、ダイナミックSQLを{@link PreparedStatement}で実行するクラスです。
+ * <p>
+ * 生成結果のパラメータを<code>List</code>に複製せずに、パラメータ配列から直接ステートメントに設定します。
+ * 値は型ごとのメソッド(<code>setLong</code>、<code>setInt</code>、<code>setString</code>、<code>setTimestamp</code>等)で設定し、
+ * パラメータ位置ごとに選択した型を実行用SQLごとに保持します。以降の実行では値の型が一致する限り型判定を行いません。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフです。アプリケーションで1つのインスタンスを共有できます。
+ * </p>
+ * 
+ * <pre>
+ * DynamicSQLExecutor executor = new DynamicSQLExecutor();
+ * int count = executor.executeUpdate(connection, "ns", "updateName", null, parameter);
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class DynamicSQLExecutor {
+
+	/**
+	 * 型情報を保持する実行用SQLの上限数
+	 */
+	private static final int MAX_SHAPES = 4096;
+
+	/**
+	 * デフォルトのバッチサイズ
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/**
+	 * バッチ実行時に同時に開くステートメント数のデフォルト
+	 */
+	public static final int DEFAULT_MAX_BATCH_STATEMENTS = 16;
+
+	/**
+	 * 実行用SQLごとのパラメータ位置ごとのバインダー
+	 */
+	private final ConcurrentMap<String, ParameterBinder[]> binders;
+
+	/**
+	 * バッチサイズ
+	 */
+	private volatile int batchSize;
+
+	/**
+	 * バッチ実行時に同時に開くステートメント数の上限
+	 */
+	private volatile int maxBatchStatements;
+
+	/**
+	 * 1ステートメントあたりのバインド数の上限
+	 */
+	private volatile int maxBindCount;
+
+	/**
+	 * クラス名ごとの行マッパー
+	 */
+	private final ConcurrentMap<String, RowMapper<?>> mappers;
+
+	/**
+	 * デフォルトのフェッチサイズ
+	 */
+	private volatile int fetchSize;
+
+	/**
+	 * コンストラクタ
+	 */
+	public DynamicSQLExecutor() {
+		binders = new ConcurrentHashMap<String, ParameterBinder[]>();
+		mappers = new ConcurrentHashMap<String, RowMapper<?>>();
+		batchSize = DEFAULT_BATCH_SIZE;
+		maxBatchStatements = DEFAULT_MAX_BATCH_STATEMENTS;
+		maxBindCount = Integer.MAX_VALUE;
+		fetchSize = 0;
+	}
+
+	/**
+	 * データベースのバインド数の上限を設定する。
+	 * 
+	 * @param dialect データベース
+	 * @see #setMaxBindCount(int)
+	 */
+	public void setDialect(final Dialect dialect) {
+		setMaxBindCount(dialect.getMaxBindCount());
+	}
+
+	/**
+	 * 1ステートメントあたりのバインド数の上限を設定する。
+	 * <p>
+	 * 更新系SQLの実行時にバインド数が上限を超える場合、パラメータの行リスト({@link RowList})を上限に収まる行数ごとに分割して実行する。
+	 * デフォルトは上限なし。
+	 * </p>
+	 * 
+	 * @param count バインド数の上限
+	 */
+	public void setMaxBindCount(final int count) {
+		if (0 >= count) {
+			throw new IllegalArgumentException(String.format("Invalid max bind count.[%d]", count));
+		}
+		maxBindCount = count;
+	}
+
+	/**
+	 * 1ステートメントあたりのバインド数の上限を取得する。
+	 * 
+	 * @return バインド数の上限
+	 */
+	public int getMaxBindCount() {
+		return maxBindCount;
+	}
+
+	/**
+	 * バッチサイズを設定する。
+	 * <p>
+	 * バッチ実行時に形状ごとに蓄積する件数の上限。上限に達するたびに<code>executeBatch</code>を実行する。
+	 * </p>
+	 * 
+	 * @param size バッチサイズ
+	 */
+	public void setBatchSize(final int size) {
+		if (0 >= size) {
+			throw new IllegalArgumentException(String.format("Invalid batch size.[%d]", size));
+		}
+		batchSize = size;
+	}
+
+	/**
+	 * バッチサイズを取得する。
+	 * 
+	 * @return バッチサイズ
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * バッチ実行時に同時に開くステートメント数の上限を設定する。
+	 * <p>
+	 * 形状(実行用SQL)ごとに開くステートメント数が上限に達した場合、最も長く使用されていない形状の蓄積分を実行してステートメントをクローズする
+	 * (ステートメントキャッシュを使用する場合は返却する)。
+	 * 形状の種類が上限を超える入力でも、データベースのカーソル数の上限(Oracleの<code>OPEN_CURSORS</code>等)を超えないようにする。
+	 * デフォルトは{@value #DEFAULT_MAX_BATCH_STATEMENTS}。
+	 * </p>
+	 * 
+	 * @param count ステートメント数の上限
+	 */
+	public void setMaxBatchStatements(final int count) {
+		if (0 >= count) {
+			throw new IllegalArgumentException(String.format("Invalid max batch statements.[%d]", count));
+		}
+		maxBatchStatements = count;
+	}
+
+	/**
+	 * バッチ実行時に同時に開くステートメント数の上限を取得する。
+	 * 
+	 * @return ステートメント数の上限
+	 */
+	public int getMaxBatchStatements() {
+		return maxBatchStatements;
+	}
+
+	/**
+	 * デフォルトのフェッチサイズを設定する。
+	 * <p>
+	 * 設定ファイルの<code>fetchSize</code>属性を指定していないダイナミックSQLの検索時に使用する。
+	 * <code>0</code>の場合、ドライバのデフォルト。
+	 * </p>
+	 * 
+	 * @param size フェッチサイズ
+	 */
+	public void setFetchSize(final int size) {
+		if (0 > size) {
+			throw new IllegalArgumentException(String.format("Invalid fetch size.[%d]", size));
+		}
+		fetchSize = size;
+	}
+
+	/**
+	 * デフォルトのフェッチサイズを取得する。
+	 * 
+	 * @return フェッチサイズ
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * ダイナミックSQLを生成して更新系SQLを実行する。
+	 * 
+	 * @param connection コネクション
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return 更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 */
+	public int executeUpdate(final Connection connection, final String namespace, final String name, final Group group, final Parameter parameter)
+			throws SQLException {
+		return executeUpdate(connection, null, namespace, name, group, parameter);
+	}
+
+	/**
+	 * ステートメントキャッシュを使用し、ダイナミックSQLを生成して更新系SQLを実行する。
+	 * 
+	 * @param cache ステートメントキャッシュ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return 更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 */
+	public int executeUpdate(final StatementCache cache, final String namespace, final String name, final Group group, final Parameter parameter)
+			throws SQLException {
+		return executeUpdate(cache.getConnection(), cache, namespace, name, group, parameter);
+	}
+
+	/**
+	 * ダイナミックSQLを生成して更新系SQLを実行する。
+	 * 
+	 * @param connection コネクション
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return 更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 */
+	public int executeUpdateIndexed(final Connection connection, final String namespace, final String name, final Group group,
+			final IndexedParameter parameter) throws SQLException {
+		return executeUpdate(connection, null, namespace, name, group, parameter);
+	}
+
+	/**
+	 * ステートメントキャッシュを使用し、ダイナミックSQLを生成して更新系SQLを実行する。
+	 * 
+	 * @param cache ステートメントキャッシュ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @return 更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 */
+	public int executeUpdateIndexed(final StatementCache cache, final String namespace, final String name, final Group group,
+			final IndexedParameter parameter) throws SQLException {
+		return executeUpdate(cache.getConnection(), cache, namespace, name, group, parameter);
+	}
+
+	/**
+	 * 更新系SQLを実行する。
+	 * 
+	 * @param connection コネクション
+	 * @param dsql ダイナミックSQL
+	 * @return 更新件数
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	public int executeUpdate(final Connection connection, final DynamicSQL dsql) throws SQLException {
+		return executeUpdate(connection, null, dsql);
+	}
+
+	/**
+	 * ステートメントキャッシュを使用し、更新系SQLを実行する。
+	 * 
+	 * @param cache ステートメントキャッシュ
+	 * @param dsql ダイナミックSQL
+	 * @return 更新件数
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	public int executeUpdate(final StatementCache cache, final DynamicSQL dsql) throws SQLException {
+		return executeUpdate(cache.getConnection(), cache, dsql);
+	}
+
+	/**
+	 * ダイナミックSQLを生成して更新系SQLを実行する。
+	 * <p>
+	 * バインド数が上限を超える場合、パラメータの行リストを上限に収まる行数ごとに分割して実行する。
+	 * </p>
+	 * 
+	 * @param connection コネクション
+	 * @param cache ステートメントキャッシュ(使用しない場合、<code>null</code>)
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ({@link Parameter}または{@link IndexedParameter})
+	 * @return 更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 */
+	private int executeUpdate(final Connection connection, final StatementCache cache, final String namespace, final String name,
+			final Group group, final Object parameter) throws SQLException {
+		DynamicSQLBuffer buffer = DynamicSQLBuffer.local();
+		try {
+			generate(namespace, name, group, parameter, buffer);
+			if (maxBindCount < buffer.getParameterCount()) {
+				return executeChunks(connection, cache, group, parameter, buffer);
+			}
+			return executeUpdate(connection, cache, buffer);
+		} finally {
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * 行リストを分割して更新系SQLを実行する。
+	 * <p>
+	 * 行リスト以外のバインド数を除いた上限に収まる行数ごとに生成し、同じ形状が続く間はステートメントを再利用する。
+	 * 分割するのは実行用SQLに行数分展開した行リストのみで、展開した行リストが1つでない場合は分割できない。
+	 * 分割した実行のトランザクションは呼び出し元で制御すること。
+	 * </p>
+	 * 
+	 * @param connection コネクション
+	 * @param cache ステートメントキャッシュ(使用しない場合、<code>null</code>)
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param buffer 全行で生成したバッファ
+	 * @return 更新件数の合計
+	 * @throws SQLException 分割できない場合、SQL実行時に問題が発生した場合
+	 */
+	private int executeChunks(final Connection connection, final StatementCache cache, final Group group, final Object parameter,
+			final DynamicSQLBuffer buffer) throws SQLException {
+		String namespace = buffer.getNamespace();
+		String name = buffer.getName();
+
+		// 行リストを差し替えるためパラメータを複製する(分割するのは実行用SQLに展開した行リストのみ)
+		RowList expanded = buffer.getRows();
+		RowList rows = null;
+		String key = null;
+		int slot = -1;
+		Object copy = null;
+		if (parameter instanceof IndexedParameter) {
+			IndexedParameter indexed = new IndexedParameter((IndexedParameter) parameter);
+			for (int i = 0; i < indexed.getLayout().size() && null == rows && null != expanded; i++) {
+				if (expanded == indexed.get(i)) {
+					rows = expanded;
+					slot = i;
+				}
+			}
+			copy = indexed;
+		} else if (null != parameter) {
+			Parameter params = new Parameter((Parameter) parameter);
+			for (String k : params.keySet()) {
+				if (null != expanded && expanded == params.get(k)) {
+					rows = expanded;
+					key = k;
+					break;
+				}
+			}
+			copy = params;
+		}
+
+		int columns = (null != rows) ? rows.getColumnCount() : 1;
+		int fixed = buffer.getParameterCount() - ((null != rows) ? rows.size() * columns : 0);
+		int chunk = (maxBindCount - fixed) / columns;
+		if (null == rows || 0 >= chunk) {
+			throw new SQLException(String.format("Too many bind parameters.[namespace:%s, name:%s, count:%d, max:%d]", namespace, name,
+					buffer.getParameterCount(), maxBindCount));
+		}
+
+		StatementMetrics metrics = null;
+		int total = 0;
+		String sql = null;
+		PreparedStatement ps = null;
+		boolean success = false;
+		try {
+			for (int from = 0; from < rows.size(); from += chunk) {
+				RowList part = rows.subList(from, Math.min(from + chunk, rows.size()));
+				if (copy instanceof IndexedParameter) {
+					((IndexedParameter) copy).set(slot, part);
+				} else {
+					((Parameter) copy).put(key, part);
+				}
+				generate(namespace, name, group, copy, buffer);
+				if (0 == from) {
+					// 存在しない名前の計測値を生成しないよう、生成後に取得する
+					metrics = DynamicSQLMetrics.getInstance().get(namespace, name);
+				}
+
+				String next = buffer.getExecuteSQL();
+				if (!next.equals(sql)) {
+					if (null != ps) {
+						PreparedStatement old = ps;
+						ps = null;
+						release(cache, sql, old, true);
+					}
+					ps = acquire(connection, cache, next);
+					sql = next;
+				}
+				bind(ps, sql, buffer);
+				total += executeUpdate(ps, metrics);
+			}
+			success = true;
+		} finally {
+			if (null != ps) {
+				release(cache, sql, ps, success);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * 更新系SQLを実行する。
+	 * 
+	 * @param connection コネクション
+	 * @param cache ステートメントキャッシュ(使用しない場合、<code>null</code>)
+	 * @param dsql ダイナミックSQL
+	 * @return 更新件数
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	private int executeUpdate(final Connection connection, final StatementCache cache, final DynamicSQL dsql) throws SQLException {
+		String sql = dsql.getExecuteSQL();
+		PreparedStatement ps = acquire(connection, cache, sql);
+		boolean success = false;
+		try {
+			bind(ps, dsql);
+			int count = executeUpdate(ps, DynamicSQLMetrics.getInstance().get(dsql.getNamespace(), dsql.getName()));
+			success = true;
+			return count;
+		} finally {
+			release(cache, sql, ps, success);
+		}
+	}
+
+	/**
+	 * 複数のパラメータでダイナミックSQLを生成し、バッチで実行する。
+	 * <p>
+	 * パラメータごとに生成した形状(実行用SQL)ごとにステートメントをまとめ、<code>addBatch</code>で蓄積する。
+	 * 蓄積件数がバッチサイズに達するたびに、および最後に、形状ごとに<code>executeBatch</code>を実行する。
+	 * 同時に開くステートメント数は{@link #setMaxBatchStatements(int)}の上限までとし、超える場合は最も長く使用されていない形状を実行してクローズする。
+	 * 同じ形状内の実行順は入力順となるが、異なる形状間の実行順は保証しない。
+	 * </p>
+	 * 
+	 * @param connection コネクション
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameters パラメータ
+	 * @return 入力順の更新件数(ドライバが件数を返さない場合、{@link Statement#SUCCESS_NO_INFO})
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 * @see #setBatchSize(int)
+	 * @see #setMaxBatchStatements(int)
+	 */
+	public int[] executeBatch(final Connection connection, final String namespace, final String name, final Group group,
+			final Iterable<Parameter> parameters) throws SQLException {
+		return executeBatch(connection, null, namespace, name, group, parameters);
+	}
+
+	/**
+	 * ステートメントキャッシュを使用し、複数のパラメータでダイナミックSQLを生成してバッチで実行する。
+	 * 
+	 * @param cache ステートメントキャッシュ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameters パラメータ
+	 * @return 入力順の更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 * @see #executeBatch(Connection, String, String, Group, Iterable)
+	 */
+	public int[] executeBatch(final StatementCache cache, final String namespace, final String name, final Group group,
+			final Iterable<Parameter> parameters) throws SQLException {
+		return executeBatch(cache.getConnection(), cache, namespace, name, group, parameters);
+	}
+
+	/**
+	 * 複数のパラメータでダイナミックSQLを生成し、バッチで実行する。
+	 * 
+	 * @param connection コネクション
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameters パラメータ
+	 * @return 入力順の更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 * @see #executeBatch(Connection, String, String, Group, Iterable)
+	 */
+	public int[] executeBatchIndexed(final Connection connection, final String namespace, final String name, final Group group,
+			final Iterable<IndexedParameter> parameters) throws SQLException {
+		return executeBatch(connection, null, namespace, name, group, parameters);
+	}
+
+	/**
+	 * ステートメントキャッシュを使用し、複数のパラメータでダイナミックSQLを生成してバッチで実行する。
+	 * 
+	 * @param cache ステートメントキャッシュ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameters パラメータ
+	 * @return 入力順の更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 * @see #executeBatch(Connection, String, String, Group, Iterable)
+	 */
+	public int[] executeBatchIndexed(final StatementCache cache, final String namespace, final String name, final Group group,
+			final Iterable<IndexedParameter> parameters) throws SQLException {
+		return executeBatch(cache.getConnection(), cache, namespace, name, group, parameters);
+	}
+
+	/**
+	 * ダイナミックSQLを生成して検索系SQLを実行し、結果を1行ずつハンドラーに渡す。
+	 * <p>
+	 * 結果セットは前方向のみ・読み取り専用で開き、フェッチサイズ分ずつ読み込むため、全件をメモリに保持しない。
+	 * フェッチサイズは設定ファイルの<code>fetchSize</code>属性、未指定の場合は{@link #setFetchSize(int)}の値を使用する。
+	 * ハンドラーが<code>false</code>を返した場合、またはハンドラーで例外が発生した場合は残りの行を読み込まずにカーソルをクローズする。
+	 * </p>
+	 * <p>
+	 * PostgreSQL等、自動コミットが有効な場合にフェッチサイズを無視して全件を読み込むドライバがあるため、大量の行を読み込む場合は自動コミットを無効にすること。
+	 * </p>
+	 * 
+	 * <pre>
+	 * executor.query(connection, "ns", "selectCustomer", null, parameter, null, new RowHandler&lt;Object[]&gt;() {
+	 *     public boolean handle(Object[] row) {
+	 *         writer.write(row);
+	 *         return true;
+	 *     }
+	 * });
+	 * </pre>
+	 * 
+	 * @param <T> 行の型
+	 * @param connection コネクション
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param mapper 行マッパー。<code>null</code>の場合、設定ファイルの<code>rowMapper</code>属性のクラス(未指定の場合、{@link RowMapper#ARRAY})
+	 * @param handler ハンドラー
+	 * @return ハンドラーに渡した行数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、行マッパーを生成できない場合、SQL実行時に問題が発生した場合
+	 */
+	public <T> int query(final Connection connection, final String namespace, final String name, final Group group, final Parameter parameter,
+			final RowMapper<T> mapper, final RowHandler<? super T> handler) throws SQLException {
+		return query(connection, null, namespace, name, group, parameter, mapper, handler);
+	}
+
+	/**
+	 * ステートメントキャッシュを使用し、ダイナミックSQLを生成して検索系SQLを実行する。
+	 * 
+	 * @param <T> 行の型
+	 * @param cache ステートメントキャッシュ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param mapper 行マッパー。<code>null</code>の場合、設定ファイルの<code>rowMapper</code>属性のクラス
+	 * @param handler ハンドラー
+	 * @return ハンドラーに渡した行数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、行マッパーを生成できない場合、SQL実行時に問題が発生した場合
+	 * @see #query(Connection, String, String, Group, Parameter, RowMapper, RowHandler)
+	 */
+	public <T> int query(final StatementCache cache, final String namespace, final String name, final Group group, final Parameter parameter,
+			final RowMapper<T> mapper, final RowHandler<? super T> handler) throws SQLException {
+		return query(cache.getConnection(), cache, namespace, name, group, parameter, mapper, handler);
+	}
+
+	/**
+	 * ダイナミックSQLを生成して検索系SQLを実行する。
+	 * 
+	 * @param <T> 行の型
+	 * @param connection コネクション
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param mapper 行マッパー。<code>null</code>の場合、設定ファイルの<code>rowMapper</code>属性のクラス
+	 * @param handler ハンドラー
+	 * @return ハンドラーに渡した行数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、行マッパーを生成できない場合、SQL実行時に問題が発生した場合
+	 * @see #query(Connection, String, String, Group, Parameter, RowMapper, RowHandler)
+	 */
+	public <T> int queryIndexed(final Connection connection, final String namespace, final String name, final Group group,
+			final IndexedParameter parameter, final RowMapper<T> mapper, final RowHandler<? super T> handler) throws SQLException {
+		return query(connection, null, namespace, name, group, parameter, mapper, handler);
+	}
+
+	/**
+	 * ステートメントキャッシュを使用し、ダイナミックSQLを生成して検索系SQLを実行する。
+	 * 
+	 * @param <T> 行の型
+	 * @param cache ステートメントキャッシュ
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ
+	 * @param mapper 行マッパー。<code>null</code>の場合、設定ファイルの<code>rowMapper</code>属性のクラス
+	 * @param handler ハンドラー
+	 * @return ハンドラーに渡した行数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、行マッパーを生成できない場合、SQL実行時に問題が発生した場合
+	 * @see #query(Connection, String, String, Group, Parameter, RowMapper, RowHandler)
+	 */
+	public <T> int queryIndexed(final StatementCache cache, final String namespace, final String name, final Group group,
+			final IndexedParameter parameter, final RowMapper<T> mapper, final RowHandler<? super T> handler) throws SQLException {
+		return query(cache.getConnection(), cache, namespace, name, group, parameter, mapper, handler);
+	}
+
+	/**
+	 * ステートメントを生成し、パラメータを設定する。
+	 * <p>
+	 * ステートメントのクローズは呼び出し元で行うこと。
+	 * </p>
+	 * 
+	 * @param connection コネクション
+	 * @param dsql ダイナミックSQL
+	 * @return ステートメント
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	public PreparedStatement prepare(final Connection connection, final DynamicSQL dsql) throws SQLException {
+		PreparedStatement ps = connection.prepareStatement(dsql.getExecuteSQL());
+		boolean success = false;
+		try {
+			bind(ps, dsql);
+			success = true;
+		} finally {
+			if (!success) {
+				ps.close();
+			}
+		}
+		return ps;
+	}
+
+	/**
+	 * ステートメントにパラメータを設定する。
+	 * 
+	 * @param ps ステートメント
+	 * @param dsql ダイナミックSQL
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	public void bind(final PreparedStatement ps, final DynamicSQL dsql) throws SQLException {
+		if (dsql instanceof DynamicSQLBuffer) {
+			DynamicSQLBuffer buffer = (DynamicSQLBuffer) dsql;
+			bind(ps, dsql.getExecuteSQL(), buffer);
+		} else {
+			List<Object> params = dsql.getParameters();
+			bind(ps, dsql.getExecuteSQL(), params.toArray(), params.size());
+		}
+	}
+
+	/**
+	 * ステートメントにパラメータを設定する。
+	 * <p>
+	 * パラメータ位置ごとに前回選択したバインダーを使用し、値の型が異なる場合のみバインダーを選択し直す。
+	 * <code>null</code>は選択済みのバインダーのSQL型で設定し、未選択の場合は<code>setObject</code>で設定する。
+	 * </p>
+	 * 
+	 * @param ps ステートメント
+	 * @param sql 実行用SQL
+	 * @param params パラメータ配列
+	 * @param count パラメータ数
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	void bind(final PreparedStatement ps, final String sql, final Object[] params, final int count) throws SQLException {
+		ParameterBinder[] slots = getBinders(sql, count);
+		for (int i = 0; i < count; i++) {
+			bind(ps, slots, i, params[i]);
+		}
+	}
+
+	/**
+	 * ステートメントにバッファのパラメータを設定する。
+	 * <p>
+	 * <code>long[]</code>、<code>int[]</code>で指定したリストの要素は<code>setLong</code>、<code>setInt</code>でボクシングせずに設定する。
+	 * </p>
+	 * 
+	 * @param ps ステートメント
+	 * @param sql 実行用SQL
+	 * @param buffer バッファ
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	void bind(final PreparedStatement ps, final String sql, final DynamicSQLBuffer buffer) throws SQLException {
+		int count = buffer.getParameterCount();
+		ParameterBinder[] slots = getBinders(sql, count);
+		for (int i = 0; i < count; i++) {
+			Class<?> type = buffer.getPrimitiveType(i);
+			if (Long.TYPE == type) {
+				ps.setLong(i + 1, buffer.getLong(i));
+				slots[i] = ParameterBinder.LONG;
+			} else if (Integer.TYPE == type) {
+				ps.setInt(i + 1, (int) buffer.getLong(i));
+				slots[i] = ParameterBinder.INTEGER;
+			} else {
+				bind(ps, slots, i, buffer.getParameter(i));
+			}
+		}
+	}
+
+	/**
+	 * パラメータ位置に値を設定する。
+	 * 
+	 * @param ps ステートメント
+	 * @param slots パラメータ位置ごとのバインダー
+	 * @param i パラメータ位置(0から)
+	 * @param value 値
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	private static void bind(final PreparedStatement ps, final ParameterBinder[] slots, final int i, final Object value) throws SQLException {
+		ParameterBinder binder = slots[i];
+		if (null == value) {
+			if (null == binder) {
+				ParameterBinder.OBJECT.bindNull(ps, i + 1);
+			} else {
+				binder.bindNull(ps, i + 1);
+			}
+		} else {
+			if (null == binder || !binder.accept(value)) {
+				binder = ParameterBinder.of(value);
+				// 他スレッドと競合しても値の型を都度確認するため問題ない
+				slots[i] = binder;
+			}
+			binder.bind(ps, i + 1, value);
+		}
+	}
+
+	/**
+	 * 実行用SQLのパラメータ位置ごとのバインダーを取得する。
+	 * 
+	 * @param sql 実行用SQL
+	 * @param count パラメータ数
+	 * @return バインダー配列(未選択の位置は<code>null</code>)
+	 */
+	private ParameterBinder[] getBinders(final String sql, final int count) {
+		ParameterBinder[] slots = binders.get(sql);
+		if (null == slots || slots.length != count) {
+			if (MAX_SHAPES <= binders.size()) {
+				// 展開数の異なるSQLが無制限に増える場合に備え、上限に達したら選択し直す
+				binders.clear();
+			}
+			slots = new ParameterBinder[count];
+			ParameterBinder[] current = binders.putIfAbsent(sql, slots);
+			if (null != current && current.length == count) {
+				slots = current;
+			} else if (null != current) {
+				binders.put(sql, slots);
+			}
+		}
+		return slots;
+	}
+
+	/**
+	 * 複数のパラメータでダイナミックSQLを生成し、バッチで実行する。
+	 * 
+	 * @param connection コネクション
+	 * @param cache ステートメントキャッシュ(使用しない場合、<code>null</code>)
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameters パラメータ({@link Parameter}または{@link IndexedParameter})
+	 * @return 入力順の更新件数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、SQL実行時に問題が発生した場合
+	 */
+	private int[] executeBatch(final Connection connection, final StatementCache cache, final String namespace, final String name,
+			final Group group, final Iterable<?> parameters) throws SQLException {
+		int size = batchSize;
+		int max = maxBatchStatements;
+		// 使用順(最も長く使用されていない形状が先頭)
+		Map<String, Batch> batches = new LinkedHashMap<String, Batch>(16, 0.75f, true);
+		int[] counts = new int[16];
+		int index = 0;
+
+		StatementMetrics metrics = null;
+		DynamicSQLBuffer buffer = DynamicSQLBuffer.local();
+		boolean success = false;
+		try {
+			for (Object parameter : parameters) {
+				generate(namespace, name, group, parameter, buffer);
+				if (0 == index) {
+					// 存在しない名前の計測値を生成しないよう、生成後に取得する
+					metrics = DynamicSQLMetrics.getInstance().get(namespace, name);
+				}
+
+				String sql = buffer.getExecuteSQL();
+				Batch batch = batches.get(sql);
+				if (null == batch) {
+					if (max <= batches.size()) {
+						Batch eldest = batches.values().iterator().next();
+						eldest.flush(counts);
+						batches.remove(eldest.sql);
+						release(cache, eldest.sql, eldest.statement, true);
+					}
+					batch = new Batch(sql, acquire(connection, cache, sql), metrics);
+					batches.put(sql, batch);
+				}
+				bind(batch.statement, sql, buffer);
+				batch.statement.addBatch();
+
+				if (counts.length == index) {
+					counts = Arrays.copyOf(counts, index * 2);
+				}
+				batch.add(index++);
+				if (size == batch.count) {
+					batch.flush(counts);
+				}
+			}
+			for (Batch batch : batches.values()) {
+				batch.flush(counts);
+			}
+			success = true;
+		} finally {
+			buffer.clear();
+			SQLException error = null;
+			for (Batch batch : batches.values()) {
+				try {
+					release(cache, batch.sql, batch.statement, success);
+				} catch (SQLException ex) {
+					if (null == error) {
+						error = ex;
+					}
+				}
+			}
+			if (success && null != error) {
+				throw error;
+			}
+		}
+		return Arrays.copyOf(counts, index);
+	}
+
+	/**
+	 * ダイナミックSQLを生成して検索系SQLを実行する。
+	 * 
+	 * @param <T> 行の型
+	 * @param connection コネクション
+	 * @param cache ステートメントキャッシュ(使用しない場合、<code>null</code>)
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ({@link Parameter}または{@link IndexedParameter})
+	 * @param mapper 行マッパー。<code>null</code>の場合、設定ファイルの<code>rowMapper</code>属性のクラス
+	 * @param handler ハンドラー
+	 * @return ハンドラーに渡した行数
+	 * @throws SQLException ダイナミックSQLが存在しない場合、行マッパーを生成できない場合、SQL実行時に問題が発生した場合
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> int query(final Connection connection, final StatementCache cache, final String namespace, final String name,
+			final Group group, final Object parameter, final RowMapper<T> mapper, final RowHandler<? super T> handler) throws SQLException {
+		// 実行属性と生成で同じ登録情報を使用する
+		StatementHandle handle = DynamicSQLManager.resolve(namespace, name);
+		if (null == handle) {
+			throw notFound(namespace, name);
+		}
+		RowMapper<T> rowMapper = mapper;
+		if (null == rowMapper) {
+			rowMapper = (RowMapper<T>) getRowMapper(namespace, name, handle.getRowMapper());
+		}
+		int size = handle.getFetchSize();
+		if (0 >= size) {
+			size = fetchSize;
+		}
+
+		String sql = null;
+		PreparedStatement ps = null;
+		DynamicSQLBuffer buffer = DynamicSQLBuffer.local();
+		try {
+			generate(handle, group, parameter, buffer);
+			sql = buffer.getExecuteSQL();
+			if (null == cache) {
+				ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			} else {
+				// キャッシュのステートメントはJDBCのデフォルト(前方向のみ・読み取り専用)で生成される
+				ps = cache.acquire(sql);
+			}
+			bind(ps, sql, buffer);
+		} catch (SQLException | RuntimeException ex) {
+			if (null != ps) {
+				StatementCache.closeQuietly(ps);
+			}
+			throw ex;
+		} finally {
+			// ハンドラーから同じスレッドで生成できるよう、読み込み前に解放する
+			buffer.clear();
+		}
+
+		boolean success = false;
+		try {
+			if (0 < size) {
+				ps.setFetchSize(size);
+			}
+			StatementMetrics metrics = DynamicSQLMetrics.getInstance().get(namespace, name);
+			long start = (null == metrics) ? 0L : System.nanoTime();
+			int count = 0;
+			ResultSet rs = ps.executeQuery();
+			try {
+				if (null != metrics) {
+					long end = System.nanoTime();
+					metrics.recordExecute(end - start);
+					start = end;
+				}
+				while (rs.next()) {
+					T row = rowMapper.map(rs, count++);
+					if (!handler.handle(row)) {
+						break;
+					}
+				}
+			} finally {
+				rs.close();
+				if (null != metrics) {
+					metrics.recordFetch(System.nanoTime() - start, count);
+				}
+			}
+			success = true;
+			return count;
+		} finally {
+			release(cache, sql, ps, success);
+		}
+	}
+
+	/**
+	 * 更新系SQLを実行する。
+	 * 
+	 * @param ps ステートメント
+	 * @param metrics 計測値。計測しない場合、<code>null</code>
+	 * @return 更新件数
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	private static int executeUpdate(final PreparedStatement ps, final StatementMetrics metrics) throws SQLException {
+		if (null == metrics) {
+			return ps.executeUpdate();
+		}
+		long start = System.nanoTime();
+		int count = ps.executeUpdate();
+		metrics.recordUpdate(System.nanoTime() - start, count);
+		return count;
+	}
+
+	/**
+	 * 設定ファイルで指定した行マッパーを取得する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param className 行マッパーのクラス名
+	 * @return 行マッパー。クラス名が未指定の場合、{@link RowMapper#ARRAY}
+	 * @throws SQLException 行マッパーを生成できない場合
+	 */
+	private RowMapper<?> getRowMapper(final String namespace, final String name, final String className) throws SQLException {
+		if (null == className) {
+			return RowMapper.ARRAY;
+		}
+		RowMapper<?> mapper = mappers.get(className);
+		if (null == mapper) {
+			try {
+				ClassLoader loader = Thread.currentThread().getContextClassLoader();
+				if (null == loader) {
+					loader = DynamicSQLExecutor.class.getClassLoader();
+				}
+				mapper = (RowMapper<?>) Class.forName(className, true, loader).newInstance();
+			} catch (ReflectiveOperationException | ClassCastException ex) {
+				throw new SQLException(String.format("Invalid rowMapper.[namespace:%s, name:%s, rowMapper:%s]", namespace, name, className), ex);
+			}
+			RowMapper<?> current = mappers.putIfAbsent(className, mapper);
+			if (null != current) {
+				mapper = current;
+			}
+		}
+		return mapper;
+	}
+
+	/**
+	 * ダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param group グループ
+	 * @param parameter パラメータ({@link Parameter}または{@link IndexedParameter})
+	 * @param buffer バッファ
+	 * @throws SQLException ダイナミックSQLが存在しない場合
+	 */
+	private static void generate(final String namespace, final String name, final Group group, final Object parameter, final DynamicSQLBuffer buffer)
+			throws SQLException {
+		DynamicSQLBuffer result = null;
+		if (parameter instanceof IndexedParameter) {
+			result = DynamicSQLManager.generateIndexed(namespace, name, group, (IndexedParameter) parameter, buffer);
+		} else {
+			result = DynamicSQLManager.generate(namespace, name, group, (Parameter) parameter, buffer);
+		}
+		if (null == result) {
+			throw notFound(namespace, name);
+		}
+	}
+
+	/**
+	 * ハンドルよりダイナミックSQLを生成し、バッファに書き込む。
+	 * 
+	 * @param handle ハンドル
+	 * @param group グループ
+	 * @param parameter パラメータ({@link Parameter}または{@link IndexedParameter})
+	 * @param buffer バッファ
+	 * @throws SQLException ダイナミックSQLの生成に失敗した場合
+	 */
+	private static void generate(final StatementHandle handle, final Group group, final Object parameter, final DynamicSQLBuffer buffer)
+			throws SQLException {
+		DynamicSQLBuffer result = null;
+		if (parameter instanceof IndexedParameter) {
+			result = handle.buildIndexed(group, (IndexedParameter) parameter, buffer);
+		} else {
+			result = handle.build(group, (Parameter) parameter, buffer);
+		}
+		if (null == result) {
+			throw notFound(handle.getNamespace(), handle.getName());
+		}
+	}
+
+	/**
+	 * ステートメントを取得する。
+	 * 
+	 * @param connection コネクション
+	 * @param cache ステートメントキャッシュ(使用しない場合、<code>null</code>)
+	 * @param sql 実行用SQL
+	 * @return ステートメント
+	 * @throws SQLException ステートメントの生成に失敗した場合
+	 */
+	static PreparedStatement acquire(final Connection connection, final StatementCache cache, final String sql) throws SQLException {
+		if (null == cache) {
+			return connection.prepareStatement(sql);
+		}
+		return cache.acquire(sql);
+	}
+
+	/**
+	 * 使用を終えたステートメントを解放する。
+	 * <p>
+	 * キャッシュを使用する場合、正常に実行できたステートメントはキャッシュへ返却し、それ以外はクローズする。
+	 * </p>
+	 * 
+	 * @param cache ステートメントキャッシュ(使用しない場合、<code>null</code>)
+	 * @param sql 実行用SQL
+	 * @param ps ステートメント
+	 * @param success 正常に実行できた場合、<code>true</code>
+	 * @throws SQLException ステートメントのクローズに失敗した場合
+	 */
+	static void release(final StatementCache cache, final String sql, final PreparedStatement ps, final boolean success) throws SQLException {
+		if (null != cache && success) {
+			cache.release(sql, ps);
+		} else if (success) {
+			ps.close();
+		} else {
+			StatementCache.closeQuietly(ps);
+		}
+	}
+
+	/**
+	 * ダイナミックSQLが存在しない場合の例外を生成する。
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return 例外
+	 */
+	static SQLException notFound(final String namespace, final String name) {
+		return new SQLException(String.format("Not found dynamicSQL.[namespace:%s, name:%s]", namespace, name));
+	}
+
+	/**
+	 * このクラスは、形状ごとのバッチ実行の状態を保持するクラスです。
+	 * 
+	 * @since 1.7.0
+	 * @version 1.7.0 2026/10/17
+	 * @author Kawakicchi
+	 */
+	private static final class Batch {
+
+		/**
+		 * 実行用SQL
+		 */
+		private final String sql;
+
+		/**
+		 * ステートメント
+		 */
+		private final PreparedStatement statement;
+
+		/**
+		 * 計測値
+		 */
+		private final StatementMetrics metrics;
+
+		/**
+		 * 蓄積した行の入力位置
+		 */
+		private int[] rows;
+
+		/**
+		 * 蓄積件数
+		 */
+		private int count;
+
+		/**
+		 * コンストラクタ
+		 * 
+		 * @param sql 実行用SQL
+		 * @param statement ステートメント
+		 * @param metrics 計測値。計測しない場合、<code>null</code>
+		 */
+		private Batch(final String sql, final PreparedStatement statement, final StatementMetrics metrics) {
+			this.sql = sql;
+			this.statement = statement;
+			this.metrics = metrics;
+			this.rows = new int[16];
+			this.count = 0;
+		}
+
+		/**
+		 * 蓄積した行の入力位置を追加する。
+		 * 
+		 * @param row 入力位置
+		 */
+		private void add(final int row) {
+			if (rows.length == count) {
+				rows = Arrays.copyOf(rows, count * 2);
+			}
+			rows[count++] = row;
+		}
+
+		/**
+		 * 蓄積した行を実行し、更新件数を入力位置に設定する。
+		 * 
+		 * @param counts 入力順の更新件数
+		 * @throws SQLException SQL実行時に問題が発生した場合
+		 */
+		private void flush(final int[] counts) throws SQLException {
+			if (0 == count) {
+				return;
+			}
+			long start = (null == metrics) ? 0L : System.nanoTime();
+			int[] results = statement.executeBatch();
+			long total = 0L;
+			for (int i = 0; i < count; i++) {
+				counts[rows[i]] = (i < results.length) ? results[i] : Statement.SUCCESS_NO_INFO;
+				total += Math.max(0, counts[rows[i]]);
+			}
+			if (null != metrics) {
+				metrics.recordUpdate(System.nanoTime() - start, total);
+			}
+			count = 0;
+		}
+	}
+}
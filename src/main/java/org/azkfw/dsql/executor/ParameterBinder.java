@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * この列挙型は、値の型ごとに{@link PreparedStatement}の設定メソッドを呼び分けるバインダーを定義します。
+ * <p>
+ * ドライバの<code>setObject</code>による型判定を避けるため、型が確定している値は型固有のメソッドで設定します。
+ * 該当しない型は{@link #OBJECT}で<code>setObject</code>を使用します。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+enum ParameterBinder {
+
+	/** 文字列 */
+	STRING(String.class, Types.VARCHAR) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setString(index, (String) value);
+		}
+	},
+
+	/** 整数 */
+	INTEGER(Integer.class, Types.INTEGER) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setInt(index, ((Integer) value).intValue());
+		}
+	},
+
+	/** 長整数 */
+	LONG(Long.class, Types.BIGINT) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setLong(index, ((Long) value).longValue());
+		}
+	},
+
+	/** 短整数 */
+	SHORT(Short.class, Types.SMALLINT) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setShort(index, ((Short) value).shortValue());
+		}
+	},
+
+	/** バイト */
+	BYTE(Byte.class, Types.TINYINT) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setByte(index, ((Byte) value).byteValue());
+		}
+	},
+
+	/** 真偽値 */
+	BOOLEAN(Boolean.class, Types.BOOLEAN) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setBoolean(index, ((Boolean) value).booleanValue());
+		}
+	},
+
+	/** 倍精度浮動小数点数 */
+	DOUBLE(Double.class, Types.DOUBLE) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setDouble(index, ((Double) value).doubleValue());
+		}
+	},
+
+	/** 単精度浮動小数点数 */
+	FLOAT(Float.class, Types.REAL) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setFloat(index, ((Float) value).floatValue());
+		}
+	},
+
+	/** 十進数 */
+	BIG_DECIMAL(BigDecimal.class, Types.DECIMAL) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setBigDecimal(index, (BigDecimal) value);
+		}
+	},
+
+	/** バイト配列 */
+	BYTES(byte[].class, Types.VARBINARY) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setBytes(index, (byte[]) value);
+		}
+	},
+
+	/** タイムスタンプ */
+	TIMESTAMP(Timestamp.class, Types.TIMESTAMP) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setTimestamp(index, (Timestamp) value);
+		}
+	},
+
+	/** 日付 */
+	DATE(java.sql.Date.class, Types.DATE) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setDate(index, (java.sql.Date) value);
+		}
+	},
+
+	/** 時刻 */
+	TIME(Time.class, Types.TIME) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setTime(index, (Time) value);
+		}
+	},
+
+	/** 日時(java.util.Date はタイムスタンプとして設定する) */
+	UTIL_DATE(java.util.Date.class, Types.TIMESTAMP) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+		}
+	},
+
+	/** その他 */
+	OBJECT(Object.class, Types.OTHER) {
+		@Override
+		void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException {
+			ps.setObject(index, value);
+		}
+
+		@Override
+		boolean accept(final Object value) {
+			return true;
+		}
+
+		@Override
+		void bindNull(final PreparedStatement ps, final int index) throws SQLException {
+			ps.setObject(index, null);
+		}
+	};
+
+	/**
+	 * 型からバインダーへのマップ(クラス初期化後は参照のみ)
+	 */
+	private static final Map<Class<?>, ParameterBinder> BINDERS = new HashMap<Class<?>, ParameterBinder>();
+
+	static {
+		for (ParameterBinder binder : values()) {
+			BINDERS.put(binder.type, binder);
+		}
+	}
+
+	/**
+	 * 値の型
+	 */
+	private final Class<?> type;
+
+	/**
+	 * SQL型({@link Types})
+	 */
+	private final int sqlType;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param type 値の型
+	 * @param sqlType SQL型
+	 */
+	private ParameterBinder(final Class<?> type, final int sqlType) {
+		this.type = type;
+		this.sqlType = sqlType;
+	}
+
+	/**
+	 * 値を設定する。
+	 * 
+	 * @param ps ステートメント
+	 * @param index パラメータ位置(1から)
+	 * @param value 値(<code>null</code>以外)
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	abstract void bind(final PreparedStatement ps, final int index, final Object value) throws SQLException;
+
+	/**
+	 * <code>null</code>を設定する。
+	 * 
+	 * @param ps ステートメント
+	 * @param index パラメータ位置(1から)
+	 * @throws SQLException SQL実行時に問題が発生した場合
+	 */
+	void bindNull(final PreparedStatement ps, final int index) throws SQLException {
+		ps.setNull(index, sqlType);
+	}
+
+	/**
+	 * 値を設定できるか判断する。
+	 * 
+	 * @param value 値(<code>null</code>以外)
+	 * @return 判断結果
+	 */
+	boolean accept(final Object value) {
+		return type == value.getClass();
+	}
+
+	/**
+	 * SQL型を取得する。
+	 * 
+	 * @return SQL型({@link Types})
+	 */
+	int getSqlType() {
+		return sqlType;
+	}
+
+	/**
+	 * 値に対応するバインダーを取得する。
+	 * 
+	 * @param value 値(<code>null</code>以外)
+	 * @return バインダー
+	 */
+	static ParameterBinder of(final Object value) {
+		ParameterBinder binder = BINDERS.get(value.getClass());
+		if (null == binder) {
+			// java.util.Date のサブクラス等は setObject で設定する
+			binder = OBJECT;
+		}
+		return binder;
+	}
+}
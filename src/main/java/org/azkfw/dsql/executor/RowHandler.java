@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+import java.sql.SQLException;
+
+/**
+ * このインターフェースは、検索結果を1行ずつ受け取るハンドラーを定義します。
+ * 
+ * @param <T> 行の型
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ * @see DynamicSQLExecutor#query(java.sql.Connection, String, String, org.azkfw.dsql.Group, org.azkfw.dsql.Parameter, RowMapper, RowHandler)
+ */
+public interface RowHandler<T> {
+
+	/**
+	 * 行を処理する。
+	 * <p>
+	 * <code>false</code>を返すと以降の行を読み込まずにカーソルをクローズする。
+	 * </p>
+	 * 
+	 * @param row 行
+	 * @return 次の行を処理する場合、<code>true</code>
+	 * @throws SQLException 処理を中断する場合
+	 */
+	boolean handle(T row) throws SQLException;
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * このインターフェースは、{@link ResultSet}の現在行をオブジェクトに変換する行マッパーを定義します。
+ * <p>
+ * 設定ファイルの<code>rowMapper</code>属性で指定する場合、引数なしのコンストラクタを持つクラスとしてください。
+ * インスタンスはクラスごとに1つ生成して共有するため、スレッドセーフに実装してください。
+ * </p>
+ * 
+ * @param <T> 変換後の型
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public interface RowMapper<T> {
+
+	/**
+	 * 列の値を列順に配列へ格納する行マッパー
+	 */
+	public static final RowMapper<Object[]> ARRAY = new RowMapper<Object[]>() {
+		@Override
+		public Object[] map(final ResultSet rs, final int rowNum) throws SQLException {
+			ResultSetMetaData meta = rs.getMetaData();
+			Object[] row = new Object[meta.getColumnCount()];
+			for (int i = 0; i < row.length; i++) {
+				row[i] = rs.getObject(i + 1);
+			}
+			return row;
+		}
+	};
+
+	/**
+	 * 現在行を変換する。
+	 * <p>
+	 * カーソルの移動(<code>next</code>等)は行わないこと。
+	 * </p>
+	 * 
+	 * @param rs 結果セット
+	 * @param rowNum 行番号(<code>0</code>始まり)
+	 * @return 変換後のオブジェクト
+	 * @throws SQLException 値の取得に失敗した場合
+	 */
+	T map(ResultSet rs, int rowNum) throws SQLException;
+}
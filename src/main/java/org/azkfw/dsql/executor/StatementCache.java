@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、コネクションごとに{@link PreparedStatement}を保持するLRUキャッシュクラスです。
+ * <p>
+ * ダイナミックSQLの形状ごとの実行用SQLをキーとし、同じ形状の実行ではステートメントを再利用します。
+ * 実行用SQLは形状で共有される文字列のため、同じ名前の同じ形状であれば文字列比較は参照の比較で終わります。
+ * 容量を超えた場合は最も長く使用されていないステートメントをクローズします。
+ * </p>
+ * <p>
+ * ステートメントは使用中の間キャッシュから取り除かれるため、同じ形状を入れ子で実行しても同じステートメントを共有しません。
+ * コネクションと同様にスレッドセーフではありません。コネクションを使用するスレッドからのみ使用してください。
+ * </p>
+ * 
+ * <pre>
+ * StatementCache cache = new StatementCache(connection, 64);
+ * try {
+ *     executor.executeUpdate(cache, "ns", "updateName", group, parameter);
+ * } finally {
+ *     cache.close();
+ * }
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class StatementCache implements AutoCloseable {
+
+	/**
+	 * コネクション
+	 */
+	private final Connection connection;
+
+	/**
+	 * 容量
+	 */
+	private final int capacity;
+
+	/**
+	 * 実行用SQLごとのステートメント(アクセス順)
+	 */
+	private final LinkedHashMap<String, PreparedStatement> statements;
+
+	/**
+	 * ヒット数
+	 */
+	private long hitCount;
+
+	/**
+	 * ミス数
+	 */
+	private long missCount;
+
+	/**
+	 * 追い出し数
+	 */
+	private long evictionCount;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param connection コネクション
+	 * @param capacity 容量
+	 */
+	public StatementCache(final Connection connection, final int capacity) {
+		if (null == connection) {
+			throw new IllegalArgumentException("Connection is null.");
+		}
+		if (0 >= capacity) {
+			throw new IllegalArgumentException(String.format("Invalid capacity.[%d]", capacity));
+		}
+		this.connection = connection;
+		this.capacity = capacity;
+		this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true);
+	}
+
+	/**
+	 * コネクションを取得する。
+	 * 
+	 * @return コネクション
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * 容量を取得する。
+	 * 
+	 * @return 容量
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * 保持しているステートメント数を取得する。
+	 * 
+	 * @return ステートメント数
+	 */
+	public int size() {
+		return statements.size();
+	}
+
+	/**
+	 * ヒット数を取得する。
+	 * 
+	 * @return ヒット数
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * ミス数を取得する。
+	 * 
+	 * @return ミス数
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * 追い出し数を取得する。
+	 * 
+	 * @return 追い出し数
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * 保持しているステートメントをすべてクローズする。
+	 * <p>
+	 * コネクションはクローズしない。
+	 * </p>
+	 * 
+	 * @throws SQLException ステートメントのクローズに失敗した場合
+	 */
+	@Override
+	public void close() throws SQLException {
+		List<PreparedStatement> list = new ArrayList<PreparedStatement>(statements.values());
+		statements.clear();
+
+		SQLException error = null;
+		for (PreparedStatement ps : list) {
+			try {
+				ps.close();
+			} catch (SQLException ex) {
+				if (null == error) {
+					error = ex;
+				}
+			}
+		}
+		if (null != error) {
+			throw error;
+		}
+	}
+
+	/**
+	 * ステートメントを取得する。
+	 * <p>
+	 * キャッシュに存在する場合はキャッシュから取り除いて返し、存在しない場合は生成する。
+	 * 使用後は{@link #release(String, PreparedStatement)}で返却すること。
+	 * </p>
+	 * 
+	 * @param sql 実行用SQL
+	 * @return ステートメント
+	 * @throws SQLException ステートメントの生成に失敗した場合
+	 */
+	PreparedStatement acquire(final String sql) throws SQLException {
+		PreparedStatement ps = statements.remove(sql);
+		if (null != ps && !ps.isClosed()) {
+			hitCount++;
+			return ps;
+		}
+		missCount++;
+		return connection.prepareStatement(sql);
+	}
+
+	/**
+	 * ステートメントを返却する。
+	 * <p>
+	 * 容量を超えた場合は最も長く使用されていないステートメントをクローズする。
+	 * </p>
+	 * 
+	 * @param sql 実行用SQL
+	 * @param ps ステートメント
+	 */
+	void release(final String sql, final PreparedStatement ps) {
+		PreparedStatement old = statements.put(sql, ps);
+		if (null != old && old != ps) {
+			// 入れ子で同じ形状を実行した場合
+			closeQuietly(old);
+		}
+		if (capacity < statements.size()) {
+			Iterator<Map.Entry<String, PreparedStatement>> it = statements.entrySet().iterator();
+			PreparedStatement eldest = it.next().getValue();
+			it.remove();
+			evictionCount++;
+			closeQuietly(eldest);
+		}
+	}
+
+	/**
+	 * ステートメントをクローズする。
+	 * 
+	 * @param ps ステートメント
+	 */
+	static void closeQuietly(final PreparedStatement ps) {
+		try {
+			ps.close();
+		} catch (SQLException ex) {
+
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * このクラスは、スレッドごとに加算先を分散するカウンタークラスです。
+ * <p>
+ * 同じダイナミックSQLを多数のスレッドで生成する場合に、1つの値への更新が競合することを避けます。
+ * 加算先はスレッドIDで選択し、キャッシュラインを共有しないよう間隔を空けて配置します。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class Counter {
+
+	/**
+	 * 分散数(2のべき乗)
+	 */
+	private static final int STRIPES = 4;
+
+	/**
+	 * 加算先の間隔(64バイト)
+	 */
+	private static final int PADDING = 8;
+
+	/**
+	 * 加算先
+	 */
+	private final AtomicLongArray cells;
+
+	/**
+	 * コンストラクタ
+	 */
+	Counter() {
+		cells = new AtomicLongArray(STRIPES * PADDING);
+	}
+
+	/**
+	 * 値を加算する。
+	 * 
+	 * @param value 値
+	 */
+	void add(final long value) {
+		cells.addAndGet(((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING, value);
+	}
+
+	/**
+	 * 合計値を取得する。
+	 * 
+	 * @return 合計値
+	 */
+	long sum() {
+		long sum = 0L;
+		for (int i = 0; i < STRIPES; i++) {
+			sum += cells.get(i * PADDING);
+		}
+		return sum;
+	}
+
+	/**
+	 * 値を初期化する。
+	 */
+	void reset() {
+		for (int i = 0; i < STRIPES; i++) {
+			cells.set(i * PADDING, 0L);
+		}
+	}
+}
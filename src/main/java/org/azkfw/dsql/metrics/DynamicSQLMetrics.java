@@ -0,0 +1,437 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.azkfw.lang.LoggingObject;
+
+/**
+ * このクラスは、ダイナミックSQLごとの計測値を管理するクラスです。
+ * <p>
+ * 計測はデフォルトで無効です。無効の間は{@link #get(String, String)}が<code>null</code>を返し、生成・実行時に時間の取得も行いません。
+ * {@link org.azkfw.dsql.DynamicSQLPlugin}を使用する場合、プラグインの初期化時にMXBean({@value #OBJECT_NAME})を登録します。
+ * 計測はMXBeanの<code>Enabled</code>属性、またはシステムプロパティ{@value org.azkfw.dsql.DynamicSQLPlugin#PROPERTY_METRICS}で有効にします。
+ * </p>
+ * 
+ * <pre>
+ * DynamicSQLMetrics metrics = DynamicSQLMetrics.getInstance();
+ * metrics.setEnabled(true);
+ * ...
+ * metrics.writePrometheus(writer);
+ * </pre>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class DynamicSQLMetrics extends LoggingObject implements DynamicSQLMetricsMXBean {
+
+	/**
+	 * MXBeanのオブジェクト名
+	 */
+	public static final String OBJECT_NAME = "org.azkfw.dsql:type=DynamicSQLMetrics";
+
+	/**
+	 * パーセンタイル(Prometheusのquantile)
+	 */
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+	/**
+	 * 1秒のナノ秒
+	 */
+	private static final double NANOS_PER_SECOND = 1000000000.0;
+
+	/**
+	 * Instance
+	 */
+	private static final DynamicSQLMetrics INSTANCE = new DynamicSQLMetrics();
+
+	/**
+	 * 名前空間ごとの名前ごとの計測値
+	 */
+	private final ConcurrentMap<String, ConcurrentMap<String, StatementMetrics>> namespaces;
+
+	/**
+	 * 計測の有効・無効
+	 */
+	private volatile boolean enabled;
+
+	/**
+	 * 世代。{@link #clear()}のたびに進め、保持された計測値が削除済みか判断する。
+	 */
+	private volatile int generation;
+
+	/**
+	 * 登録したMXBeanのオブジェクト名
+	 */
+	private ObjectName registeredName;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * 応答不可
+	 * </p>
+	 */
+	private DynamicSQLMetrics() {
+		super(DynamicSQLMetrics.class);
+		namespaces = new ConcurrentHashMap<String, ConcurrentMap<String, StatementMetrics>>();
+		enabled = false;
+	}
+
+	/**
+	 * インスタンスを取得する。
+	 * 
+	 * @return インスタンス
+	 */
+	public static DynamicSQLMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(final boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * ダイナミックSQLの計測値を取得する。
+	 * <p>
+	 * 存在しない場合は生成する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @return 計測値。計測が無効な場合、<code>null</code>を返す。
+	 */
+	public StatementMetrics get(final String namespace, final String name) {
+		if (!enabled || null == name) {
+			return null;
+		}
+		String ns = (null == namespace) ? "" : namespace;
+		ConcurrentMap<String, StatementMetrics> statements = namespaces.get(ns);
+		if (null == statements) {
+			statements = new ConcurrentHashMap<String, StatementMetrics>();
+			ConcurrentMap<String, StatementMetrics> current = namespaces.putIfAbsent(ns, statements);
+			if (null != current) {
+				statements = current;
+			}
+		}
+		StatementMetrics metrics = statements.get(name);
+		if (null == metrics) {
+			metrics = new StatementMetrics(ns, name, generation);
+			StatementMetrics current = statements.putIfAbsent(name, metrics);
+			if (null != current) {
+				metrics = current;
+			}
+		}
+		return metrics;
+	}
+
+	/**
+	 * ダイナミックSQLの計測値を取得する。
+	 * <p>
+	 * 呼び出し元が保持する計測値が削除されていない場合は検索せずにそのまま返す。
+	 * 生成ごとに名前空間・名前で検索しないよう、ダイナミックSQLの登録情報ごとに保持するために使用する。
+	 * </p>
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param cached 保持する計測値。未取得の場合、<code>null</code>
+	 * @return 計測値。計測が無効な場合、<code>null</code>を返す。
+	 */
+	public StatementMetrics get(final String namespace, final String name, final StatementMetrics cached) {
+		if (!enabled) {
+			return null;
+		}
+		if (null != cached && generation == cached.generation) {
+			return cached;
+		}
+		return get(namespace, name);
+	}
+
+	@Override
+	public int getStatementCount() {
+		int count = 0;
+		for (ConcurrentMap<String, StatementMetrics> statements : namespaces.values()) {
+			count += statements.size();
+		}
+		return count;
+	}
+
+	/**
+	 * ダイナミックSQLごとの計測値を複製する。
+	 * 
+	 * @return 名前空間・名前順の計測値
+	 */
+	public List<StatementSnapshot> snapshot() {
+		List<StatementSnapshot> snapshots = new ArrayList<StatementSnapshot>();
+		for (ConcurrentMap<String, StatementMetrics> statements : namespaces.values()) {
+			for (StatementMetrics metrics : statements.values()) {
+				snapshots.add(metrics.snapshot());
+			}
+		}
+		Collections.sort(snapshots, new Comparator<StatementSnapshot>() {
+			@Override
+			public int compare(final StatementSnapshot o1, final StatementSnapshot o2) {
+				int result = o1.getNamespace().compareTo(o2.getNamespace());
+				if (0 == result) {
+					result = o1.getName().compareTo(o2.getName());
+				}
+				return result;
+			}
+		});
+		return snapshots;
+	}
+
+	@Override
+	public List<StatementSnapshot> getStatements() {
+		return snapshot();
+	}
+
+	@Override
+	public List<StatementSnapshot> top(final int limit) {
+		List<StatementSnapshot> snapshots = snapshot();
+		Collections.sort(snapshots, new Comparator<StatementSnapshot>() {
+			@Override
+			public int compare(final StatementSnapshot o1, final StatementSnapshot o2) {
+				long t1 = o1.getTotalTime();
+				long t2 = o2.getTotalTime();
+				return (t1 > t2) ? -1 : ((t1 == t2) ? 0 : 1);
+			}
+		});
+		return new ArrayList<StatementSnapshot>(snapshots.subList(0, Math.max(0, Math.min(limit, snapshots.size()))));
+	}
+
+	@Override
+	public String scrape() {
+		StringWriter writer = new StringWriter();
+		try {
+			writePrometheus(writer);
+		} catch (IOException ex) {
+			// StringWriterでは発生しない
+			throw new IllegalStateException(ex);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * 計測値をPrometheusのテキスト形式で書き込む。
+	 * <p>
+	 * 時間は秒に変換し、分布はsummary(quantile 0.5, 0.9, 0.99)として出力する。
+	 * </p>
+	 * 
+	 * @param writer 出力先
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void writePrometheus(final Writer writer) throws IOException {
+		List<StatementSnapshot> snapshots = snapshot();
+
+		writeType(writer, "dsql_generate_total", "counter");
+		for (StatementSnapshot s : snapshots) {
+			writeSample(writer, "dsql_generate_total", s, null, s.getGenerateCount());
+		}
+		List<HistogramSnapshot> build = new ArrayList<HistogramSnapshot>();
+		List<HistogramSnapshot> inListLength = new ArrayList<HistogramSnapshot>();
+		List<HistogramSnapshot> execute = new ArrayList<HistogramSnapshot>();
+		List<HistogramSnapshot> fetch = new ArrayList<HistogramSnapshot>();
+		for (StatementSnapshot s : snapshots) {
+			build.add(s.getBuild());
+			inListLength.add(s.getInListLength());
+			execute.add(s.getExecute());
+			fetch.add(s.getFetch());
+		}
+
+		writeSummary(writer, "dsql_build_seconds", snapshots, build, NANOS_PER_SECOND);
+		writeType(writer, "dsql_shapes_total", "counter");
+		for (StatementSnapshot s : snapshots) {
+			writeSample(writer, "dsql_shapes_total", s, null, s.getShapeCount());
+		}
+		writeSummary(writer, "dsql_in_list_length", snapshots, inListLength, 1.0);
+		writeSummary(writer, "dsql_execute_seconds", snapshots, execute, NANOS_PER_SECOND);
+		writeSummary(writer, "dsql_fetch_seconds", snapshots, fetch, NANOS_PER_SECOND);
+		writeType(writer, "dsql_rows_fetched_total", "counter");
+		for (StatementSnapshot s : snapshots) {
+			writeSample(writer, "dsql_rows_fetched_total", s, null, s.getRowCount());
+		}
+		writeType(writer, "dsql_rows_updated_total", "counter");
+		for (StatementSnapshot s : snapshots) {
+			writeSample(writer, "dsql_rows_updated_total", s, null, s.getUpdateCount());
+		}
+	}
+
+	@Override
+	public void reset() {
+		for (ConcurrentMap<String, StatementMetrics> statements : namespaces.values()) {
+			for (StatementMetrics metrics : statements.values()) {
+				metrics.reset();
+			}
+		}
+	}
+
+	/**
+	 * 計測値をすべて削除する。
+	 */
+	public synchronized void clear() {
+		generation++;
+		namespaces.clear();
+	}
+
+	/**
+	 * MXBeanをプラットフォームのMBeanサーバーに登録する。
+	 * <p>
+	 * 登録に失敗した場合はエラーを出力し、計測は継続する。
+	 * </p>
+	 */
+	public synchronized void register() {
+		if (null != registeredName) {
+			return;
+		}
+		try {
+			ObjectName objectName = new ObjectName(OBJECT_NAME);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (!server.isRegistered(objectName)) {
+				server.registerMBean(this, objectName);
+				registeredName = objectName;
+			}
+		} catch (JMException ex) {
+			error(String.format("DynamicSQL metrics registration error.[%s]", OBJECT_NAME));
+			error(ex);
+		}
+	}
+
+	/**
+	 * MXBeanの登録を解除する。
+	 */
+	public synchronized void unregister() {
+		if (null == registeredName) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+		} catch (JMException ex) {
+			error(String.format("DynamicSQL metrics unregistration error.[%s]", OBJECT_NAME));
+			error(ex);
+		}
+		registeredName = null;
+	}
+
+	/**
+	 * summaryを書き込む。
+	 * 
+	 * @param writer 出力先
+	 * @param metric メトリクス名
+	 * @param snapshots 計測値
+	 * @param histograms 計測値ごとの分布
+	 * @param scale 値の除数
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static void writeSummary(final Writer writer, final String metric, final List<StatementSnapshot> snapshots,
+			final List<HistogramSnapshot> histograms, final double scale) throws IOException {
+		writeType(writer, metric, "summary");
+		for (int i = 0; i < snapshots.size(); i++) {
+			StatementSnapshot s = snapshots.get(i);
+			HistogramSnapshot histogram = histograms.get(i);
+			for (double quantile : QUANTILES) {
+				writeSample(writer, metric, s, String.valueOf(quantile), histogram.getValueAtPercentile(quantile * 100.0) / scale);
+			}
+			writeSample(writer, metric + "_sum", s, null, histogram.getSum() / scale);
+			writeSample(writer, metric + "_count", s, null, histogram.getCount());
+		}
+	}
+
+	/**
+	 * 型を書き込む。
+	 * 
+	 * @param writer 出力先
+	 * @param metric メトリクス名
+	 * @param type 型
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static void writeType(final Writer writer, final String metric, final String type) throws IOException {
+		writer.write("# TYPE ");
+		writer.write(metric);
+		writer.write(' ');
+		writer.write(type);
+		writer.write('\n');
+	}
+
+	/**
+	 * 値を書き込む。
+	 * 
+	 * @param writer 出力先
+	 * @param metric メトリクス名
+	 * @param s 計測値
+	 * @param quantile quantileラベル(不要な場合、<code>null</code>)
+	 * @param value 値
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static void writeSample(final Writer writer, final String metric, final StatementSnapshot s, final String quantile,
+			final Object value) throws IOException {
+		writer.write(metric);
+		writer.write("{namespace=\"");
+		writeLabel(writer, s.getNamespace());
+		writer.write("\",name=\"");
+		writeLabel(writer, s.getName());
+		if (null != quantile) {
+			writer.write("\",quantile=\"");
+			writer.write(quantile);
+		}
+		writer.write("\"} ");
+		writer.write(String.valueOf(value));
+		writer.write('\n');
+	}
+
+	/**
+	 * ラベル値をエスケープして書き込む。
+	 * 
+	 * @param writer 出力先
+	 * @param value ラベル値
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static void writeLabel(final Writer writer, final String value) throws IOException {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if ('\\' == c || '"' == c) {
+				writer.write('\\');
+				writer.write(c);
+			} else if ('\n' == c) {
+				writer.write("\\n");
+			} else {
+				writer.write(c);
+			}
+		}
+	}
+}
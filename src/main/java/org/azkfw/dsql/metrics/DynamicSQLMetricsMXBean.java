@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+import java.util.List;
+
+/**
+ * このインターフェースは、ダイナミックSQLの計測値をJMXで公開するためのMXBeanを定義します。
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ * @see DynamicSQLMetrics#OBJECT_NAME
+ */
+public interface DynamicSQLMetricsMXBean {
+
+	/**
+	 * 計測が有効か判断する。
+	 * 
+	 * @return 有効な場合、<code>true</code>
+	 */
+	boolean isEnabled();
+
+	/**
+	 * 計測の有効・無効を設定する。
+	 * 
+	 * @param enabled 有効にする場合、<code>true</code>
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * 計測したダイナミックSQL数を取得する。
+	 * 
+	 * @return ダイナミックSQL数
+	 */
+	int getStatementCount();
+
+	/**
+	 * ダイナミックSQLごとの計測値を取得する。
+	 * 
+	 * @return 名前空間・名前順の計測値
+	 */
+	List<StatementSnapshot> getStatements();
+
+	/**
+	 * 合計時間(生成・実行・読み込み)の長いダイナミックSQLの計測値を取得する。
+	 * 
+	 * @param limit 件数
+	 * @return 合計時間の降順の計測値
+	 */
+	List<StatementSnapshot> top(int limit);
+
+	/**
+	 * 計測値をPrometheusのテキスト形式で取得する。
+	 * 
+	 * @return テキスト
+	 */
+	String scrape();
+
+	/**
+	 * 計測値を初期化する。
+	 */
+	void reset();
+}
@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * このクラスは、値の分布を対数線形の区間で集計するヒストグラムクラスです。
+ * <p>
+ * HDR Histogramと同様に、2のべき乗ごとの範囲を{@value #SUB_COUNT}等分した区間で件数を数えます(相対誤差は12.5%以内)。
+ * 記録は区間の件数・合計値の加算のみで、オブジェクトを生成しません。
+ * 区間の件数は{@link Counter}と同様にスレッドIDで加算先を分散します。分散先の配列は加算が競合した時点で確保するため、
+ * 単一スレッドでのみ記録する場合は1組分の領域のみ使用します。
+ * 上限を超える値は最後の区間に集計します(最大値は正確な値を保持します)。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+final class Histogram {
+
+	/**
+	 * 2のべき乗ごとの分割数のビット数
+	 */
+	private static final int SUB_BITS = 3;
+
+	/**
+	 * 2のべき乗ごとの分割数
+	 */
+	static final int SUB_COUNT = 1 << SUB_BITS;
+
+	/**
+	 * 分散数(2のべき乗)
+	 */
+	private static final int STRIPES = 4;
+
+	/**
+	 * 区間数
+	 */
+	private final int length;
+
+	/**
+	 * 分散先ごとの区間ごとの件数。先頭以外は競合した時点で確保する。
+	 */
+	private final AtomicReferenceArray<AtomicLongArray> counts;
+
+	/**
+	 * 合計値
+	 */
+	private final Counter sum;
+
+	/**
+	 * 最大値
+	 */
+	private final AtomicLong max;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param maxExponent 集計する値の上限(2のべき乗の指数)
+	 */
+	Histogram(final int maxExponent) {
+		length = index((1L << maxExponent) - 1) + 1;
+		counts = new AtomicReferenceArray<AtomicLongArray>(STRIPES);
+		counts.set(0, new AtomicLongArray(length));
+		sum = new Counter();
+		max = new AtomicLong();
+	}
+
+	/**
+	 * 値を記録する。
+	 * 
+	 * @param value 値(負の値は<code>0</code>として扱う)
+	 */
+	void record(final long value) {
+		long v = Math.max(0L, value);
+		int index = Math.min(index(v), length - 1);
+		int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+		AtomicLongArray cells = counts.get(stripe);
+		if (null == cells) {
+			// 競合するまでは先頭に加算する
+			cells = counts.get(0);
+			long count = cells.get(index);
+			if (!cells.compareAndSet(index, count, count + 1)) {
+				counts.compareAndSet(stripe, null, new AtomicLongArray(length));
+				counts.get(stripe).incrementAndGet(index);
+			}
+		} else {
+			cells.incrementAndGet(index);
+		}
+		sum.add(v);
+		long current = max.get();
+		while (current < v && !max.compareAndSet(current, v)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * 集計値を複製する。
+	 * 
+	 * @return 集計値
+	 */
+	HistogramSnapshot snapshot() {
+		long[] copy = new long[length];
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			AtomicLongArray cells = counts.get(stripe);
+			if (null != cells) {
+				for (int i = 0; i < length; i++) {
+					copy[i] += cells.get(i);
+				}
+			}
+		}
+		return new HistogramSnapshot(copy, sum.sum(), max.get());
+	}
+
+	/**
+	 * 集計値を初期化する。
+	 */
+	void reset() {
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			AtomicLongArray cells = counts.get(stripe);
+			if (null != cells) {
+				for (int i = 0; i < length; i++) {
+					cells.set(i, 0L);
+				}
+			}
+		}
+		sum.reset();
+		max.set(0L);
+	}
+
+	/**
+	 * 値の区間を取得する。
+	 * 
+	 * @param value 値(<code>0</code>以上)
+	 * @return 区間
+	 */
+	static int index(final long value) {
+		if (SUB_COUNT > value) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+		return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+	}
+
+	/**
+	 * 区間の上限値を取得する。
+	 * 
+	 * @param index 区間
+	 * @return 上限値(区間に含まれる最大の値)
+	 */
+	static long upperBound(final int index) {
+		if (SUB_COUNT > index) {
+			return index;
+		}
+		int exponent = index / SUB_COUNT + SUB_BITS - 1;
+		long sub = SUB_COUNT + (index % SUB_COUNT);
+		return ((sub + 1) << (exponent - SUB_BITS)) - 1;
+	}
+}
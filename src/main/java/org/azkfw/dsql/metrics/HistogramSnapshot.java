@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+/**
+ * このクラスは、ヒストグラムのある時点の集計値を保持するクラスです。
+ * <p>
+ * パーセンタイル値は値を含む区間の上限値(最大値を超えない)で返します。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class HistogramSnapshot {
+
+	/**
+	 * 区間ごとの件数
+	 */
+	private final long[] counts;
+
+	/**
+	 * 件数
+	 */
+	private final long count;
+
+	/**
+	 * 合計値
+	 */
+	private final long sum;
+
+	/**
+	 * 最大値
+	 */
+	private final long max;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param counts 区間ごとの件数
+	 * @param sum 合計値
+	 * @param max 最大値
+	 */
+	HistogramSnapshot(final long[] counts, final long sum, final long max) {
+		long total = 0L;
+		for (long c : counts) {
+			total += c;
+		}
+		this.counts = counts;
+		this.count = total;
+		this.sum = sum;
+		this.max = max;
+	}
+
+	/**
+	 * 件数を取得する。
+	 * 
+	 * @return 件数
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * 合計値を取得する。
+	 * 
+	 * @return 合計値
+	 */
+	public long getSum() {
+		return sum;
+	}
+
+	/**
+	 * 最大値を取得する。
+	 * 
+	 * @return 最大値
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * 平均値を取得する。
+	 * 
+	 * @return 平均値。件数が<code>0</code>の場合、<code>0</code>
+	 */
+	public double getMean() {
+		return (0L == count) ? 0.0 : (double) sum / count;
+	}
+
+	/**
+	 * 中央値を取得する。
+	 * 
+	 * @return 50パーセンタイル値
+	 */
+	public long getP50() {
+		return getValueAtPercentile(50.0);
+	}
+
+	/**
+	 * 90パーセンタイル値を取得する。
+	 * 
+	 * @return 90パーセンタイル値
+	 */
+	public long getP90() {
+		return getValueAtPercentile(90.0);
+	}
+
+	/**
+	 * 99パーセンタイル値を取得する。
+	 * 
+	 * @return 99パーセンタイル値
+	 */
+	public long getP99() {
+		return getValueAtPercentile(99.0);
+	}
+
+	/**
+	 * 99.9パーセンタイル値を取得する。
+	 * 
+	 * @return 99.9パーセンタイル値
+	 */
+	public long getP999() {
+		return getValueAtPercentile(99.9);
+	}
+
+	/**
+	 * パーセンタイル値を取得する。
+	 * 
+	 * @param percentile パーセンタイル(<code>0</code>～<code>100</code>)
+	 * @return パーセンタイル値。件数が<code>0</code>の場合、<code>0</code>
+	 */
+	public long getValueAtPercentile(final double percentile) {
+		if (0L == count) {
+			return 0L;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+		long total = 0L;
+		for (int i = 0; i < counts.length; i++) {
+			total += counts[i];
+			if (rank <= total) {
+				// 上限を超えた値を集計する最後の区間は最大値を返す
+				return (counts.length - 1 == i) ? max : Math.min(Histogram.upperBound(i), max);
+			}
+		}
+		return max;
+	}
+}
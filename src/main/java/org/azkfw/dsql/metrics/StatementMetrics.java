@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+/**
+ * このクラスは、ダイナミックSQLごとの計測値を記録するクラスです。
+ * <p>
+ * 生成の計測値はダイナミックSQLの生成時に、実行の計測値は{@link org.azkfw.dsql.executor.DynamicSQLExecutor}の使用時に記録します。
+ * 時間はナノ秒で記録します。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ * @see DynamicSQLMetrics#get(String, String)
+ */
+public final class StatementMetrics {
+
+	/**
+	 * 時間の上限(2^36ナノ秒、約69秒)の指数
+	 */
+	private static final int TIME_EXPONENT = 36;
+
+	/**
+	 * リスト要素数の上限(65536)の指数
+	 */
+	private static final int LENGTH_EXPONENT = 16;
+
+	/**
+	 * 名前空間
+	 */
+	private final String namespace;
+
+	/**
+	 * 名前
+	 */
+	private final String name;
+
+	/**
+	 * 生成時間
+	 */
+	private final Histogram build;
+
+	/**
+	 * 生成した形状数
+	 */
+	private final Counter shapes;
+
+	/**
+	 * リストの要素数
+	 */
+	private final Histogram inListLength;
+
+	/**
+	 * 実行時間
+	 */
+	private final Histogram execute;
+
+	/**
+	 * 読み込み時間
+	 */
+	private final Histogram fetch;
+
+	/**
+	 * 読み込み行数
+	 */
+	private final Counter rows;
+
+	/**
+	 * 更新件数
+	 */
+	private final Counter updates;
+
+	/**
+	 * 生成時の{@link DynamicSQLMetrics}の世代
+	 */
+	final int generation;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param generation 世代
+	 */
+	StatementMetrics(final String namespace, final String name, final int generation) {
+		this.namespace = namespace;
+		this.name = name;
+		this.generation = generation;
+		build = new Histogram(TIME_EXPONENT);
+		shapes = new Counter();
+		inListLength = new Histogram(LENGTH_EXPONENT);
+		execute = new Histogram(TIME_EXPONENT);
+		fetch = new Histogram(TIME_EXPONENT);
+		rows = new Counter();
+		updates = new Counter();
+	}
+
+	/**
+	 * 名前空間を取得する。
+	 * 
+	 * @return 名前空間
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	/**
+	 * 名前を取得する。
+	 * 
+	 * @return 名前
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * 生成を記録する。
+	 * 
+	 * @param nanos 生成時間
+	 */
+	public void recordGenerate(final long nanos) {
+		build.record(nanos);
+	}
+
+	/**
+	 * 新たな形状の生成を記録する。
+	 * <p>
+	 * 形状キャッシュに存在しない形状を生成した場合に記録する。
+	 * 形状キャッシュから追い出された形状を再度生成した場合も記録するため、形状数が形状キャッシュの容量を超える場合は異なる形状の数より大きくなる。
+	 * </p>
+	 */
+	public void recordShape() {
+		shapes.add(1L);
+	}
+
+	/**
+	 * リストパラメータの要素数を記録する。
+	 * 
+	 * @param length 要素数(段階化前)
+	 */
+	public void recordInList(final int length) {
+		inListLength.record(length);
+	}
+
+	/**
+	 * 検索系SQLの実行を記録する。
+	 * 
+	 * @param nanos 実行時間
+	 */
+	public void recordExecute(final long nanos) {
+		execute.record(nanos);
+	}
+
+	/**
+	 * 更新系SQLの実行を記録する。
+	 * 
+	 * @param nanos 実行時間
+	 * @param count 更新件数
+	 */
+	public void recordUpdate(final long nanos, final long count) {
+		execute.record(nanos);
+		if (0L < count) {
+			updates.add(count);
+		}
+	}
+
+	/**
+	 * 検索結果の読み込みを記録する。
+	 * 
+	 * @param nanos 読み込み時間(行ごとの処理時間を含む)
+	 * @param count 読み込み行数
+	 */
+	public void recordFetch(final long nanos, final long count) {
+		fetch.record(nanos);
+		rows.add(count);
+	}
+
+	/**
+	 * 計測値を複製する。
+	 * 
+	 * @return 計測値
+	 */
+	public StatementSnapshot snapshot() {
+		return new StatementSnapshot(namespace, name, build.snapshot(), shapes.sum(), inListLength.snapshot(), execute.snapshot(),
+				fetch.snapshot(), rows.sum(), updates.sum());
+	}
+
+	/**
+	 * 計測値を初期化する。
+	 */
+	void reset() {
+		build.reset();
+		shapes.reset();
+		inListLength.reset();
+		execute.reset();
+		fetch.reset();
+		rows.reset();
+		updates.reset();
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+/**
+ * このクラスは、ダイナミックSQLごとのある時点の計測値を保持するクラスです。
+ * <p>
+ * 時間はナノ秒です。
+ * </p>
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public final class StatementSnapshot {
+
+	/**
+	 * 名前空間
+	 */
+	private final String namespace;
+
+	/**
+	 * 名前
+	 */
+	private final String name;
+
+	/**
+	 * 生成時間
+	 */
+	private final HistogramSnapshot build;
+
+	/**
+	 * 生成した形状数
+	 */
+	private final long shapeCount;
+
+	/**
+	 * リストの要素数
+	 */
+	private final HistogramSnapshot inListLength;
+
+	/**
+	 * 実行時間
+	 */
+	private final HistogramSnapshot execute;
+
+	/**
+	 * 読み込み時間
+	 */
+	private final HistogramSnapshot fetch;
+
+	/**
+	 * 読み込み行数
+	 */
+	private final long rowCount;
+
+	/**
+	 * 更新件数
+	 */
+	private final long updateCount;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param namespace 名前空間
+	 * @param name 名前
+	 * @param build 生成時間
+	 * @param shapeCount 生成した形状数
+	 * @param inListLength リストの要素数
+	 * @param execute 実行時間
+	 * @param fetch 読み込み時間
+	 * @param rowCount 読み込み行数
+	 * @param updateCount 更新件数
+	 */
+	StatementSnapshot(final String namespace, final String name, final HistogramSnapshot build, final long shapeCount,
+			final HistogramSnapshot inListLength, final HistogramSnapshot execute, final HistogramSnapshot fetch, final long rowCount,
+			final long updateCount) {
+		this.namespace = namespace;
+		this.name = name;
+		this.build = build;
+		this.shapeCount = shapeCount;
+		this.inListLength = inListLength;
+		this.execute = execute;
+		this.fetch = fetch;
+		this.rowCount = rowCount;
+		this.updateCount = updateCount;
+	}
+
+	/**
+	 * 名前空間を取得する。
+	 * 
+	 * @return 名前空間
+	 */
+	public String getNamespace() {
+		return namespace;
+	}
+
+	/**
+	 * 名前を取得する。
+	 * 
+	 * @return 名前
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * 生成回数を取得する。
+	 * 
+	 * @return 生成回数
+	 */
+	public long getGenerateCount() {
+		return build.getCount();
+	}
+
+	/**
+	 * 生成時間を取得する。
+	 * 
+	 * @return 生成時間
+	 */
+	public HistogramSnapshot getBuild() {
+		return build;
+	}
+
+	/**
+	 * 生成した形状数を取得する。
+	 * 
+	 * @return 形状数
+	 * @see StatementMetrics#recordShape()
+	 */
+	public long getShapeCount() {
+		return shapeCount;
+	}
+
+	/**
+	 * リストパラメータの要素数の分布を取得する。
+	 * 
+	 * @return 要素数
+	 */
+	public HistogramSnapshot getInListLength() {
+		return inListLength;
+	}
+
+	/**
+	 * 実行回数を取得する。
+	 * 
+	 * @return 実行回数
+	 */
+	public long getExecuteCount() {
+		return execute.getCount();
+	}
+
+	/**
+	 * 実行時間を取得する。
+	 * 
+	 * @return 実行時間
+	 */
+	public HistogramSnapshot getExecute() {
+		return execute;
+	}
+
+	/**
+	 * 読み込み時間を取得する。
+	 * 
+	 * @return 読み込み時間
+	 */
+	public HistogramSnapshot getFetch() {
+		return fetch;
+	}
+
+	/**
+	 * 読み込み行数を取得する。
+	 * 
+	 * @return 読み込み行数
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * 更新件数を取得する。
+	 * 
+	 * @return 更新件数
+	 */
+	public long getUpdateCount() {
+		return updateCount;
+	}
+
+	/**
+	 * 生成と実行の合計時間を取得する。
+	 * 
+	 * @return 合計時間
+	 */
+	public long getTotalTime() {
+		return build.getSum() + execute.getSum() + fetch.getSum();
+	}
+}
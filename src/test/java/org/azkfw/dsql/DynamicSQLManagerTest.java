@@ -17,9 +17,27 @@
  */
 package org.azkfw.dsql;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import org.azkfw.context.Context;
 import org.azkfw.dsql.entity.DSQLEntity;
 import org.junit.After;
 import org.junit.Before;
@@ -110,4 +128,382 @@ public class DynamicSQLManagerTest extends DsqlTestCase {
 		assertEquals("名前", "test04", dsql.getName());
 	}
 
+	@Test
+	public void testLoadError() throws IOException {
+		DynamicSQLManager.getInstance().load("ns", "/dynamicSQL01.xml", getTestContext());
+
+		try {
+			DynamicSQLManager.getInstance().load("ns2", "/dynamicSQL02.xml", getTestContext());
+			fail("Not found file.");
+		} catch (IOException ex) {
+		}
+
+		assertNotNull(DynamicSQLManager.generate("ns", "test01"));
+		assertNull(DynamicSQLManager.generate("ns2", "test01"));
+		assertEquals("件数", 0, DynamicSQLManager.getInstance().getDSQLEntityList("ns2").size());
+	}
+
+	@Test
+	public void testReload() throws IOException {
+		final Map<String, String> files = new HashMap<String, String>();
+		files.put("/config.xml", "<azuki><dynamicSQLs><dynamicSQL name=\"test\" file=\"/test.sql\" /></dynamicSQLs></azuki>");
+		files.put("/test.sql", "SELECT A FROM T");
+		Context context = new Context() {
+			@Override
+			public String getAbstractPath(final String name) {
+				return null;
+			}
+
+			@Override
+			public InputStream getResourceAsStream(final String name) {
+				String data = files.get(name);
+				return (null == data) ? null : new ByteArrayInputStream(data.getBytes());
+			}
+		};
+
+		DynamicSQLManager.getInstance().load("ns", "/config.xml", context);
+		assertEquals("実行SQL", "SELECT A FROM T", DynamicSQLManager.generate("ns", "test").getExecuteSQL());
+		assertEquals("世代", 0, DynamicSQLManager.getInstance().getGeneration("ns", "test"));
+
+		assertEquals("再ロード数", 0, DynamicSQLManager.getInstance().reload());
+		assertEquals("世代", 0, DynamicSQLManager.getInstance().getGeneration("ns", "test"));
+
+		files.put("/test.sql", "SELECT B FROM T");
+		assertEquals("再ロード数", 1, DynamicSQLManager.getInstance().reload());
+		assertEquals("世代", 1, DynamicSQLManager.getInstance().getGeneration("ns", "test"));
+		assertEquals("実行SQL", "SELECT B FROM T", DynamicSQLManager.generate("ns", "test").getExecuteSQL());
+		assertEquals("世代", -1, DynamicSQLManager.getInstance().getGeneration("ns", "test99"));
+	}
+
+	@Test
+	public void testPrepare() throws IOException {
+		final Map<String, String> files = new HashMap<String, String>();
+		files.put("/config.xml", "<azuki><dynamicSQLs><dynamicSQL name=\"test\" file=\"/test.sql\" /></dynamicSQLs></azuki>");
+		files.put("/test.sql", "SELECT A FROM T WHERE 1 = 1\n${id}  AND ID = ?");
+		Context context = new Context() {
+			@Override
+			public String getAbstractPath(final String name) {
+				return null;
+			}
+
+			@Override
+			public InputStream getResourceAsStream(final String name) {
+				String data = files.get(name);
+				return (null == data) ? null : new ByteArrayInputStream(data.getBytes());
+			}
+		};
+
+		// ロード前に取得
+		StatementHandle handle = DynamicSQLManager.prepare("ns", "test");
+		StatementHandle missing = DynamicSQLManager.prepare("ns", "test99");
+		assertEquals("名前空間", "ns", handle.getNamespace());
+		assertEquals("名前", "test", handle.getName());
+		assertFalse("未ロード", handle.isAvailable());
+		assertNull("未ロード", handle.build(null, null));
+
+		DynamicSQLManager.getInstance().load("ns", "/config.xml", context);
+		assertTrue("ロード", handle.isAvailable());
+		assertFalse("未登録", missing.isAvailable());
+		assertNull("未登録", missing.build(null, null));
+
+		Parameter parameter = new Parameter();
+		parameter.put("id", 1);
+		DynamicSQL dsql = handle.build(null, parameter);
+		assertEquals("実行SQL", "SELECT A FROM T WHERE 1 = 1 AND ID = ?", dsql.getExecuteSQL());
+		assertEquals("実行SQL", DynamicSQLManager.generate("ns", "test", null, parameter).getExecuteSQL(), dsql.getExecuteSQL());
+
+		DynamicSQLBuffer buffer = new DynamicSQLBuffer();
+		assertSame("バッファ", buffer, handle.build(null, parameter, buffer));
+		assertEquals("実行SQL", "SELECT A FROM T WHERE 1 = 1 AND ID = ?", buffer.getExecuteSQL());
+		assertEquals("パラメータ数", 1, buffer.getParameterCount());
+
+		IndexedParameter indexed = new IndexedParameter(DynamicSQLManager.getInstance().getParameterLayout("ns", "test"));
+		assertEquals("実行SQL", "SELECT A FROM T WHERE 1 = 1", handle.buildIndexed(null, indexed).getExecuteSQL());
+
+		// 再ロード後は新しい内容で生成
+		files.put("/test.sql", "SELECT B FROM T WHERE 1 = 1\n${id}  AND ID = ?");
+		assertEquals("再ロード数", 1, DynamicSQLManager.getInstance().reload());
+		assertEquals("実行SQL", "SELECT B FROM T WHERE 1 = 1 AND ID = ?", handle.build(null, parameter).getExecuteSQL());
+
+		DynamicSQLManager.getInstance().initialize();
+		assertFalse("初期化", handle.isAvailable());
+		assertNull("初期化", handle.build(null, parameter));
+
+		try {
+			DynamicSQLManager.prepare("ns", null);
+			fail("Name is null.");
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void testParallelLoad() throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			DynamicSQLManager.getInstance().load("ns", "/dynamicSQL01.xml", getTestContext());
+			DynamicSQLManager.getInstance().setLoadExecutor(executor);
+			DynamicSQLManager.getInstance().load("ns2", "/dynamicSQL01.xml", getTestContext());
+
+			List<DSQLEntity> dsqls = DynamicSQLManager.getInstance().getDSQLEntityList("ns2");
+			assertEquals("件数", 4, dsqls.size());
+			for (DSQLEntity dsql : dsqls) {
+				assertEquals("実行SQL", DynamicSQLManager.generate("ns", dsql.getName()).getExecuteSQL(),
+						DynamicSQLManager.generate("ns2", dsql.getName()).getExecuteSQL());
+			}
+
+			try {
+				DynamicSQLManager.getInstance().load("ns3", "/dynamicSQL02.xml", getTestContext());
+				fail("Not found file.");
+			} catch (IOException ex) {
+			}
+			assertEquals("件数", 0, DynamicSQLManager.getInstance().getDSQLEntityList("ns3").size());
+		} finally {
+			DynamicSQLManager.getInstance().setLoadExecutor(null);
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testLazyLoad() throws Exception {
+		final Context base = getTestContext();
+		final AtomicInteger count = new AtomicInteger();
+		Context context = new Context() {
+			@Override
+			public String getAbstractPath(final String name) {
+				return null;
+			}
+
+			@Override
+			public InputStream getResourceAsStream(final String name) {
+				if (name.endsWith(".txt")) {
+					count.incrementAndGet();
+				}
+				return base.getResourceAsStream(name);
+			}
+		};
+
+		try {
+			DynamicSQLManager.getInstance().setLazyLoad(true, false);
+			DynamicSQLManager.getInstance().load("ns", "/dynamicSQL02.xml", context);
+			assertEquals("読み込み数", 0, count.get());
+
+			assertNotNull(DynamicSQLManager.generate("ns", "test01"));
+			assertNotNull(DynamicSQLManager.generate("ns", "test01"));
+			assertEquals("読み込み数", 1, count.get());
+			assertNull(DynamicSQLManager.generate("ns", "test99"));
+
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				DynamicSQLManager.getInstance().setLoadExecutor(executor);
+				DynamicSQLManager.getInstance().setLazyLoad(true, true);
+				count.set(0);
+				DynamicSQLManager.getInstance().load("ns2", "/dynamicSQL01.xml", context);
+			} finally {
+				DynamicSQLManager.getInstance().setLoadExecutor(null);
+				executor.shutdown();
+			}
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+			assertEquals("読み込み数", 4, count.get());
+			assertNotNull(DynamicSQLManager.generate("ns2", "test04"));
+			assertEquals("読み込み数", 4, count.get());
+		} finally {
+			DynamicSQLManager.getInstance().setLazyLoad(false, false);
+		}
+	}
+
+	@Test
+	public void testLazyLoadError() throws IOException {
+		final AtomicInteger count = new AtomicInteger();
+		final Map<String, byte[]> files = new HashMap<String, byte[]>();
+		files.put("/config.xml", "<azuki><dynamicSQLs><dynamicSQL name=\"missing\" file=\"/missing.sql\" /></dynamicSQLs></azuki>".getBytes("UTF-8"));
+		Context context = new Context() {
+			@Override
+			public String getAbstractPath(final String name) {
+				return null;
+			}
+
+			@Override
+			public InputStream getResourceAsStream(final String name) {
+				if (name.endsWith(".sql")) {
+					count.incrementAndGet();
+				}
+				byte[] data = files.get(name);
+				return (null == data) ? null : new ByteArrayInputStream(data);
+			}
+		};
+
+		try {
+			DynamicSQLManager.getInstance().setLazyLoad(true, false);
+			DynamicSQLManager.getInstance().load("ns", "/config.xml", context);
+			assertNull(DynamicSQLManager.generate("ns", "missing"));
+			assertNull(DynamicSQLManager.generate("ns", "missing"));
+			assertEquals("読み込み数", 1, count.get());
+
+			assertEquals("再ロード数", 0, DynamicSQLManager.getInstance().reload());
+			files.put("/missing.sql", "SELECT A FROM T".getBytes("UTF-8"));
+			assertEquals("再ロード数", 1, DynamicSQLManager.getInstance().reload());
+			assertEquals("実行SQL", "SELECT A FROM T", DynamicSQLManager.generate("ns", "missing").getExecuteSQL());
+		} finally {
+			DynamicSQLManager.getInstance().setLazyLoad(false, false);
+		}
+	}
+
+	@Test
+	public void testCatalog() throws IOException {
+		File catalog = File.createTempFile("dsql", ".catalog");
+		try {
+			new DynamicSQLCatalogCompiler().compile("/dynamicSQL01.xml", getTestContext(), catalog);
+
+			DynamicSQLManager.getInstance().load("ns", "/dynamicSQL01.xml", getTestContext());
+			DynamicSQLManager.getInstance().loadCatalog("ns2", catalog);
+
+			List<DSQLEntity> dsqls = DynamicSQLManager.getInstance().getDSQLEntityList("ns2");
+			assertEquals("件数", 4, dsqls.size());
+			Map<String, String> plainSQLs = new HashMap<String, String>();
+			for (DSQLEntity dsql : DynamicSQLManager.getInstance().getDSQLEntityList("ns")) {
+				plainSQLs.put(dsql.getName(), dsql.getPlainSQL());
+			}
+			Group group = new Group();
+			group.add("GROUP1");
+			Parameter parameter = new Parameter();
+			parameter.put("id", "1");
+			for (DSQLEntity dsql : dsqls) {
+				DynamicSQL expect = DynamicSQLManager.generate("ns", dsql.getName(), group, parameter);
+				DynamicSQL actual = DynamicSQLManager.generate("ns2", dsql.getName(), group, parameter);
+				assertEquals("実行SQL", expect.getExecuteSQL(), actual.getExecuteSQL());
+				assertEquals("整形SQL", expect.getFormatSQL(), actual.getFormatSQL());
+				assertEquals("パラメータ", expect.getParameters(), actual.getParameters());
+				assertEquals("SQL", plainSQLs.get(dsql.getName()), dsql.getPlainSQL());
+			}
+			assertEquals("再ロード数", 0, DynamicSQLManager.getInstance().reload());
+
+			FileOutputStream out = new FileOutputStream(catalog);
+			out.write(new byte[] { 0, 1, 2, 3 });
+			out.close();
+			try {
+				DynamicSQLManager.getInstance().loadCatalog("ns3", catalog);
+				fail("Invalid catalog.");
+			} catch (IOException ex) {
+			}
+		} finally {
+			catalog.delete();
+		}
+	}
+
+	@Test
+	public void testStatementAttributes() throws IOException {
+		DynamicSQLManager manager = DynamicSQLManager.getInstance();
+		manager.load("ns", "/dynamicSQL03.xml", getTestContext());
+		assertEquals("フェッチサイズ", 500, manager.getFetchSize("ns", "test07"));
+		assertEquals("行マッパー", "org.azkfw.dsql.executor.DynamicSQLExecutorTest$NameMapper", manager.getRowMapper("ns", "test07"));
+		assertEquals("未指定", 0, manager.getFetchSize("ns", "test05"));
+		assertNull("未指定", manager.getRowMapper("ns", "test05"));
+		assertEquals("存在しない", -1, manager.getFetchSize("ns", "none"));
+
+		StatementHandle handle = DynamicSQLManager.resolve("ns", "test07");
+		assertEquals("フェッチサイズ", 500, handle.getFetchSize());
+		assertEquals("行マッパー", "org.azkfw.dsql.executor.DynamicSQLExecutorTest$NameMapper", handle.getRowMapper());
+		assertNull("存在しない", DynamicSQLManager.resolve("ns", "none"));
+
+		File catalog = File.createTempFile("dsql", ".catalog");
+		try {
+			new DynamicSQLCatalogCompiler().compile("/dynamicSQL03.xml", getTestContext(), catalog);
+			manager.loadCatalog("ns2", catalog);
+			assertEquals("フェッチサイズ", 500, manager.getFetchSize("ns2", "test07"));
+			assertEquals("行マッパー", manager.getRowMapper("ns", "test07"), manager.getRowMapper("ns2", "test07"));
+		} finally {
+			catalog.delete();
+		}
+	}
+
+	@Test
+	public void testCharset() throws IOException {
+		final Charset sjis = Charset.forName("Shift_JIS");
+		final Map<String, byte[]> files = new HashMap<String, byte[]>();
+		files.put("/config.xml", ("<azuki><dynamicSQLs><dynamicSQL name=\"sjis\" file=\"/sjis.sql\" charset=\"Shift_JIS\" />"
+				+ "<dynamicSQL name=\"utf8\" file=\"/utf8.sql\" /></dynamicSQLs></azuki>").getBytes(sjis));
+		files.put("/sjis.sql", "SELECT '漢字' FROM T".getBytes(sjis));
+		files.put("/utf8.sql", "SELECT '漢字' FROM T".getBytes(Charset.forName("UTF-8")));
+		Context context = new Context() {
+			@Override
+			public String getAbstractPath(final String name) {
+				return null;
+			}
+
+			@Override
+			public InputStream getResourceAsStream(final String name) {
+				byte[] data = files.get(name);
+				return (null == data) ? null : new ByteArrayInputStream(data);
+			}
+		};
+
+		DynamicSQLManager.getInstance().load("ns", "/config.xml", context);
+		assertEquals("実行SQL", "SELECT '漢字' FROM T", DynamicSQLManager.generate("ns", "sjis").getExecuteSQL());
+		assertEquals("実行SQL", "SELECT '漢字' FROM T", DynamicSQLManager.generate("ns", "utf8").getExecuteSQL());
+
+		// 文字コードに従ってデコードできない場合
+		files.put("/config.xml", "<azuki><dynamicSQLs><dynamicSQL name=\"error\" file=\"/sjis.sql\" /></dynamicSQLs></azuki>".getBytes(sjis));
+		try {
+			DynamicSQLManager.getInstance().load("ns2", "/config.xml", context);
+			fail("Malformed input.");
+		} catch (IOException ex) {
+		}
+	}
+
+	@Test
+	public void testLoadDirectory() throws IOException {
+		Charset sjis = Charset.forName("Shift_JIS");
+		Path directory = Files.createTempDirectory("dsql");
+		Path zip = Files.createTempFile("dsql", ".zip");
+		try {
+			Files.createDirectories(directory.resolve("sub"));
+			Files.write(directory.resolve("a.sql"), "SELECT '漢字' FROM A".getBytes(sjis));
+			Files.write(directory.resolve("sub/b.sql"), "SELECT B FROM T\n${:id} WHERE ID = ?".getBytes(sjis));
+			Files.write(directory.resolve("c.txt"), "SELECT C FROM T".getBytes(sjis));
+
+			ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip));
+			for (String name : new String[] { "a.sql", "sub/b.sql", "c.txt" }) {
+				out.putNextEntry(new ZipEntry("dsql/" + name));
+				out.write(Files.readAllBytes(directory.resolve(name)));
+				out.closeEntry();
+			}
+			out.close();
+
+			DynamicSQLManager.getInstance().setCharset(sjis);
+			DynamicSQLManager.getInstance().loadDirectory("ns", directory, "*.sql");
+
+			FileSystem fs = FileSystems.newFileSystem(zip, (ClassLoader) null);
+			try {
+				DynamicSQLManager.getInstance().loadDirectory("ns2", fs.getPath("/dsql"), "*.sql");
+			} finally {
+				fs.close();
+			}
+
+			Parameter parameter = new Parameter();
+			parameter.put("id", "1");
+			for (String ns : new String[] { "ns", "ns2" }) {
+				List<DSQLEntity> dsqls = DynamicSQLManager.getInstance().getDSQLEntityList(ns);
+				assertEquals("件数", 2, dsqls.size());
+				assertEquals("名前", "a", dsqls.get(0).getName());
+				assertEquals("名前", "sub/b", dsqls.get(1).getName());
+				assertEquals("実行SQL", "SELECT '漢字' FROM A", DynamicSQLManager.generate(ns, "a").getExecuteSQL());
+				assertEquals("実行SQL", "SELECT B FROM T WHERE ID = ?", DynamicSQLManager.generate(ns, "sub/b", parameter).getExecuteSQL());
+			}
+
+			try {
+				DynamicSQLManager.getInstance().loadDirectory("ns3", directory.resolve("none"), "*.sql");
+				fail("Not found directory.");
+			} catch (IOException ex) {
+			}
+		} finally {
+			DynamicSQLManager.getInstance().setCharset(null);
+			Files.delete(directory.resolve("sub/b.sql"));
+			Files.delete(directory.resolve("sub"));
+			Files.delete(directory.resolve("a.sql"));
+			Files.delete(directory.resolve("c.txt"));
+			Files.delete(directory);
+			Files.delete(zip);
+		}
+	}
+
 }
@@ -17,10 +17,25 @@
  */
 package org.azkfw.dsql;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.azkfw.dsql.entity.DSQLEntity;
+import org.azkfw.dsql.entity.DSQLGroupIndex;
+import org.azkfw.dsql.entity.DSQLShapeCache;
+import org.azkfw.dsql.entity.ParameterLayout;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -171,4 +186,630 @@ public class DynamicSQLTest extends DsqlTestCase {
 		assertEquals("実行SQL", readTestTextFile("/test04-expect-execute3.txt"), dsql.getExecuteSQL());
 		assertEquals("整形SQL", readTestTextFile("/test04-expect-format3.txt", "\n"), dsql.getFormatSQL());
 	}
+
+	@Test
+	public void testShapeCache() {
+		DSQLShapeCache cache = null;
+		for (DSQLEntity entity : DynamicSQLManager.getInstance().getDSQLEntityList("ns")) {
+			if ("test04".equals(entity.getName())) {
+				cache = entity.getPlan().getShapeCache();
+			}
+		}
+		assertNotNull("インスタンス", cache);
+
+		Parameter params = new Parameter();
+		List<Integer> ages = new ArrayList<Integer>();
+		ages.add(1);
+		ages.add(2);
+		params.put("ages", ages);
+
+		DynamicSQL dsql1 = DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("形状数", 1, cache.size());
+		assertEquals("ミス回数", 1, cache.getMissCount());
+
+		ages.set(0, 3);
+		DynamicSQL dsql2 = DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("形状数", 1, cache.size());
+		assertEquals("ヒット回数", 1, cache.getHitCount());
+		assertSame("実行SQL", dsql1.getExecuteSQL(), dsql2.getExecuteSQL());
+		assertEquals("パラメータ", 3, dsql2.getParameters().get(0));
+
+		ages.add(3);
+		DynamicSQL dsql3 = DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("形状数", 2, cache.size());
+		assertNotSame("実行SQL", dsql1.getExecuteSQL(), dsql3.getExecuteSQL());
+
+		// 整形SQLは参照時に生成し、同一形状で共有する
+		assertSame("整形SQL", dsql2.getFormatSQL(), dsql1.getFormatSQL());
+		assertTrue("整形SQL", dsql3.getFormatSQL().contains("?, ?, ?"));
+	}
+
+	@Test
+	public void testShapeCacheEviction() {
+		DSQLShapeCache cache = new DSQLShapeCache(2);
+		DSQLShapeCache.Key a = new DSQLShapeCache.Key(new int[] { 1 });
+		DSQLShapeCache.Key b = new DSQLShapeCache.Key(new int[] { 2 });
+		DSQLShapeCache.Key c = new DSQLShapeCache.Key(new int[] { 3 });
+		cache.put(a, new DSQLShapeCache.Shape("A", "A"));
+		cache.put(b, new DSQLShapeCache.Shape("B", "B"));
+		assertNotNull("ヒット", cache.get(a));
+		assertNull("ミス", cache.get(c));
+
+		// 参照された形状は破棄しない
+		cache.put(c, new DSQLShapeCache.Shape("C", "C"));
+		assertEquals("形状数", 2, cache.size());
+		assertEquals("破棄回数", 1, cache.getEvictionCount());
+		assertNotNull("参照済み", cache.get(a));
+		assertEquals("ヒット回数", 2, cache.getHitCount());
+		assertEquals("ミス回数", 1, cache.getMissCount());
+	}
+
+	@Test
+	public void testRowList() throws IOException {
+		DSQLEntity entity = DSQLEntity.getInstance("test06", getClass().getResourceAsStream("/test06.txt"), Charset.forName("UTF-8"));
+
+		Parameter params = new Parameter();
+		params.put("tenant", "t1");
+		params.put("rows", new RowList(2).add(1, "a").add(2, "b").add(3, "c"));
+		DynamicSQL dsql = DynamicSQLBuilder.build("test06", entity, params);
+		assertEquals("実行SQL", "INSERT INTO customer ( tenant, id, name ) SELECT ?, v.id, v.name FROM ( VALUES ( ?, ? ), ( ?, ? ), ( ?, ? ) ) AS v ( id, name )",
+				dsql.getExecuteSQL());
+		assertEquals("整形SQL", "                INSERT INTO customer\n                    ( tenant, id, name )\n"
+				+ "                SELECT ?, v.id, v.name FROM ( VALUES\n                    ( ?, ? ), ( ?, ? ), ( ?, ? )\n"
+				+ "                ) AS v ( id, name )", dsql.getFormatSQL());
+		assertEquals("パラメータ", Arrays.<Object> asList("t1", 1, "a", 2, "b", 3, "c"), dsql.getParameters());
+
+		// 列数とバインド記号の数が一致しない場合
+		params.put("rows", new RowList(3).add(1, "a", "x"));
+		try {
+			DynamicSQLBuilder.build("test06", entity, params);
+			fail("Unmatched row list column count.");
+		} catch (IllegalArgumentException ex) {
+		}
+
+		// 行リストは複製して保持する
+		List<Object[]> source = new ArrayList<Object[]>();
+		source.add(new Object[] { 1, "a" });
+		RowList copied = new RowList(2, source);
+		source.add(new Object[] { 1 });
+		assertEquals("行数", 1, copied.size());
+
+		// 行数が異なる場合は別の形状となる
+		params.put("rows", new RowList(2).add(1, "a"));
+		dsql = DynamicSQLBuilder.build("test06", entity, params);
+		assertEquals("実行SQL", "INSERT INTO customer ( tenant, id, name ) SELECT ?, v.id, v.name FROM ( VALUES ( ?, ? ) ) AS v ( id, name )",
+				dsql.getExecuteSQL());
+
+		// 括弧の内側の関数呼び出しを含めて繰り返す
+		entity = DSQLEntity.getInstance("test05", getClass().getResourceAsStream("/test05.txt"), Charset.forName("UTF-8"));
+		params = new Parameter();
+		params.put("rows", new RowList(2).add(1, "a").add(2, "b"));
+		dsql = DynamicSQLBuilder.build("test05", entity, params);
+		assertEquals("実行SQL", "INSERT INTO customer ( id, name, updated ) VALUES ( ?, UPPER(?), CURRENT_TIMESTAMP ), ( ?, UPPER(?), CURRENT_TIMESTAMP )",
+				dsql.getExecuteSQL());
+
+		try {
+			new RowList(2).add(1, "a", "x");
+			fail("列数の誤り");
+		} catch (IllegalArgumentException ex) {
+			assertEquals("メッセージ", "Invalid row size.[expected:2, actual:3]", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void testBuffer() {
+		Group group = new Group("SELECT", "NAME", "AGE");
+		Parameter params = new Parameter();
+		params.put("name", "test");
+		params.put("fromAge", 10);
+		params.put("toAge", 19);
+
+		DynamicSQLBuffer buffer = new DynamicSQLBuffer();
+		DynamicSQL expect = DynamicSQLManager.generate("ns", "test03", group, params);
+		assertSame("インスタンス", buffer, DynamicSQLManager.generate("ns", "test03", group, params, buffer));
+		assertEquals("名前", "test03", buffer.getName());
+		assertSame("実行SQL", expect.getExecuteSQL(), buffer.getExecuteSQL());
+		assertEquals("整形SQL", expect.getFormatSQL(), buffer.getFormatSQL());
+		assertEquals("パラメータ", expect.getParameters(), buffer.getParameters());
+		assertEquals("パラメータ数", 3, buffer.getParameterCount());
+		assertEquals("パラメータ", "test", buffer.getParameterArray()[0]);
+
+		// 保持する場合は複製する
+		DynamicSQL copy = buffer.toDynamicSQL();
+
+		List<Integer> ages = new ArrayList<Integer>();
+		for (int i = 0; i < 40; i++) {
+			ages.add(i);
+		}
+		params = new Parameter();
+		params.put("ages", ages);
+		expect = DynamicSQLManager.generate("ns", "test04", params);
+		DynamicSQLManager.generate("ns", "test04", null, params, buffer);
+		assertEquals("実行SQL", expect.getExecuteSQL(), buffer.getExecuteSQL());
+		assertEquals("パラメータ", expect.getParameters(), buffer.getParameters());
+		assertEquals("パラメータ数", 40, buffer.getParameterCount());
+		assertEquals("パラメータ数", 3, copy.getParameters().size());
+
+		ParameterLayout layout = DynamicSQLManager.getInstance().getParameterLayout("ns", "test03");
+		IndexedParameter indexed = new IndexedParameter(layout);
+		indexed.set(layout.indexOf("name"), "test");
+		DynamicSQLManager.generateIndexed("ns", "test03", new Group("COUNT", "NAME"), indexed, buffer);
+		assertEquals("実行SQL", readTestTextFile("/test03-expect-execute2.txt"), buffer.getExecuteSQL());
+		assertEquals("パラメータ数", 1, buffer.getParameterCount());
+		assertNull("パラメータ", buffer.getParameterArray()[1]);
+
+		assertNull("存在しない", DynamicSQLManager.generate("ns", "test99", null, null, buffer));
+		buffer.clear();
+		assertNull("実行SQL", buffer.getExecuteSQL());
+		assertEquals("パラメータ数", 0, buffer.getParameters().size());
+		assertSame("スレッドごと", DynamicSQLBuffer.local(), DynamicSQLBuffer.local());
+	}
+
+	@Test
+	public void testLazyFormatSQL() throws IOException {
+		String text = "${x}\n    SELECT A\n  FROM T\n${ids}  WHERE ID IN (?)\n${g:}";
+		DSQLEntity entity = DSQLEntity.getInstance("lazy", ByteBuffer.wrap(text.getBytes("UTF-8")), Charset.forName("UTF-8"));
+
+		Parameter params = new Parameter();
+		params.put("x", "X");
+		List<Integer> ids = new ArrayList<Integer>();
+		params.put("ids", ids);
+		DynamicSQL dsql = DynamicSQLBuilder.build("lazy", entity, new Group("g"), params);
+		assertEquals("実行SQL", "SELECT A FROM T WHERE ID IN () ", dsql.getExecuteSQL());
+		assertEquals("整形SQL", "    SELECT A\n  FROM T\n        WHERE ID IN ()\n", dsql.getFormatSQL());
+
+		ids.add(1);
+		ids.add(2);
+		dsql = DynamicSQLBuilder.build("lazy", entity, params);
+		assertEquals("実行SQL", "SELECT A FROM T WHERE ID IN (?, ?)", dsql.getExecuteSQL());
+		assertEquals("整形SQL", "    SELECT A\n  FROM T\n        WHERE ID IN (?, ?)", dsql.getFormatSQL());
+	}
+
+	@Test
+	public void testGroup() {
+		Group group = new Group("SELECT", "NAME");
+		assertTrue("グループ", group.is("SELECT"));
+		assertFalse("グループ", group.is("COUNT"));
+		assertFalse("グループ", group.is("UNKNOWN_GROUP"));
+
+		Group copy = new Group(group);
+		copy.add("AGE");
+		copy.remove("NAME");
+		assertTrue("グループ", copy.is("AGE"));
+		assertFalse("グループ", copy.is("NAME"));
+		assertFalse("グループ", group.is("AGE"));
+		assertTrue("グループ", group.is("NAME"));
+
+		Parameter params = new Parameter();
+		params.put("name", "test");
+		params.put("fromAge", 10);
+		params.put("toAge", 19);
+		copy.add("NAME");
+		DynamicSQL dsql = DynamicSQLManager.generate("ns", "test03", copy, params);
+		assertEquals("パラメータ数", 3, dsql.getParameters().size());
+		assertEquals("実行SQL", readTestTextFile("/test03-expect-execute3.txt"), dsql.getExecuteSQL());
+	}
+
+	@Test
+	public void testGroupUnindexed() throws IOException {
+		Group group = new Group("UNINDEXED_GROUP", null);
+		group.add(null);
+		assertFalse("グループ", group.is((String) null));
+		group.remove(null);
+		assertTrue("グループ", group.is("UNINDEXED_GROUP"));
+		assertEquals("インデックス", -1, DSQLGroupIndex.find("UNINDEXED_GROUP"));
+		assertEquals("インデックス", -1, DSQLGroupIndex.find("UNINDEXED_GROUP2"));
+
+		Group copy = new Group(group);
+		copy.remove("UNINDEXED_GROUP");
+		assertFalse("グループ", copy.is("UNINDEXED_GROUP"));
+		assertTrue("グループ", group.is("UNINDEXED_GROUP"));
+
+		String text = "    SELECT A\n  FROM T\n${UNINDEXED_GROUP:}  WHERE B = 1";
+		DSQLEntity entity = DSQLEntity.getInstance("unindexed", ByteBuffer.wrap(text.getBytes("UTF-8")), Charset.forName("UTF-8"));
+		DynamicSQL dsql = DynamicSQLBuilder.build("unindexed", entity, group, new Parameter());
+		assertEquals("実行SQL", "SELECT A FROM T WHERE B = 1", dsql.getExecuteSQL());
+		assertTrue("インデックス", -1 != DSQLGroupIndex.find("UNINDEXED_GROUP"));
+		dsql = DynamicSQLBuilder.build("unindexed", entity, copy, new Parameter());
+		assertEquals("実行SQL", "SELECT A FROM T", dsql.getExecuteSQL());
+	}
+
+	@Test
+	public void testIndexedParameter() {
+		ParameterLayout layout = DynamicSQLManager.getInstance().getParameterLayout("ns", "test03");
+		assertNotNull("インスタンス", layout);
+		assertEquals("スロット数", 3, layout.size());
+		assertEquals("スロット", -1, layout.indexOf("unknown"));
+
+		int slotName = layout.indexOf("name");
+		int slotFromAge = layout.indexOf("fromAge");
+		int slotToAge = layout.indexOf("toAge");
+
+		Group group = new Group("SELECT", "NAME", "AGE");
+		IndexedParameter params = new IndexedParameter(layout);
+		params.set(slotName, "test");
+		params.set(slotFromAge, 10);
+		params.set(slotToAge, 19);
+
+		DynamicSQL dsql = DynamicSQLManager.generateIndexed("ns", "test03", group, params);
+		assertNotNull("インスタンス", dsql);
+		assertEquals("パラメータ数", 3, dsql.getParameters().size());
+		assertEquals("実行SQL", readTestTextFile("/test03-expect-execute3.txt"), dsql.getExecuteSQL());
+		assertEquals("整形SQL", readTestTextFile("/test03-expect-format3.txt", "\n"), dsql.getFormatSQL());
+
+		params.remove(slotFromAge);
+		params.remove(slotToAge);
+		group = new Group("COUNT", "NAME");
+		dsql = DynamicSQLManager.generateIndexed("ns", "test03", group, params);
+		assertEquals("パラメータ数", 1, dsql.getParameters().size());
+		assertEquals("実行SQL", readTestTextFile("/test03-expect-execute2.txt"), dsql.getExecuteSQL());
+	}
+
+	@Test
+	public void testBean() {
+		Group group = new Group("SELECT", "NAME", "AGE");
+		Parameter params = new Parameter();
+		params.put("name", "test");
+		params.put("fromAge", 10);
+		params.put("toAge", 19);
+		DynamicSQL expect = DynamicSQLManager.generate("ns", "test03", group, params);
+
+		// 値がnullのパラメータは未設定と区別する
+		Parameter nullName = new Parameter();
+		nullName.put("name", null);
+		DynamicSQL dsql = DynamicSQLManager.generate("ns", "test03", group, nullName);
+		assertEquals("パラメータ数", 1, dsql.getParameters().size());
+		assertNull("パラメータ", dsql.getParameters().get(0));
+
+		// getXxx()、xxx()、公開フィールド
+		dsql = DynamicSQLManager.generate("ns", "test03", group, new CustomerCondition("test", 10, 19));
+		assertNotNull("インスタンス", dsql);
+		assertEquals("実行SQL", expect.getExecuteSQL(), dsql.getExecuteSQL());
+		assertEquals("パラメータ", expect.getParameters(), dsql.getParameters());
+
+		// 非公開クラス
+		dsql = DynamicSQLManager.generate("ns", "test03", group, new NameOnly("test"));
+		assertEquals("パラメータ数", 1, dsql.getParameters().size());
+		assertEquals("パラメータ", "test", dsql.getParameters().get(0));
+
+		DynamicSQLBuffer buffer = new DynamicSQLBuffer();
+		assertSame("バッファ", buffer, DynamicSQLManager.generate("ns", "test03", group, new CustomerCondition("test", 10, 19), buffer));
+		assertEquals("実行SQL", expect.getExecuteSQL(), buffer.getExecuteSQL());
+		assertEquals("パラメータ数", 3, buffer.getParameterCount());
+
+		StatementHandle handle = DynamicSQLManager.prepare("ns", "test03");
+		assertEquals("実行SQL", expect.getExecuteSQL(), handle.build(group, new CustomerCondition("test", 10, 19)).getExecuteSQL());
+		assertEquals("実行SQL", expect.getExecuteSQL(), handle.build(group, (Object) params).getExecuteSQL());
+
+		ParameterLayout layout = DynamicSQLManager.getInstance().getParameterLayout("ns", "test03");
+		assertSame("クラスごと", layout.getAccessors(CustomerCondition.class), layout.getAccessors(CustomerCondition.class));
+		assertNull("存在しないプロパティ", layout.getAccessors(NameOnly.class)[layout.indexOf("fromAge")]);
+
+		// 同名のフィールドが無いxxx()は呼び出さない
+		SideEffect sideEffect = new SideEffect();
+		dsql = DynamicSQLManager.generate("ns", "test03", group, sideEffect);
+		assertEquals("パラメータ数", 1, dsql.getParameters().size());
+		assertEquals("呼び出し回数", 0, sideEffect.calls);
+		assertNull("フィールド無し", layout.getAccessors(SideEffect.class)[layout.indexOf("fromAge")]);
+
+		try {
+			DynamicSQLManager.generate("ns", "test03", group, new Failure());
+			fail("Property read error.");
+		} catch (IllegalStateException ex) {
+		}
+	}
+
+	public static class CustomerCondition {
+
+		public final int toAge;
+
+		private final String name;
+
+		private final int fromAge;
+
+		public CustomerCondition(final String name, final int fromAge, final int toAge) {
+			this.name = name;
+			this.fromAge = fromAge;
+			this.toAge = toAge;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int fromAge() {
+			return fromAge;
+		}
+	}
+
+	private static class NameOnly {
+
+		private final String name;
+
+		private NameOnly(final String name) {
+			this.name = name;
+		}
+
+		@SuppressWarnings("unused")
+		public String getName() {
+			return name;
+		}
+	}
+
+	public static class SideEffect {
+
+		private int calls;
+
+		public String getName() {
+			return "test";
+		}
+
+		public int fromAge() {
+			return ++calls;
+		}
+	}
+
+	public static class Failure {
+
+		public String getName() throws IOException {
+			throw new IOException("failure");
+		}
+	}
+
+	@Test
+	public void testInListBucketing() throws IOException {
+		InListBucketing bucketing = InListBucketing.of(InListBucketing.Padding.LAST, 1, 4, 16);
+		assertEquals("段階", 0, bucketing.bucket(0));
+		assertEquals("段階", 1, bucketing.bucket(1));
+		assertEquals("段階", 4, bucketing.bucket(2));
+		assertEquals("段階", 16, bucketing.bucket(5));
+		assertEquals("段階", 32, bucketing.bucket(17));
+		assertEquals("段階", 8, InListBucketing.powerOfTwo(InListBucketing.Padding.NULL).bucket(5));
+		assertEquals("段階化なし", 5, InListBucketing.parse("none", null).bucket(5));
+		assertSame("段階化なし", InListBucketing.none(), InListBucketing.parse(" NONE ", "null"));
+		assertNull("未指定", InListBucketing.parse("", null));
+
+		Parameter params = new Parameter();
+		List<Integer> ages = new ArrayList<Integer>();
+		ages.add(1);
+		ages.add(2);
+		ages.add(3);
+		params.put("ages", ages);
+
+		DynamicSQLBuilder.setInListBucketing(bucketing);
+		try {
+			DynamicSQL dsql = DynamicSQLManager.generate("ns", "test04", params);
+			assertEquals("パラメータ数", 4, dsql.getParameters().size());
+			assertEquals("パラメータ", 3, dsql.getParameters().get(3));
+			assertTrue("実行SQL", dsql.getExecuteSQL().endsWith("IN( ?, ?, ?, ? )"));
+
+			// ダイナミックSQLごとに段階化しない場合
+			DynamicSQLManager.getInstance().load("ns4", "/dynamicSQL04.xml", getTestContext());
+			dsql = DynamicSQLManager.generate("ns4", "unbucketed", params);
+			assertEquals("パラメータ数", 3, dsql.getParameters().size());
+			assertTrue("実行SQL", dsql.getExecuteSQL().endsWith("IN( ?, ?, ? )"));
+		} finally {
+			DynamicSQLBuilder.setInListBucketing(null);
+		}
+	}
+
+	@Test
+	public void testArrayInList() {
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(1L, 2L, 3L));
+		DynamicSQL expect = DynamicSQLManager.generate("ns", "test04", params);
+
+		// long[]
+		params.put("ages", new long[] { 1L, 2L, 3L });
+		DynamicSQLBuffer buffer = new DynamicSQLBuffer();
+		DynamicSQLManager.generate("ns", "test04", null, params, buffer);
+		assertEquals("実行SQL", expect.getExecuteSQL(), buffer.getExecuteSQL());
+		assertEquals("パラメータ数", 3, buffer.getParameterCount());
+		assertSame("プリミティブ型", Long.TYPE, buffer.getPrimitiveType(0));
+		assertEquals("パラメータ", 2L, buffer.getLong(1));
+		assertEquals("パラメータ", Long.valueOf(3L), buffer.getParameter(2));
+		assertEquals("パラメータ", expect.getParameters(), buffer.getParameters());
+		assertEquals("パラメータ", expect.getParameters(), buffer.toDynamicSQL().getParameters());
+		assertEquals("パラメータ", Long.valueOf(1L), buffer.getParameterArray()[0]);
+		assertNull("ボクシング後", buffer.getPrimitiveType(0));
+
+		// int[]
+		params.put("ages", new int[] { 1, 2, 3 });
+		DynamicSQLManager.generate("ns", "test04", null, params, buffer);
+		assertSame("プリミティブ型", Integer.TYPE, buffer.getPrimitiveType(2));
+		assertEquals("パラメータ", Arrays.<Object> asList(1, 2, 3), buffer.getParameters());
+
+		// String[]、Collection、Iterable
+		params.put("ages", new String[] { "1", "2", "3" });
+		DynamicSQL dsql = DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("実行SQL", expect.getExecuteSQL(), dsql.getExecuteSQL());
+		assertEquals("パラメータ", Arrays.<Object> asList("1", "2", "3"), dsql.getParameters());
+		params.put("ages", new LinkedHashSet<Long>(Arrays.asList(1L, 2L, 3L)));
+		dsql = DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("パラメータ", expect.getParameters(), dsql.getParameters());
+		final List<Long> values = Arrays.asList(1L, 2L, 3L);
+		params.put("ages", new Iterable<Long>() {
+			@Override
+			public Iterator<Long> iterator() {
+				return values.iterator();
+			}
+		});
+		dsql = DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("実行SQL", expect.getExecuteSQL(), dsql.getExecuteSQL());
+		assertEquals("パラメータ", expect.getParameters(), dsql.getParameters());
+
+		// 空の配列
+		params.put("ages", new long[0]);
+		assertEquals("パラメータ数", 0, DynamicSQLManager.generate("ns", "test04", params).getParameters().size());
+
+		// 段階化による補完
+		DynamicSQLBuilder.setInListBucketing(InListBucketing.of(InListBucketing.Padding.LAST, 1, 4, 16));
+		try {
+			params.put("ages", new long[] { 1L, 2L, 3L });
+			DynamicSQLManager.generate("ns", "test04", null, params, buffer);
+			assertEquals("パラメータ数", 4, buffer.getParameterCount());
+			assertSame("プリミティブ型", Long.TYPE, buffer.getPrimitiveType(3));
+			assertEquals("パラメータ", 3L, buffer.getLong(3));
+			assertTrue("実行SQL", buffer.getExecuteSQL().endsWith("IN( ?, ?, ?, ? )"));
+		} finally {
+			DynamicSQLBuilder.setInListBucketing(null);
+		}
+		DynamicSQLBuilder.setInListBucketing(InListBucketing.of(InListBucketing.Padding.NULL, 1, 4, 16));
+		try {
+			params.put("ages", new int[] { 1, 2, 3 });
+			DynamicSQLManager.generate("ns", "test04", null, params, buffer);
+			assertNull("パラメータ", buffer.getParameter(3));
+			assertNull("プリミティブ型", buffer.getPrimitiveType(3));
+		} finally {
+			DynamicSQLBuilder.setInListBucketing(null);
+		}
+
+		// その他の配列は1つの値として設定する
+		Integer[] ages = new Integer[] { 1, 2 };
+		params.put("ages", ages);
+		dsql = DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("パラメータ数", 1, dsql.getParameters().size());
+		assertSame("パラメータ", ages, dsql.getParameters().get(0));
+	}
+
+	@Test
+	public void testSourceGenerator() throws Exception {
+		File directory = new File(System.getProperty("java.io.tmpdir"), "dsql-generated-" + System.nanoTime());
+		try {
+			new DynamicSQLSourceGenerator().generate("/dynamicSQL01.xml", getTestContext(), "gen", directory);
+			compile(new File(directory, "gen/Test03SQL.java"), directory);
+
+			URLClassLoader loader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, getClass().getClassLoader());
+			try {
+				Class<?> clazz = loader.loadClass("gen.Test03SQL");
+				Object statement = clazz.newInstance();
+				clazz.getMethod("setName", Object.class).invoke(statement, "abc");
+				clazz.getMethod("groupAGE", boolean.class).invoke(statement, true);
+				clazz.getMethod("setFromAge", Object.class).invoke(statement, 10);
+				clazz.getMethod("setToAge", Object.class).invoke(statement, 20);
+				DynamicSQL actual = (DynamicSQL) clazz.getMethod("build", String.class).invoke(statement, "ns");
+
+				Parameter parameter = new Parameter();
+				parameter.put("name", "abc");
+				parameter.put("fromAge", 10);
+				parameter.put("toAge", 20);
+				DynamicSQL expect = DynamicSQLManager.generate("ns", "test03", new Group("AGE"), parameter);
+				assertEquals("実行SQL", expect.getExecuteSQL(), actual.getExecuteSQL());
+				assertEquals("整形SQL", expect.getFormatSQL(), actual.getFormatSQL());
+				assertEquals("パラメータ", expect.getParameters(), actual.getParameters());
+
+				List<Object> ages = new ArrayList<Object>();
+				ages.add(1);
+				ages.add(2);
+				ages.add(3);
+				clazz = loader.loadClass("gen.Test04SQL");
+				statement = clazz.newInstance();
+				clazz.getMethod("setAges", Object.class).invoke(statement, ages);
+				actual = (DynamicSQL) clazz.getMethod("build", String.class).invoke(statement, "ns");
+
+				parameter = new Parameter();
+				parameter.put("ages", ages);
+				expect = DynamicSQLManager.generate("ns", "test04", parameter);
+				assertEquals("実行SQL", expect.getExecuteSQL(), actual.getExecuteSQL());
+				assertEquals("整形SQL", expect.getFormatSQL(), actual.getFormatSQL());
+				assertEquals("パラメータ", expect.getParameters(), actual.getParameters());
+
+				Object[] values = new Object[] { new long[] { 1L, 2L, 3L }, new int[] { 1, 2, 3 }, new String[] { "a", "b", "c" },
+						new LinkedHashSet<Object>(ages) };
+				for (Object value : values) {
+					statement = clazz.newInstance();
+					clazz.getMethod("setAges", Object.class).invoke(statement, value);
+					actual = (DynamicSQL) clazz.getMethod("build", String.class).invoke(statement, "ns");
+
+					parameter = new Parameter();
+					parameter.put("ages", value);
+					expect = DynamicSQLManager.generate("ns", "test04", parameter);
+					assertEquals("実行SQL", expect.getExecuteSQL(), actual.getExecuteSQL());
+					assertEquals("整形SQL", expect.getFormatSQL(), actual.getFormatSQL());
+					assertEquals("パラメータ", expect.getParameters(), actual.getParameters());
+					assertEquals("パラメータ数", 3, actual.getParameters().size());
+				}
+			} finally {
+				loader.close();
+			}
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void testSourceGeneratorBucketing() throws Exception {
+		DynamicSQLManager.getInstance().load("ns4", "/dynamicSQL04.xml", getTestContext());
+
+		File directory = new File(System.getProperty("java.io.tmpdir"), "dsql-generated-" + System.nanoTime());
+		try {
+			new DynamicSQLSourceGenerator().generate("/dynamicSQL04.xml", getTestContext(), "gen4", directory);
+			compile(new File(directory, "gen4/BucketedSQL.java"), directory);
+
+			URLClassLoader loader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, getClass().getClassLoader());
+			try {
+				Class<?> clazz = loader.loadClass("gen4.BucketedSQL");
+				for (int size = 1; size <= 5; size++) {
+					List<Object> ages = new ArrayList<Object>();
+					for (int i = 0; i < size; i++) {
+						ages.add(i);
+					}
+					Object statement = clazz.newInstance();
+					clazz.getMethod("setAges", Object.class).invoke(statement, ages);
+					DynamicSQL actual = (DynamicSQL) clazz.getMethod("build", String.class).invoke(statement, "ns4");
+
+					Parameter parameter = new Parameter();
+					parameter.put("ages", ages);
+					DynamicSQL expect = DynamicSQLManager.generate("ns4", "bucketed", parameter);
+					assertEquals("実行SQL", expect.getExecuteSQL(), actual.getExecuteSQL());
+					assertEquals("整形SQL", expect.getFormatSQL(), actual.getFormatSQL());
+					assertEquals("パラメータ", expect.getParameters(), actual.getParameters());
+					assertEquals("パラメータ数", (1 == size) ? 1 : (size <= 4) ? 4 : 16, actual.getParameters().size());
+				}
+
+				Object statement = clazz.newInstance();
+				clazz.getMethod("setAges", Object.class).invoke(statement, new long[] { 1L, 2L, 3L });
+				DynamicSQL actual = (DynamicSQL) clazz.getMethod("build", String.class).invoke(statement, "ns4");
+
+				Parameter parameter = new Parameter();
+				parameter.put("ages", new long[] { 1L, 2L, 3L });
+				DynamicSQL expect = DynamicSQLManager.generate("ns4", "bucketed", parameter);
+				assertEquals("実行SQL", expect.getExecuteSQL(), actual.getExecuteSQL());
+				assertEquals("パラメータ", expect.getParameters(), actual.getParameters());
+				assertEquals("パラメータ", Arrays.asList((Object) 1L, 2L, 3L, null), actual.getParameters());
+			} finally {
+				loader.close();
+			}
+		} finally {
+			delete(directory);
+		}
+	}
+
+	private static void compile(final File source, final File directory) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertNotNull("コンパイラ", compiler);
+		assertTrue("ソース", source.isFile());
+		List<String> args = new ArrayList<String>();
+		args.add("-encoding");
+		args.add("UTF-8");
+		args.add("-cp");
+		args.add(System.getProperty("java.class.path"));
+		args.add("-d");
+		args.add(directory.getPath());
+		for (File file : source.getParentFile().listFiles()) {
+			args.add(file.getPath());
+		}
+		int result = compiler.run(null, null, null, args.toArray(new String[args.size()]));
+		assertEquals("コンパイル", 0, result);
+	}
+
+	private static void delete(final File file) {
+		File[] files = file.listFiles();
+		if (null != files) {
+			for (File f : files) {
+				delete(f);
+			}
+		}
+		file.delete();
+	}
 }
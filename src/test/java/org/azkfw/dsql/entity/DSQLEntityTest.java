@@ -17,7 +17,11 @@
  */
 package org.azkfw.dsql.entity;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -242,6 +246,28 @@ public class DSQLEntityTest extends DsqlTestCase {
 		assertEquals("パラメータキー", "ages", line.getParameter());
 	}
 
+	@Test
+	public void testPlan() throws IOException {
+		DSQLEntity entity = DSQLEntity.getInstance("test03", this.getClass().getResourceAsStream("/test03.txt"), Charset.forName("UTF-8"));
+
+		DSQLPlan plan = entity.getPlan();
+		assertNotNull("インスタンス", plan);
+		assertEquals("命令数", 9, plan.size());
+
+		byte[] operations = plan.getOperations();
+		assertEquals("命令", DSQLPlan.OP_ALWAYS, operations[0]);
+		assertEquals("命令", DSQLPlan.OP_GROUP, operations[1]);
+		assertEquals("命令", DSQLPlan.OP_ALWAYS, operations[4]);
+		assertEquals("命令", DSQLPlan.OP_PARAMETER | DSQLPlan.OP_EXPAND, operations[5]);
+		assertEquals("命令", DSQLPlan.OP_GROUP, operations[6]);
+		assertEquals("命令", DSQLPlan.OP_GROUP | DSQLPlan.OP_PARAMETER | DSQLPlan.OP_EXPAND, operations[7]);
+
+		assertEquals("SQL", "FROM table A WHERE", plan.getExecuteSQLs()[4]);
+		assertEquals("グループキー", "COUNT", plan.getGroups()[1]);
+		assertEquals("パラメータキー", "fromAge", plan.getParameters()[7]);
+		assertEquals("バインド位置", 1, plan.getExecuteBindIndexes()[5].length);
+	}
+
 	@Test
 	public void test10() throws IOException {
 		DSQLEntity entity = DSQLEntity.getInstance("test10",this.getClass().getResourceAsStream("/test10.txt"), Charset.forName("UTF-8"));
@@ -450,4 +476,87 @@ public class DSQLEntityTest extends DsqlTestCase {
 		assertEquals("グループキー", "group", line.getGroup());
 		assertEquals("パラメータキー", "param", line.getParameter());
 	}
+
+	@Test
+	public void testLexer() {
+		DSQLLineEntity line = null;
+
+		line = DSQLLineLexer.scan("  ${ g : p }   A = ?  ");
+		assertFalse("コメント", line.isComment());
+		assertEquals("グループキー", "g", line.getGroup());
+		assertEquals("パラメータキー", "p", line.getParameter());
+		assertEquals("SQL", "A = ?", line.getSQL());
+		assertEquals("整形SQL", "               A = ?", line.getFormatSQL());
+
+		line = DSQLLineLexer.scan("${a:b:c} X");
+		assertEquals("グループキー", "a", line.getGroup());
+		assertEquals("パラメータキー", "b", line.getParameter());
+		assertEquals("SQL", "X", line.getSQL());
+		assertEquals("整形SQL", "         X", line.getFormatSQL());
+
+		line = DSQLLineLexer.scan("${x}   ");
+		assertFalse("グループ", line.isGroup());
+		assertEquals("パラメータキー", "x", line.getParameter());
+		assertEquals("SQL", "", line.getSQL());
+		assertEquals("整形SQL", "", line.getFormatSQL());
+
+		line = DSQLLineLexer.scan("${a}b}c");
+		assertEquals("パラメータキー", "a}b", line.getParameter());
+		assertEquals("SQL", "c", line.getSQL());
+
+		line = DSQLLineLexer.scan("${}");
+		assertFalse("グループ", line.isGroup());
+		assertFalse("パラメータ", line.isParameter());
+		assertEquals("SQL", "${}", line.getSQL());
+
+		line = DSQLLineLexer.scan("\t# c ${x}");
+		assertTrue("コメント", line.isComment());
+
+		line = DSQLLineLexer.scan("\t  SELECT  \t");
+		assertFalse("コメント", line.isComment());
+		assertEquals("SQL", "SELECT", line.getSQL());
+		assertEquals("整形SQL", "\t  SELECT", line.getFormatSQL());
+	}
+
+	@Test
+	public void testLineReader() throws IOException {
+		Charset utf8 = Charset.forName("UTF-8");
+		StringBuilder text = new StringBuilder();
+		text.append("SELECT\r\n");
+		text.append("  ${g:} A = 1\r");
+		text.append("\n");
+		text.append("# コメント\n");
+		// 文字バッファの境界をまたぐ行と、境界上の\r\n
+		while (8191 > text.length()) {
+			text.append('x');
+		}
+		text.append("\r\n${:p} B = ?\n");
+		for (int i = 0; i < 20000; i++) {
+			text.append("あ");
+		}
+		text.append("\n\r\n  FROM T");
+		byte[] data = text.toString().getBytes(utf8);
+
+		DSQLEntity expect = DSQLEntity.getInstance("expect", new InputStreamReader(new ByteArrayInputStream(data), utf8));
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		DSQLEntity actual = DSQLEntity.getInstance("actual", buffer, utf8);
+		assertEquals("位置", 0, buffer.position());
+
+		List<DSQLLineEntity> expectLines = expect.getLineList();
+		List<DSQLLineEntity> actualLines = actual.getLineList();
+		assertEquals("行数", expectLines.size(), actualLines.size());
+		for (int i = 0; i < expectLines.size(); i++) {
+			assertEquals("行", expectLines.get(i).getLine(), actualLines.get(i).getLine());
+			assertEquals("SQL", expectLines.get(i).getSQL(), actualLines.get(i).getSQL());
+		}
+		assertEquals("実行SQL", expect.getPlainSQL(), actual.getPlainSQL());
+
+		assertEquals("行数", 0, DSQLEntity.getInstance("empty", ByteBuffer.allocate(0), utf8).getLineList().size());
+
+		try {
+			DSQLEntity.getInstance("error", ByteBuffer.wrap(new byte[] { 'A', (byte) 0xff, '\n' }), utf8);
+			fail("Malformed input.");
+		} catch (CharacterCodingException ex) {
+		}
+	}
 }
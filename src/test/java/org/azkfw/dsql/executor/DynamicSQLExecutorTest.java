@@ -0,0 +1,431 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.azkfw.dsql.DsqlTestCase;
+import org.azkfw.dsql.DynamicSQL;
+import org.azkfw.dsql.DynamicSQLManager;
+import org.azkfw.dsql.Group;
+import org.azkfw.dsql.Parameter;
+import org.azkfw.dsql.RowList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class DynamicSQLExecutorTest extends DsqlTestCase {
+
+	@Before
+	public void before() throws IOException {
+		DynamicSQLManager.getInstance().initialize();
+		DynamicSQLManager.getInstance().load("ns", "/dynamicSQL01.xml", getTestContext());
+		DynamicSQLManager.getInstance().load("ex", "/dynamicSQL03.xml", getTestContext());
+	}
+
+	@After
+	public void after() {
+		DynamicSQLManager.getInstance().destroy();
+	}
+
+	@Test
+	public void testExecuteUpdate() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+		mock.setUpdateCount(3);
+
+		Parameter params = new Parameter();
+		params.put("name", "azuki");
+		params.put("fromAge", 20);
+		params.put("toAge", 29L);
+		int count = executor.executeUpdate(mock.getConnection(), "ns", "test03", new Group("AGE"), params);
+
+		assertEquals("更新件数", 3, count);
+		List<String> calls = mock.getCalls();
+		assertEquals("呼び出し数", 6, calls.size());
+		assertTrue("生成", calls.get(0).startsWith("connection.prepareStatement("));
+		assertEquals("文字列", "statement.setString(1, azuki)", calls.get(1));
+		assertEquals("整数", "statement.setInt(2, 20)", calls.get(2));
+		assertEquals("長整数", "statement.setLong(3, 29)", calls.get(3));
+		assertEquals("実行", "statement.executeUpdate()", calls.get(4));
+		assertEquals("クローズ", "statement.close()", calls.get(5));
+	}
+
+	@Test
+	public void testObservedType() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(1L, null, 3L));
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		assertEquals("長整数", "statement.setLong(1, 1)", mock.getCalls().get(1));
+		assertEquals("未確定のnull", "statement.setObject(2, null)", mock.getCalls().get(2));
+		assertEquals("長整数", "statement.setLong(3, 3)", mock.getCalls().get(3));
+
+		// 型を確定した位置の null は SQL型で設定する
+		mock.clear();
+		params.put("ages", Arrays.asList(null, null, 3L));
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		assertEquals("確定済みのnull", "statement.setNull(1, " + java.sql.Types.BIGINT + ")", mock.getCalls().get(1));
+
+		// 型が変わった場合は選択し直す
+		mock.clear();
+		Timestamp ts = new Timestamp(0L);
+		params.put("ages", Arrays.asList("1", ts, new StringBuilder("3")));
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		assertEquals("文字列", "statement.setString(1, 1)", mock.getCalls().get(1));
+		assertEquals("タイムスタンプ", "statement.setTimestamp(2, " + ts + ")", mock.getCalls().get(2));
+		assertEquals("その他", "statement.setObject(3, 3)", mock.getCalls().get(3));
+	}
+
+	@Test
+	public void testPrimitiveArray() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+
+		Parameter params = new Parameter();
+		params.put("ages", new long[] { 1L, 2L, 3L });
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		assertEquals("長整数", "statement.setLong(1, 1)", mock.getCalls().get(1));
+		assertEquals("長整数", "statement.setLong(2, 2)", mock.getCalls().get(2));
+		assertEquals("長整数", "statement.setLong(3, 3)", mock.getCalls().get(3));
+
+		// プリミティブ値で確定した位置の null は SQL型で設定する
+		mock.clear();
+		params.put("ages", Arrays.asList(null, 2L, 3L));
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		assertEquals("確定済みのnull", "statement.setNull(1, " + java.sql.Types.BIGINT + ")", mock.getCalls().get(1));
+
+		mock.clear();
+		params.put("ages", new int[] { 4, 5 });
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		assertEquals("整数", "statement.setInt(1, 4)", mock.getCalls().get(1));
+		assertEquals("整数", "statement.setInt(2, 5)", mock.getCalls().get(2));
+
+		mock.clear();
+		params.put("ages", new String[] { "a", "b" });
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		assertEquals("文字列", "statement.setString(1, a)", mock.getCalls().get(1));
+		assertEquals("文字列", "statement.setString(2, b)", mock.getCalls().get(2));
+
+		// バッチ
+		mock.clear();
+		Parameter other = new Parameter();
+		other.put("ages", new long[] { 7L, 8L });
+		executor.executeBatch(mock.getConnection(), "ns", "test04", null, Arrays.asList(params, other));
+		assertTrue("バッチ", mock.getCalls().contains("statement.setLong(1, 7)"));
+		assertTrue("バッチ", mock.getCalls().contains("statement.setLong(2, 8)"));
+	}
+
+	@Test
+	public void testPrepare() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(10, 20));
+		DynamicSQL dsql = DynamicSQLManager.generate("ns", "test04", params);
+		executor.prepare(mock.getConnection(), dsql);
+
+		List<String> calls = mock.getCalls();
+		assertEquals("呼び出し数", 3, calls.size());
+		assertEquals("生成", "connection.prepareStatement(" + dsql.getExecuteSQL() + ")", calls.get(0));
+		assertEquals("整数", "statement.setInt(1, 10)", calls.get(1));
+		assertEquals("整数", "statement.setInt(2, 20)", calls.get(2));
+	}
+
+	@Test
+	public void testStatementCache() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+		StatementCache cache = new StatementCache(mock.getConnection(), 1);
+
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(10, 20));
+		executor.executeUpdate(cache, "ns", "test04", null, params);
+		params.put("ages", Arrays.asList(30, 40));
+		executor.executeUpdate(cache, "ns", "test04", null, params);
+		assertEquals("生成数", 1, count(mock.getCalls(), "connection.prepareStatement("));
+		assertEquals("クローズ数", 0, count(mock.getCalls(), "statement.close("));
+		assertEquals("ヒット数", 1, cache.getHitCount());
+		assertEquals("ミス数", 1, cache.getMissCount());
+		assertEquals("保持数", 1, cache.size());
+
+		// 形状が異なる場合は生成し、容量を超えた分をクローズする
+		params.put("ages", Arrays.asList(10, 20, 30));
+		executor.executeUpdate(cache, "ns", "test04", null, params);
+		assertEquals("生成数", 2, count(mock.getCalls(), "connection.prepareStatement("));
+		assertEquals("クローズ数", 1, count(mock.getCalls(), "statement.close("));
+		assertEquals("ミス数", 2, cache.getMissCount());
+		assertEquals("追い出し数", 1, cache.getEvictionCount());
+
+		cache.close();
+		assertEquals("クローズ数", 2, count(mock.getCalls(), "statement.close("));
+		assertEquals("保持数", 0, cache.size());
+	}
+
+	private static int count(final List<String> calls, final String prefix) {
+		int count = 0;
+		for (String call : calls) {
+			if (call.startsWith(prefix)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void testExecuteBatch() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		executor.setBatchSize(2);
+		JdbcMock mock = new JdbcMock();
+
+		// 形状A(2要素)、形状B(3要素)を交互に入力する
+		List<Parameter> rows = new ArrayList<Parameter>();
+		for (int i = 0; i < 5; i++) {
+			Parameter params = new Parameter();
+			if (0 == i % 2) {
+				params.put("ages", Arrays.asList(i, i));
+			} else {
+				params.put("ages", Arrays.asList(i, i, i));
+			}
+			rows.add(params);
+		}
+		int[] counts = executor.executeBatch(mock.getConnection(), "ns", "test04", null, rows);
+
+		List<String> calls = mock.getCalls();
+		assertEquals("生成数", 2, count(calls, "connection.prepareStatement("));
+		assertEquals("蓄積数", 5, count(calls, "statement.addBatch("));
+		// 形状A: 0,2 でバッチサイズに達し実行、4 は最後に実行。形状B: 1,3 でバッチサイズに達し実行
+		assertEquals("実行数", 3, count(calls, "statement.executeBatch("));
+		assertEquals("クローズ数", 2, count(calls, "statement.close("));
+
+		// モックは addBatch の通番を更新件数として返すため、入力順に並べば 1..5 となる
+		assertTrue("更新件数", Arrays.equals(new int[] { 1, 2, 3, 4, 5 }, counts));
+	}
+
+	@Test
+	public void testExecuteBatchMaxStatements() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		executor.setMaxBatchStatements(2);
+		JdbcMock mock = new JdbcMock();
+
+		// 形状A(1要素)、形状B(2要素)、形状A、形状C(3要素)、形状A の順に入力する
+		int[] sizes = new int[] { 1, 2, 1, 3, 1 };
+		List<Parameter> rows = new ArrayList<Parameter>();
+		for (int i = 0; i < sizes.length; i++) {
+			List<Integer> ages = new ArrayList<Integer>();
+			for (int j = 0; j < sizes[i]; j++) {
+				ages.add(i);
+			}
+			Parameter params = new Parameter();
+			params.put("ages", ages);
+			rows.add(params);
+		}
+		int[] counts = executor.executeBatch(mock.getConnection(), "ns", "test04", null, rows);
+
+		List<String> calls = mock.getCalls();
+		// 形状Cの生成時に最も長く使用されていない形状Bを実行してクローズする
+		assertEquals("生成数", 3, count(calls, "connection.prepareStatement("));
+		assertEquals("実行数", 3, count(calls, "statement.executeBatch("));
+		assertEquals("クローズ数", 3, count(calls, "statement.close("));
+		int open = 0;
+		for (String call : calls) {
+			if (call.startsWith("connection.prepareStatement(")) {
+				open++;
+				assertTrue("同時に開く数", 2 >= open);
+			} else if (call.startsWith("statement.close(")) {
+				open--;
+			}
+		}
+		assertEquals("更新件数", 5, counts.length);
+
+		try {
+			executor.setMaxBatchStatements(0);
+			fail("Invalid max batch statements.");
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void testExecuteBatchEmpty() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+
+		int[] counts = executor.executeBatch(mock.getConnection(), "ns", "test04", null, new ArrayList<Parameter>());
+		assertEquals("更新件数", 0, counts.length);
+		assertEquals("呼び出し数", 0, mock.getCalls().size());
+	}
+
+	@Test
+	public void testRowChunks() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		executor.setMaxBindCount(5);
+		JdbcMock mock = new JdbcMock();
+		mock.setUpdateCount(2);
+
+		RowList rows = new RowList(2);
+		for (int i = 1; i <= 5; i++) {
+			rows.add(i, "name" + i);
+		}
+		Parameter params = new Parameter();
+		params.put("tenant", "t1");
+		params.put("rows", rows);
+		// 行リスト以外のバインド数1、1行2列のため、上限5では2行ずつ(2行、2行、1行)に分割する
+		int count = executor.executeUpdate(mock.getConnection(), "ex", "test06", null, params);
+
+		List<String> calls = mock.getCalls();
+		assertEquals("更新件数", 6, count);
+		assertEquals("生成数", 2, count(calls, "connection.prepareStatement("));
+		assertEquals("実行数", 3, count(calls, "statement.executeUpdate("));
+		assertEquals("クローズ数", 2, count(calls, "statement.close("));
+		assertEquals("最終行", "statement.setString(3, name5)", calls.get(calls.size() - 3));
+		assertSame("パラメータは変更しない", rows, params.get("rows"));
+
+		// 上限内の場合は分割しない
+		mock.clear();
+		executor.setDialect(Dialect.SQLSERVER);
+		executor.executeUpdate(mock.getConnection(), "ex", "test06", null, params);
+		assertEquals("実行数", 1, count(mock.getCalls(), "statement.executeUpdate("));
+
+		// 実行用SQLに展開していない行リストは分割しない
+		Parameter unused = new Parameter();
+		unused.put("ages", Arrays.asList(1, 2, 3, 4, 5));
+		unused.put("rows", rows);
+		executor.setMaxBindCount(3);
+		mock.clear();
+		try {
+			executor.executeUpdate(mock.getConnection(), "ns", "test04", null, unused);
+			fail("分割できない");
+		} catch (SQLException ex) {
+			assertTrue("メッセージ", ex.getMessage().startsWith("Too many bind parameters."));
+			assertEquals("実行数", 0, count(mock.getCalls(), "statement.executeUpdate("));
+		}
+
+		// 行リスト以外で上限を超える場合は分割できない
+		executor.setMaxBindCount(1);
+		try {
+			executor.executeUpdate(mock.getConnection(), "ex", "test06", null, params);
+			fail("分割できない");
+		} catch (SQLException ex) {
+			assertEquals("メッセージ", "Too many bind parameters.[namespace:ex, name:test06, count:11, max:1]", ex.getMessage());
+		}
+	}
+
+	@Test
+	public void testQuery() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+		mock.setRows(new Object[] { 1, "a" }, new Object[] { 2, "b" }, new Object[] { 3, "c" });
+
+		Parameter params = new Parameter();
+		params.put("tenant", "t1");
+		final List<String> names = new ArrayList<String>();
+		int count = executor.query(mock.getConnection(), "ex", "test07", null, params, null, new RowHandler<Object>() {
+			@Override
+			public boolean handle(final Object row) {
+				names.add((String) row);
+				return true;
+			}
+		});
+
+		assertEquals("行数", 3, count);
+		assertEquals("設定ファイルの行マッパー", Arrays.asList("a", "b", "c"), names);
+		List<String> calls = mock.getCalls();
+		assertTrue("前方向のみ・読み取り専用",
+				calls.get(0).endsWith(", " + ResultSet.TYPE_FORWARD_ONLY + ", " + ResultSet.CONCUR_READ_ONLY + ")"));
+		assertTrue("設定ファイルのフェッチサイズ", calls.contains("statement.setFetchSize(500)"));
+		assertEquals("結果セットのクローズ", 1, count(calls, "resultSet.close("));
+		assertEquals("ステートメントのクローズ", "statement.close()", calls.get(calls.size() - 1));
+	}
+
+	@Test
+	public void testQueryEarlyClose() throws SQLException {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		executor.setFetchSize(100);
+		JdbcMock mock = new JdbcMock();
+		mock.setRows(new Object[] { 1, "a" }, new Object[] { 2, "b" }, new Object[] { 3, "c" });
+
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(10, 20));
+		final List<Object[]> rows = new ArrayList<Object[]>();
+		int count = executor.query(mock.getConnection(), "ns", "test04", null, params, RowMapper.ARRAY, new RowHandler<Object[]>() {
+			@Override
+			public boolean handle(final Object[] row) {
+				rows.add(row);
+				return 2 > rows.size();
+			}
+		});
+
+		assertEquals("行数", 2, count);
+		assertEquals("列", "[2, b]", Arrays.toString(rows.get(1)));
+		List<String> calls = mock.getCalls();
+		assertTrue("デフォルトのフェッチサイズ", calls.contains("statement.setFetchSize(100)"));
+		assertEquals("残りの行は読み込まない", 2, count(calls, "resultSet.next("));
+		assertEquals("結果セットのクローズ", 1, count(calls, "resultSet.close("));
+
+		// ハンドラーで例外が発生した場合もクローズする
+		mock.clear();
+		try {
+			executor.query(mock.getConnection(), "ns", "test04", null, params, RowMapper.ARRAY, new RowHandler<Object[]>() {
+				@Override
+				public boolean handle(final Object[] row) throws SQLException {
+					throw new SQLException("abort");
+				}
+			});
+			fail("ハンドラーの例外");
+		} catch (SQLException ex) {
+			assertEquals("メッセージ", "abort", ex.getMessage());
+		}
+		assertEquals("結果セットのクローズ", 1, count(mock.getCalls(), "resultSet.close("));
+		assertEquals("ステートメントのクローズ", 1, count(mock.getCalls(), "statement.close("));
+	}
+
+	/**
+	 * 2列目を返すテスト用の行マッパー
+	 */
+	public static class NameMapper implements RowMapper<String> {
+		@Override
+		public String map(final ResultSet rs, final int rowNum) throws SQLException {
+			return (String) rs.getObject(2);
+		}
+	}
+
+	@Test
+	public void testNotFound() {
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		try {
+			executor.executeUpdate(new JdbcMock().getConnection(), "ns", "none", null, new Parameter());
+			fail("存在しないダイナミックSQL");
+		} catch (SQLException ex) {
+			assertEquals("メッセージ", "Not found dynamicSQL.[namespace:ns, name:none]", ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JDBCの呼び出しを記録するテスト用のコネクションです。
+ * 
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class JdbcMock {
+
+	/** 呼び出し履歴 */
+	private final List<String> calls = new ArrayList<String>();
+
+	/** 更新件数 */
+	private int updateCount = 1;
+
+	/** addBatchの通番(executeBatchの更新件数として返す) */
+	private int batchSequence = 0;
+
+	/** 検索結果 */
+	private List<Object[]> rows = new ArrayList<Object[]>();
+
+	public Connection getConnection() {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+				record("connection", method, args);
+				if ("prepareStatement".equals(method.getName())) {
+					return newStatement();
+				}
+				return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	public List<String> getCalls() {
+		return calls;
+	}
+
+	public void clear() {
+		calls.clear();
+	}
+
+	public void setUpdateCount(final int count) {
+		updateCount = count;
+	}
+
+	public void setRows(final Object[]... rows) {
+		this.rows = new ArrayList<Object[]>(Arrays.asList(rows));
+	}
+
+	private PreparedStatement newStatement() {
+		return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class },
+				new InvocationHandler() {
+					private final List<Integer> batch = new ArrayList<Integer>();
+
+					@Override
+					public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+						record("statement", method, args);
+						if ("executeUpdate".equals(method.getName())) {
+							return updateCount;
+						} else if ("addBatch".equals(method.getName())) {
+							batch.add(++batchSequence);
+						} else if ("executeBatch".equals(method.getName())) {
+							int[] counts = new int[batch.size()];
+							for (int i = 0; i < counts.length; i++) {
+								counts[i] = batch.get(i);
+							}
+							batch.clear();
+							return counts;
+						} else if ("executeQuery".equals(method.getName())) {
+							return newResultSet();
+						}
+						return defaultValue(method.getReturnType());
+					}
+				});
+	}
+
+	private ResultSet newResultSet() {
+		return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class }, new InvocationHandler() {
+			private int index = -1;
+
+			@Override
+			public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+				record("resultSet", method, args);
+				if ("next".equals(method.getName())) {
+					return ++index < rows.size();
+				} else if ("getObject".equals(method.getName())) {
+					return rows.get(index)[(Integer) args[0] - 1];
+				} else if ("getMetaData".equals(method.getName())) {
+					return newMetaData(rows.isEmpty() ? 0 : rows.get(0).length);
+				}
+				return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	private ResultSetMetaData newMetaData(final int columnCount) {
+		return (ResultSetMetaData) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSetMetaData.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+						if ("getColumnCount".equals(method.getName())) {
+							return columnCount;
+						}
+						return defaultValue(method.getReturnType());
+					}
+				});
+	}
+
+	private void record(final String target, final Method method, final Object[] args) {
+		StringBuilder s = new StringBuilder();
+		s.append(target).append('.').append(method.getName()).append('(');
+		if (null != args) {
+			for (int i = 0; i < args.length; i++) {
+				if (0 < i) {
+					s.append(", ");
+				}
+				s.append(args[i]);
+			}
+		}
+		s.append(')');
+		calls.add(s.toString());
+	}
+
+	private static Object defaultValue(final Class<?> type) {
+		if (boolean.class == type) {
+			return Boolean.FALSE;
+		} else if (int.class == type) {
+			return 0;
+		} else if (long.class == type) {
+			return 0L;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.dsql.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.azkfw.dsql.DsqlTestCase;
+import org.azkfw.dsql.DynamicSQLManager;
+import org.azkfw.dsql.Parameter;
+import org.azkfw.dsql.executor.DynamicSQLExecutor;
+import org.azkfw.dsql.executor.JdbcMock;
+import org.azkfw.dsql.executor.RowHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 1.7.0
+ * @version 1.7.0 2026/10/17
+ * @author Kawakicchi
+ */
+public class DynamicSQLMetricsTest extends DsqlTestCase {
+
+	@Before
+	public void before() throws IOException {
+		DynamicSQLManager.getInstance().initialize();
+		DynamicSQLManager.getInstance().load("ns", "/dynamicSQL01.xml", getTestContext());
+	}
+
+	@After
+	public void after() {
+		DynamicSQLMetrics.getInstance().setEnabled(false);
+		DynamicSQLMetrics.getInstance().clear();
+		DynamicSQLManager.getInstance().destroy();
+	}
+
+	@Test
+	public void testUnknownStatement() {
+		DynamicSQLMetrics metrics = DynamicSQLMetrics.getInstance();
+		metrics.setEnabled(true);
+
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(1, 2));
+		try {
+			executor.executeBatch(mock.getConnection(), "ns", "test99", null, Arrays.asList(params));
+			fail("Not found dynamicSQL.");
+		} catch (SQLException ex) {
+		}
+		assertEquals("計測なし", 0, metrics.getStatementCount());
+	}
+
+	@Test
+	public void testDisabled() {
+		DynamicSQLMetrics metrics = DynamicSQLMetrics.getInstance();
+		assertNull("無効", metrics.get("ns", "test04"));
+
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(1, 2));
+		DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("計測なし", 0, metrics.getStatementCount());
+	}
+
+	@Test
+	public void testGenerate() {
+		DynamicSQLMetrics metrics = DynamicSQLMetrics.getInstance();
+		metrics.setEnabled(true);
+
+		Parameter params = new Parameter();
+		for (int size : new int[] { 1, 2, 2, 3 }) {
+			Integer[] ages = new Integer[size];
+			Arrays.fill(ages, 20);
+			params.put("ages", Arrays.asList(ages));
+			DynamicSQLManager.generate("ns", "test04", params);
+		}
+
+		StatementSnapshot snapshot = metrics.get("ns", "test04").snapshot();
+		assertEquals("生成回数", 4, snapshot.getGenerateCount());
+		assertEquals("形状数", 3, snapshot.getShapeCount());
+		assertEquals("要素数の件数", 4, snapshot.getInListLength().getCount());
+		assertEquals("要素数の中央値", 2, snapshot.getInListLength().getP50());
+		assertEquals("要素数の最大値", 3, snapshot.getInListLength().getMax());
+		assertTrue("生成時間", 0 < snapshot.getBuild().getSum());
+		assertEquals("実行なし", 0, snapshot.getExecuteCount());
+
+		metrics.reset();
+		assertEquals("初期化", 0, metrics.get("ns", "test04").snapshot().getGenerateCount());
+
+		// 削除後は登録情報が保持する計測値を使用しない
+		metrics.clear();
+		DynamicSQLManager.generate("ns", "test04", params);
+		assertEquals("削除後", 1, metrics.get("ns", "test04").snapshot().getGenerateCount());
+	}
+
+	@Test
+	public void testExecutor() throws SQLException {
+		DynamicSQLMetrics metrics = DynamicSQLMetrics.getInstance();
+		metrics.setEnabled(true);
+		DynamicSQLExecutor executor = new DynamicSQLExecutor();
+		JdbcMock mock = new JdbcMock();
+		mock.setUpdateCount(2);
+
+		Parameter params = new Parameter();
+		params.put("ages", Arrays.asList(10, 20));
+		executor.executeUpdate(mock.getConnection(), "ns", "test04", null, params);
+		executor.executeBatch(mock.getConnection(), "ns", "test04", null, Arrays.asList(params, params));
+		mock.setRows(new Object[] { 1 }, new Object[] { 2 }, new Object[] { 3 });
+		executor.query(mock.getConnection(), "ns", "test04", null, params, null, new RowHandler<Object>() {
+			@Override
+			public boolean handle(final Object row) {
+				return true;
+			}
+		});
+
+		StatementSnapshot snapshot = metrics.get("ns", "test04").snapshot();
+		assertEquals("生成回数", 4, snapshot.getGenerateCount());
+		assertEquals("実行回数(更新・バッチ・検索)", 3, snapshot.getExecuteCount());
+		// モックのバッチ更新件数は addBatch の通番(1, 2)
+		assertEquals("更新件数", 2 + 1 + 2, snapshot.getUpdateCount());
+		assertEquals("読み込み回数", 1, snapshot.getFetch().getCount());
+		assertEquals("読み込み行数", 3, snapshot.getRowCount());
+
+		List<StatementSnapshot> top = metrics.top(1);
+		assertEquals("件数", 1, top.size());
+		assertEquals("名前", "test04", top.get(0).getName());
+	}
+
+	@Test
+	public void testScrape() {
+		DynamicSQLMetrics metrics = DynamicSQLMetrics.getInstance();
+		metrics.setEnabled(true);
+		DynamicSQLManager.generate("ns", "test01");
+
+		String text = metrics.scrape();
+		assertTrue("型", text.contains("# TYPE dsql_build_seconds summary\n"));
+		assertTrue("カウンター", text.contains("dsql_generate_total{namespace=\"ns\",name=\"test01\"} 1\n"));
+		assertTrue("quantile", text.contains("dsql_build_seconds{namespace=\"ns\",name=\"test01\",quantile=\"0.99\"} "));
+		assertTrue("件数", text.contains("dsql_build_seconds_count{namespace=\"ns\",name=\"test01\"} 1\n"));
+	}
+
+	@Test
+	public void testMXBean() throws Exception {
+		DynamicSQLMetrics metrics = DynamicSQLMetrics.getInstance();
+		metrics.setEnabled(true);
+		DynamicSQLManager.generate("ns", "test01");
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(DynamicSQLMetrics.OBJECT_NAME);
+		metrics.register();
+		try {
+			assertTrue("登録", server.isRegistered(name));
+			assertEquals("ダイナミックSQL数", 1, server.getAttribute(name, "StatementCount"));
+			assertEquals("計測値", 1, ((Object[]) server.getAttribute(name, "Statements")).length);
+		} finally {
+			metrics.unregister();
+		}
+		assertFalse("登録解除", server.isRegistered(name));
+	}
+
+	@Test
+	public void testHistogram() {
+		Histogram histogram = new Histogram(16);
+		for (long value = 0; value < 100000; value++) {
+			int index = Histogram.index(value);
+			assertTrue("区間の上限", value <= Histogram.upperBound(index));
+			assertTrue("相対誤差", Histogram.upperBound(index) - value <= value / Histogram.SUB_COUNT);
+		}
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i);
+		}
+		histogram.record(1L << 20);
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals("件数", 101, snapshot.getCount());
+		assertEquals("最大値", 1L << 20, snapshot.getMax());
+		assertEquals("上限を超える値", 1L << 20, snapshot.getValueAtPercentile(100.0));
+		long p50 = snapshot.getP50();
+		assertTrue("中央値", 51 <= p50 && p50 <= 51 + 51 / Histogram.SUB_COUNT);
+	}
+
+	@Test
+	public void testHistogramConcurrent() throws InterruptedException {
+		final Histogram histogram = new Histogram(16);
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						histogram.record(j % 100);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals("件数", 80000, snapshot.getCount());
+		assertEquals("最大値", 99, snapshot.getMax());
+
+		histogram.reset();
+		assertEquals("初期化", 0, histogram.snapshot().getCount());
+	}
+}